@@ -329,12 +329,14 @@ class Controller {
             toPosition.isChoice(true);
         });
 
-        // Make a copy of allowedMoves in a final variable to pass to the Task
+        // Make a copy of allowedMoves, the player and the board state in final variables to pass to the Task
         final List<Move> finalAllowedMoves = List.copyOf(allowedMoves);
+        final int currentPlayer = board.getCurrentPlayer();
+        final BoardState boardSnapshot = board.getBoardSnapshot();
         chooseTask = new Task<>() {
             @Override
             protected Move call() {
-                return MainApplication.players.get(board.getCurrentPlayer()).choose(finalAllowedMoves, board.getBoardState());
+                return MainApplication.players.get(currentPlayer).choose(finalAllowedMoves, boardSnapshot);
             }
         };
 
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+import com.rttnghs.mejn.strategy.FarStrategy;
+import com.rttnghs.mejn.strategy.NearStrategy;
+import com.rttnghs.mejn.strategy.RandomStrategy;
+import com.rttnghs.mejn.strategy.Strategy;
+import com.rttnghs.mejn.strategy.ranking.SomeRankingStrategy;
+
+/**
+ * Decision kernel of a strategy for {@link GameBatch}, choosing directly from
+ * the ordinals in a {@link MoveBuffer} instead of from shifted {@link Move}
+ * lists.
+ * <p>
+ * A kernel chooses the same move as its strategy would through
+ * {@link Player#choose(List, BoardState)}, or for random strategies a move with
+ * the same probability.
+ */
+@FunctionalInterface
+interface BatchStrategy {
+
+	BatchStrategy RANDOM = (_, _, choices, random) -> random.nextInt(choices.size());
+
+	BatchStrategy NEAR = (_, _, _, _) -> 0;
+
+	BatchStrategy FAR = (_, _, choices, _) -> choices.size() - 1;
+
+	/**
+	 * Called only when there is more than one choice, like
+	 * {@link com.rttnghs.mejn.strategy.BaseStrategy#multiChoose(List, BoardState)}.
+	 *
+	 * @param batch   the games
+	 * @param game    index of the game in the batch whose current player chooses
+	 * @param choices two or more allowed moves, in board order
+	 * @param random  source of randomness for the choice
+	 * @return index of the chosen move in the choices.
+	 */
+	int choose(GameBatch batch, int game, MoveBuffer choices, RandomGenerator random);
+
+	/**
+	 * @param strategy to find a kernel for
+	 * @return the kernel of the strategy, or null when the strategy has none.
+	 */
+	static BatchStrategy of(Strategy strategy) {
+		if (strategy == null) {
+			return null;
+		}
+		Class<?> strategyClass = strategy.getClass();
+		if (strategyClass == RandomStrategy.class) {
+			return RANDOM;
+		}
+		if (strategyClass == NearStrategy.class) {
+			return NEAR;
+		}
+		if (strategyClass == FarStrategy.class) {
+			return FAR;
+		}
+		if (strategyClass == SomeRankingStrategy.class) {
+			return new Ranking(((SomeRankingStrategy) strategy).getParameters());
+		}
+		return null;
+	}
+
+	/**
+	 * Kernel of {@link SomeRankingStrategy}, with the valuation of
+	 * {@link com.rttnghs.mejn.strategy.ranking.SomeMoveValuator} computed on
+	 * ordinals from the perspective of the current player.
+	 */
+	record Ranking(int selfStrike, int otherStrike, int gettingHome, int alreadyHome, int fromStart,
+			int fromHome) implements BatchStrategy {
+
+		Ranking(List<Integer> parameters) {
+			this(parameters.get(0), parameters.get(1), parameters.get(2), parameters.get(3), parameters.get(4),
+					parameters.get(5));
+		}
+
+		@Override
+		public int choose(GameBatch batch, int game, MoveBuffer choices, RandomGenerator random) {
+			int best = 0;
+			int bestValue = Integer.MIN_VALUE;
+			for (int index = 0; index < choices.size(); index++) {
+				int value = valuate(batch, game, choices.from(index), choices.to(index));
+				// The ranking strategy keeps the last of equally ranked moves.
+				if (value >= bestValue) {
+					best = index;
+					bestValue = value;
+				}
+			}
+			return best;
+		}
+
+		private int valuate(GameBatch batch, int game, int from, int to) {
+			BoardGeometry geometry = batch.getGeometry();
+			int boardSize = geometry.getBoardSize();
+			int player = batch.getCurrentPlayer(game);
+			int spot = Math.floorMod(geometry.spot(to) - player * batch.getSpec().dotsPerPlayer(), boardSize);
+			Layer toLayer = geometry.layer(to);
+
+			int value = 0;
+			int occupant = batch.getPlayer(game, to);
+			if (occupant == player) {
+				value += (selfStrike * (spot + 1)) / 10;
+			} else if (occupant != -1) {
+				value += otherStrike;
+			}
+			if (toLayer == Layer.HOME) {
+				value += (geometry.layer(from) == Layer.EVENT) ? (gettingHome * boardSize) / 2 : alreadyHome;
+			} else if (toLayer == Layer.EVENT) {
+				value += (fromStart * (spot + 1)) / 10 + (fromHome * (boardSize + 1 - spot)) / 10;
+			}
+			return value;
+		}
+	}
+
+}
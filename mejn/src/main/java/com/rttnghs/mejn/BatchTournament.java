@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.rttnghs.mejn.configuration.GameSpec;
+import com.rttnghs.mejn.statistics.DenseEventCounter;
+import com.rttnghs.mejn.statistics.EventCounter;
+import com.rttnghs.mejn.strategy.StrategyFactory;
+
+/**
+ * Plays the games of a {@link Tournament} in batches of games that advance in
+ * lockstep, see {@link GameBatch}.
+ * <p>
+ * Only strategies with a batch kernel can play, see {@link #supports}. The
+ * results have the same distribution as those of {@link Tournament#play()}.
+ */
+public class BatchTournament {
+
+	private static final Logger logger = LogManager.getLogger(BatchTournament.class);
+
+	/**
+	 * Number of games played at once when not specified.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 1024;
+
+	private final List<String> strategyNames;
+	private final List<BatchStrategy> strategies;
+	private final int games;
+	private final GameSpec spec;
+	private final int batchSize;
+	private final RandomGenerator random;
+	private final EventCounter<String, Integer> finishCounts = new EventCounter<>();
+
+	public BatchTournament(StrategyFactory strategyFactory, List<String> strategyNames, int games) {
+		this(strategyFactory, strategyNames, games, GameSpec.DEFAULT);
+	}
+
+	public BatchTournament(StrategyFactory strategyFactory, List<String> strategyNames, int games, GameSpec spec) {
+		this(strategyFactory, strategyNames, games, spec, DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * @param strategyFactory to be used to create strategies for players.
+	 * @param strategyNames   The names of the strategies to be used, one per player.
+	 * @param games           how many games to play.
+	 * @param spec            rules and dimensions of all games in this tournament.
+	 * @param batchSize       largest number of games to play at once.
+	 * @throws IllegalArgumentException when a strategy has no batch kernel.
+	 */
+	public BatchTournament(StrategyFactory strategyFactory, List<String> strategyNames, int games, GameSpec spec,
+			int batchSize) {
+		this(strategyFactory, strategyNames, games, spec, batchSize, null);
+	}
+
+	/**
+	 * @param strategyFactory to be used to create strategies for players.
+	 * @param strategyNames   The names of the strategies to be used, one per player.
+	 * @param games           how many games to play.
+	 * @param spec            rules and dimensions of all games in this tournament.
+	 * @param batchSize       largest number of games to play at once.
+	 * @param random          where the dice and random choices come from, or null
+	 *                        for the thread local generator of the playing thread.
+	 *                        A {@link DiceBuffer} rolls in bulk.
+	 * @throws IllegalArgumentException when a strategy has no batch kernel.
+	 */
+	public BatchTournament(StrategyFactory strategyFactory, List<String> strategyNames, int games, GameSpec spec,
+			int batchSize, RandomGenerator random) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+		}
+		this.strategyNames = List.copyOf(strategyNames);
+		this.strategies = new ArrayList<>(strategyNames.size());
+		for (String strategyName : strategyNames) {
+			BatchStrategy strategy = BatchStrategy.of(strategyFactory.getStrategy(strategyName));
+			if (strategy == null) {
+				throw new IllegalArgumentException("Strategy has no batch kernel: " + strategyName);
+			}
+			strategies.add(strategy);
+		}
+		this.games = games;
+		this.spec = spec;
+		this.batchSize = batchSize;
+		this.random = random;
+	}
+
+	/**
+	 * @param strategyFactory to be used to create strategies for players.
+	 * @param strategyNames   The names of the strategies to be used, one per player.
+	 * @return whether all strategies can play in a batch tournament.
+	 */
+	public static boolean supports(StrategyFactory strategyFactory, List<String> strategyNames) {
+		for (String strategyName : strategyNames) {
+			if (BatchStrategy.of(strategyFactory.getStrategy(strategyName)) == null) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public EventCounter<String, Integer> play() {
+		int playerCount = strategies.size();
+		GameBatch batch = new GameBatch(spec, strategies, Math.max(1, Math.min(batchSize, games)));
+		RandomGenerator random = Die.generator(this.random);
+		DenseEventCounter<String> counts = new DenseEventCounter<>(playerCount);
+		int[] ids = counts.actorIds(strategyNames);
+		for (int played = 0; played < games; played += batch.size()) {
+			batch.reset(Math.min(batchSize, games - played), random);
+			batch.play(random);
+			for (int game = 0; game < batch.size(); game++) {
+				for (int place = 0; place < playerCount; place++) {
+					counts.increment(ids[batch.getFinisher(game, place)], place);
+				}
+			}
+		}
+		finishCounts.add(counts.toEventCounter(Integer::valueOf));
+		logger.debug(finishCounts);
+		return finishCounts;
+	}
+
+}
@@ -17,7 +17,10 @@
 package com.rttnghs.mejn;
 
 import com.rttnghs.mejn.configuration.Config;
+import com.rttnghs.mejn.configuration.GameSpec;
 import com.rttnghs.mejn.internal.BaseBoardState;
+import com.rttnghs.mejn.internal.MutableBoardState;
+import com.rttnghs.mejn.internal.PackedBoardState;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -25,6 +28,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.random.RandomGenerator;
 
 import static com.rttnghs.mejn.Layer.*;
 
@@ -75,10 +79,33 @@ public class Board {
         }
     }
 
+    /**
+     * How the board keeps track of its state.
+     */
+    public enum StateEncoding {
+        /**
+         * List of positions per player, see {@link BaseBoardState}.
+         */
+        LIST,
+        /**
+         * Primitive arrays and occupancy bitmasks, see {@link PackedBoardState}. Boards
+         * larger than {@link PackedBoardState#MAX_BOARD_SIZE} fall back to {@link #LIST}.
+         */
+        PACKED;
+
+        /**
+         * Encoding used by boards that do not specify one.
+         */
+        public static final StateEncoding DEFAULT = valueOf(Config.configuration.getString("boardStateEncoding", PACKED.name()));
+    }
+
     private static final Logger logger = LogManager.getLogger(Board.class);
 
+    private final GameSpec spec;
     private final Die die;
     private final int boardSize;
+    private final BoardGeometry geometry;
+    private final MoveTable moveTable;
 
     /**
      * List of positions where each respective player begins from or get struck
@@ -93,7 +120,7 @@ public class Board {
     private final List<Position> startPositions;
     private final List<RuleEvaluator> ruleEvaluators;
 
-    private final BaseBoardState state;
+    private final MutableBoardState state;
 
     private final int playerCount;
     /**
@@ -107,8 +134,44 @@ public class Board {
      * @param strategyNames listing the players to be used on this board. Names can contain nulls, but the list itself must not be null.
      */
     public Board(List<String> strategyNames) {
-        this(strategyNames, new Die(Config.value.dieFaces()), null,
-                new Die(strategyNames.size()).roll() - 1, null);
+        this(strategyNames, GameSpec.DEFAULT);
+    }
+
+    /**
+     * @param strategyNames listing the players to be used on this board. Names can contain nulls, but the list itself must not be null.
+     * @param encoding how to keep track of the board state.
+     */
+    public Board(List<String> strategyNames, StateEncoding encoding) {
+        this(strategyNames, GameSpec.DEFAULT, encoding);
+    }
+
+    /**
+     * @param strategyNames listing the players to be used on this board. Names can contain nulls, but the list itself must not be null.
+     * @param spec rules and dimensions of the game.
+     */
+    public Board(List<String> strategyNames, GameSpec spec) {
+        this(strategyNames, spec, StateEncoding.DEFAULT);
+    }
+
+    /**
+     * @param strategyNames listing the players to be used on this board. Names can contain nulls, but the list itself must not be null.
+     * @param spec rules and dimensions of the game.
+     * @param encoding how to keep track of the board state.
+     */
+    public Board(List<String> strategyNames, GameSpec spec, StateEncoding encoding) {
+        this(strategyNames, spec, encoding, null);
+    }
+
+    /**
+     * @param strategyNames listing the players to be used on this board. Names can contain nulls, but the list itself must not be null.
+     * @param spec rules and dimensions of the game.
+     * @param encoding how to keep track of the board state.
+     * @param random where the dice and the start player come from, or null for the
+     *               {@link java.util.concurrent.ThreadLocalRandom} of the playing thread.
+     */
+    public Board(List<String> strategyNames, GameSpec spec, StateEncoding encoding, RandomGenerator random) {
+        this(strategyNames, spec, new Die(spec.dieFaces(), random), null,
+                new Die(strategyNames.size(), random).roll() - 1, null, encoding);
     }
 
     /**
@@ -120,14 +183,44 @@ public class Board {
      * @param initialCurrentPlayer zero-based player index that starts
      * @param initialDieValue current die value, or null to roll once from {@code die}
      */
-    Board(List<String> strategyNames, Die die, BaseBoardState initialState, int initialCurrentPlayer,
+    Board(List<String> strategyNames, Die die, MutableBoardState initialState, int initialCurrentPlayer,
           Integer initialDieValue) {
+        this(strategyNames, die, initialState, initialCurrentPlayer, initialDieValue, StateEncoding.DEFAULT);
+    }
+
+    /**
+     * @param strategyNames players to place on the board
+     * @param die die used for subsequent turns
+     * @param initialState initial state to use, or null to create default begin state
+     * @param initialCurrentPlayer zero-based player index that starts
+     * @param initialDieValue current die value, or null to roll once from {@code die}
+     * @param encoding how to keep track of the board state when no initialState is given
+     */
+    Board(List<String> strategyNames, Die die, MutableBoardState initialState, int initialCurrentPlayer,
+          Integer initialDieValue, StateEncoding encoding) {
+        this(strategyNames, GameSpec.DEFAULT, die, initialState, initialCurrentPlayer, initialDieValue, encoding);
+    }
+
+    /**
+     * @param strategyNames players to place on the board
+     * @param spec rules and dimensions of the game
+     * @param die die used for subsequent turns
+     * @param initialState initial state to use, or null to create default begin state
+     * @param initialCurrentPlayer zero-based player index that starts
+     * @param initialDieValue current die value, or null to roll once from {@code die}
+     * @param encoding how to keep track of the board state when no initialState is given
+     */
+    Board(List<String> strategyNames, GameSpec spec, Die die, MutableBoardState initialState,
+          int initialCurrentPlayer, Integer initialDieValue, StateEncoding encoding) {
         this.playerCount = strategyNames.size();
         if (die == null) {
             throw new IllegalArgumentException("die cannot be null");
         }
+        this.spec = Objects.requireNonNull(spec, "spec cannot be null");
         this.die = die;
-        boardSize = playerCount * Config.value.dotsPerPlayer();
+        boardSize = spec.boardSize(playerCount);
+        geometry = BoardGeometry.of(boardSize);
+        moveTable = MoveTable.of(geometry, spec.dotsPerPlayer(), die.faces());
         // hang on to begin positions, they are used throughout the game.
         beginPositions = new ArrayList<>(playerCount);
         activePlayerCount = 0;
@@ -136,7 +229,7 @@ public class Board {
             if (strategyNames.get(i) != null) {
                 // Player 0 begins at -dieFaces. Then player 1 begins dots per player
                 // further along on the board.
-                int beginIndex = (-1 * Config.value.dieFaces()) + (i * Config.value.dotsPerPlayer());
+                int beginIndex = (-1 * spec.dieFaces()) + (i * spec.dotsPerPlayer());
                 beginPosition = new Position(BEGIN, beginIndex).normalize(boardSize);
                 activePlayerCount++;
             }
@@ -147,18 +240,16 @@ public class Board {
         for (int i = 0; i < playerCount; i++) {
             // Player 0 starts at 0. Then player 1 starts dots per player
             // further along on the board.
-            int startIndex = (i * Config.value.dotsPerPlayer());
+            int startIndex = (i * spec.dotsPerPlayer());
             startPositions.add(i, new Position(EVENT, startIndex).normalize(boardSize));
         }
 
         ruleEvaluators = new ArrayList<>(playerCount);
         for (Position startPosition : startPositions) {
-            ruleEvaluators.add(new RuleEvaluator(startPosition));
+            ruleEvaluators.add(new RuleEvaluator(startPosition, spec));
         }
 
-        state = (initialState == null)
-                ? new BaseBoardState(boardSize, Config.value.dotsPerPlayer(), Config.value.pawnsPerPlayer(), beginPositions)
-                : initialState;
+        state = (initialState == null) ? newState(encoding) : initialState;
 
         if ((initialCurrentPlayer < 0) || (initialCurrentPlayer >= playerCount)) {
             throw new IllegalArgumentException("Invalid initialCurrentPlayer: " + initialCurrentPlayer);
@@ -175,93 +266,88 @@ public class Board {
     }
 
     /**
-     * Determine potentialMove given a pawn of a player and the number of eyes
-     * thrown with the die.
-     * <p>
-     * Note that this move may not be a legal move.
-     *
-     * @param player must be in range for the players in the state (zero based)
-     * @param from   current position for the pawn to be moved
-     * @param spots  must be > 0
-     * @return move for the given position and die roll, or null when no valid
-     *         starting position exists.
+     * @param encoding to use for the state
+     * @return a new state with all pawns on their begin positions.
      */
-    private Move potentialMove(int player, Position from, int spots) {
-        if ((from == null) || (player >= startPositions.size())) {
-            // Happens when there is no pawn on that state or no startPosition. Likely index
-            // out of range.
-            return null;
-        }
-        Position start = startPositions.get(player);
-        Position normalizedFrom = from.normalize(boardSize);
-        Position to = moveWithinLayer(normalizedFrom, spots);
-        if (player == 0) {
-            if (to.spot() < normalizedFrom.spot()) {
-                // Bump layer, since player 0 wrapped around 0
-                to = to.nextLayer();
-            }
-        } else {
-            if (normalizedFrom.spot() < start.spot() && start.spot() <= to.spot()) {
-                // For other players, if (from < start <= to)-ignoring layers then they wrapped
-                // their start
-                to = to.nextLayer();
-            }
+    private MutableBoardState newState(StateEncoding encoding) {
+        if ((encoding == StateEncoding.PACKED) && (boardSize <= PackedBoardState.MAX_BOARD_SIZE)) {
+            return new PackedBoardState(boardSize, spec.dotsPerPlayer(), spec.pawnsPerPlayer(), beginPositions);
         }
-        return new Move(normalizedFrom, to);
+        return new BaseBoardState(boardSize, spec.dotsPerPlayer(), spec.pawnsPerPlayer(), beginPositions);
     }
 
-    private Position moveWithinLayer(Position from, int spots) {
-        int normalizedSpot = (from.spot() + spots) % boardSize;
-        if (normalizedSpot < 0) {
-            normalizedSpot += boardSize;
+    /**
+     * Returns the board to the start of a game: all pawns on their begin positions,
+     * a random start player and a fresh roll of the die. Also a board created with
+     * an injected state starts over from the begin positions.
+     */
+    public void reset() {
+        state.reset();
+        activePlayerCount = 0;
+        for (int i = 0; i < playerCount; i++) {
+            if ((beginPositions.get(i) != null) && !state.isFinished(i)) {
+                activePlayerCount++;
+            }
         }
-        return new Position(from.layer(), normalizedSpot);
+        currentPlayer = Die.generator(die.random()).nextInt(playerCount);
+        currentDieValue = die.roll();
     }
 
     /**
      * @return non-null, possibly empty list of potential moves
      */
     protected List<Move> getPotentialMoves() {
-        List<Move> potentialMoves = new ArrayList<>(Config.value.pawnsPerPlayer());
-        Position previousFrom = null;
-        for (int i = 0; i < Config.value.pawnsPerPlayer(); i++) {
+        MoveBuffer potentialMoves = new MoveBuffer(spec.pawnsPerPlayer());
+        getPotentialMoves(potentialMoves);
+        return potentialMoves.toList();
+    }
+
+    /**
+     * @param out buffer that is reset and filled with the potential moves of the
+     *            current player, one per distinct pawn position.
+     */
+    protected void getPotentialMoves(MoveBuffer out) {
+        out.reset(geometry);
+        int previousFrom = -1;
+        int pawnsPerPlayer = spec.pawnsPerPlayer();
+        for (int i = 0; i < pawnsPerPlayer; i++) {
             Position from = state.getPosition(currentPlayer, i);
-            Position normalizedFrom = (from == null) ? null : from.normalize(boardSize);
-            if ((normalizedFrom != null) && normalizedFrom.equals(previousFrom)) {
+            if (from == null) {
+                continue;
+            }
+            int fromOrdinal = geometry.ordinal(from);
+            if (fromOrdinal == previousFrom) {
                 continue;
             }
-            Move potentialMove = potentialMove(currentPlayer, from, currentDieValue);
-            if (potentialMove != null) {
-                potentialMoves.add(potentialMove);
-                previousFrom = normalizedFrom;
+            int toOrdinal = moveTable.destination(currentPlayer, fromOrdinal, currentDieValue);
+            if (toOrdinal >= 0) {
+                out.add(fromOrdinal, toOrdinal);
+                previousFrom = fromOrdinal;
             }
         }
-        return potentialMoves;
     }
 
     /**
      * @return non-null list of moves that are allowed for the current player and
-     * current die value; may be empty.
+     * current die value; may be empty. The list cannot be modified.
      */
     public List<Move> getAllowedMoves() {
-        List<Move> potentialMoves = getPotentialMoves();
-        // logger.debug(() -> "PotentialMoves: " + potentialMoves);
-        return ruleEvaluators.get(currentPlayer).evaluate(state, potentialMoves);
+        MoveBuffer allowedMoves = new MoveBuffer(spec.pawnsPerPlayer());
+        getAllowedMoves(allowedMoves);
+        return allowedMoves.toList();
     }
 
     /**
-     * Calculates strike side effects for the current board state before mutation.
+     * Variant of {@link #getAllowedMoves()} that does not allocate when the same
+     * buffer is reused from turn to turn.
      *
-     * @param move requested move from current player's perspective
-     * @return strike move that will be applied by state mutation, or null when no
-     * player occupies the destination
+     * @param out buffer that is reset and filled with the moves that are allowed
+     *            for the current player and current die value; may be left empty.
      */
-    private Move getStrikeMoveForCurrentState(Move move) {
-        if ((move == null) || (move.to() == null)) {
-            return null;
-        }
-        int otherPlayer = state.getPlayer(move.to());
-        return (otherPlayer == -1) ? null : new Move(move.to(), beginPositions.get(otherPlayer));
+    public void getAllowedMoves(MoveBuffer out) {
+        getPotentialMoves(out);
+        // logger.debug(() -> "PotentialMoves: " + out);
+        ruleEvaluators.get(currentPlayer).evaluate(state, out);
     }
 
     /**
@@ -271,21 +357,48 @@ public class Board {
      * @throws NullPointerException when {@code move} is null
      */
     public MoveResult move(Move move) {
+        int struckPlayer = apply(move);
+        Strike strike = (struckPlayer == -1) ? null : new Strike(getStrikeMove(move, struckPlayer), struckPlayer);
+        Integer finishedPlayer = finishes(move) ? currentPlayer : null;
+        return new MoveResult(move, Optional.ofNullable(strike), Optional.ofNullable(finishedPlayer));
+    }
+
+    /**
+     * Variant of {@link #move(Move)} that does not allocate. Whether the current
+     * player finished can be read from the board state.
+     *
+     * @param move non-null move from the board's perspective
+     * @return the index of the player struck by the move, or -1 when the destination
+     * was free.
+     * @throws NullPointerException when {@code move} is null
+     */
+    public int apply(Move move) {
         Objects.requireNonNull(move, "move cannot be null");
-        Move strikeMove = getStrikeMoveForCurrentState(move);
-        Integer struckPlayer = (strikeMove == null) ? null : state.getPlayer(move.to());
-        Strike strike = (strikeMove == null) ? null : new Strike(strikeMove, struckPlayer);
+        int struckPlayer = (move.to() == null) ? -1 : state.getPlayer(move.to());
         state.move(move);
-
-        Integer finishedPlayer = null;
-        if ((move.from() != null) && (move.to() != null)
-                && (move.from().layer() == EVENT) && (move.to().layer() == HOME)) {
-            if (state.isFinished(currentPlayer)) {
-                activePlayerCount--;
-                finishedPlayer = currentPlayer;
-            }
+        if (finishes(move)) {
+            activePlayerCount--;
         }
-        return new MoveResult(move, Optional.ofNullable(strike), Optional.ofNullable(finishedPlayer));
+        return struckPlayer;
+    }
+
+    /**
+     * @param move         move that was applied
+     * @param struckPlayer index of the player that occupied the destination
+     * @return the canonical move that sent the struck pawn back to begin.
+     */
+    public Move getStrikeMove(Move move, int struckPlayer) {
+        return geometry.move(move.to(), beginPositions.get(struckPlayer));
+    }
+
+    /**
+     * @param move move that was just applied by the current player
+     * @return whether the move brought the last pawn of the current player home.
+     */
+    private boolean finishes(Move move) {
+        return (move.from() != null) && (move.to() != null)
+                && (move.from().layer() == EVENT) && (move.to().layer() == HOME)
+                && state.isFinished(currentPlayer);
     }
 
     /**
@@ -333,6 +446,14 @@ public class Board {
         return state;
     }
 
+    /**
+     * @return an immutable snapshot of the board state, which can be handed to
+     * another thread while this board moves on.
+     */
+    public BoardState getBoardSnapshot() {
+        return state.snapshot();
+    }
+
     /**
      * @return what the die currently shows.
      */
@@ -347,4 +468,11 @@ public class Board {
         return currentPlayer;
     }
 
+    /**
+     * @return the rules and dimensions of the game on this board.
+     */
+    public GameSpec getSpec() {
+        return spec;
+    }
+
 }
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn;
+
+/**
+ * Canonical table of all normalized {@link Position} and {@link Move} instances
+ * for one board size, 3 layers × boardSize positions.
+ * <p>
+ * Each normalized position has an ordinal {@code layer.ordinal() * boardSize + spot},
+ * which orders positions the same way as {@link Position#compareTo(Position)}.
+ * Moves between normalized positions are created once per geometry and shared
+ * from then on, so that the hot paths of the game do not allocate them over and
+ * over.
+ * <p>
+ * Boards larger than {@link #MAX_BOARD_SIZE} get a geometry of their own, with
+ * positions that are not cached by {@link Position} and without a move table:
+ * their moves are created anew on every call.
+ * <p>
+ * Instances are immutable apart from the lazily filled move table, and can be
+ * shared between threads. Two threads racing to create the same move may both
+ * create one, in which case either is returned; they are equal.
+ */
+public final class BoardGeometry {
+
+	/**
+	 * Largest board size that has a shared geometry with a move table.
+	 */
+	public static final int MAX_BOARD_SIZE = Position.MAX_CACHED_SPOT + 1;
+
+	private static final int LAYERS = Layer.values().length;
+
+	private static final BoardGeometry[] GEOMETRIES = new BoardGeometry[MAX_BOARD_SIZE + 1];
+
+	private final int boardSize;
+	private final Position[] positions;
+	private final Move[] moves;
+
+	/**
+	 * @param boardSize at least 1
+	 * @return the geometry for the given board size, shared when at most
+	 *         {@link #MAX_BOARD_SIZE}, otherwise a new one.
+	 * @throws IllegalArgumentException when boardSize is less than 1.
+	 */
+	public static BoardGeometry of(int boardSize) {
+		if (boardSize < 1) {
+			throw new IllegalArgumentException("boardSize must be at least 1: " + boardSize);
+		}
+		if (boardSize > MAX_BOARD_SIZE) {
+			return new BoardGeometry(boardSize);
+		}
+		BoardGeometry geometry = GEOMETRIES[boardSize];
+		if (geometry == null) {
+			// Benign race, the geometry has only final fields.
+			geometry = new BoardGeometry(boardSize);
+			GEOMETRIES[boardSize] = geometry;
+		}
+		return geometry;
+	}
+
+	/**
+	 * @param boardSize any board size
+	 * @return whether {@link #of(int)} has a shared geometry, with canonical
+	 *         moves, for this board size.
+	 */
+	public static boolean supports(int boardSize) {
+		return (boardSize >= 1) && (boardSize <= MAX_BOARD_SIZE);
+	}
+
+	private BoardGeometry(int boardSize) {
+		this.boardSize = boardSize;
+		this.positions = new Position[LAYERS * boardSize];
+		for (Layer layer : Layer.values()) {
+			for (int spot = 0; spot < boardSize; spot++) {
+				positions[layer.ordinal() * boardSize + spot] = Position.valueOf(layer, spot);
+			}
+		}
+		// A table for larger boards would grow with the square of their size.
+		this.moves = (boardSize <= MAX_BOARD_SIZE) ? new Move[positions.length * positions.length] : null;
+	}
+
+	/**
+	 * @return the number of spots in the EVENT layer of the board.
+	 */
+	public int getBoardSize() {
+		return boardSize;
+	}
+
+	/**
+	 * @return the number of normalized positions, which is one more than the highest ordinal.
+	 */
+	public int size() {
+		return positions.length;
+	}
+
+	/**
+	 * @param ordinal between 0 (inclusive) and {@link #size()} (exclusive)
+	 * @return the canonical position with the given ordinal
+	 */
+	public Position position(int ordinal) {
+		return positions[ordinal];
+	}
+
+	/**
+	 * @param layer of the position
+	 * @param spot  of the position, normalized to the board size.
+	 * @return the canonical normalized position
+	 */
+	public Position position(Layer layer, int spot) {
+		return positions[layer.ordinal() * boardSize + normalize(spot)];
+	}
+
+	/**
+	 * @param position non-null position, normalized or not.
+	 * @return the ordinal of the normalized position.
+	 */
+	public int ordinal(Position position) {
+		return position.layer().ordinal() * boardSize + normalize(position.spot());
+	}
+
+	/**
+	 * @param ordinal of a position
+	 * @return the layer of the position with the given ordinal
+	 */
+	public Layer layer(int ordinal) {
+		return positions[ordinal].layer();
+	}
+
+	/**
+	 * @param ordinal of a position
+	 * @return the spot of the position with the given ordinal
+	 */
+	public int spot(int ordinal) {
+		return ordinal % boardSize;
+	}
+
+	/**
+	 * @param fromOrdinal ordinal of the from position
+	 * @param toOrdinal   ordinal of the to position
+	 * @return the canonical move between the two positions, or a new move when the
+	 *         board size is larger than {@link #MAX_BOARD_SIZE}.
+	 */
+	public Move move(int fromOrdinal, int toOrdinal) {
+		if (moves == null) {
+			return new Move(positions[fromOrdinal], positions[toOrdinal]);
+		}
+		int index = fromOrdinal * positions.length + toOrdinal;
+		Move move = moves[index];
+		if (move == null) {
+			move = new Move(positions[fromOrdinal], positions[toOrdinal]);
+			moves[index] = move;
+		}
+		return move;
+	}
+
+	/**
+	 * @param from non-null position, normalized or not.
+	 * @param to   non-null position, normalized or not.
+	 * @return the canonical move between the normalized positions.
+	 */
+	public Move move(Position from, Position to) {
+		return move(ordinal(from), ordinal(to));
+	}
+
+	/**
+	 * @param move  to shift
+	 * @param spots how many spots to shift, can be negative.
+	 * @return the canonical shifted and normalized move. Layers are not changed.
+	 */
+	public Move shift(Move move, int spots) {
+		Position from = move.from();
+		Position to = move.to();
+		return move(from.layer().ordinal() * boardSize + normalize(from.spot() + spots),
+				to.layer().ordinal() * boardSize + normalize(to.spot() + spots));
+	}
+
+	private int normalize(int spot) {
+		int normalSpot = spot % boardSize;
+		return (normalSpot < 0) ? normalSpot + boardSize : normalSpot;
+	}
+
+}
@@ -70,4 +70,32 @@ public interface BoardState {
      * @return true if all Positions in the collection are in the HOME layer or the player has no pawns. Non-existing players are also considered finished.
      */
     boolean isFinished(int player);
+
+    /**
+     * @param player index of player in the state
+     * @return how many pawns of the player are in the BEGIN layer, 0 for non-existing players.
+     */
+    int getBeginCount(int player);
+
+    /**
+     * @param player index of player in the state
+     * @return how many pawns of the player are in the EVENT layer, 0 for non-existing players.
+     */
+    int getOnBoardCount(int player);
+
+    /**
+     * @param player index of player in the state
+     * @return how many pawns of the player are in the HOME layer, 0 for non-existing players.
+     */
+    int getHomeCount(int player);
+
+    /**
+     * Zobrist key of the positions of all pawns, maintained as pawns move. States
+     * with the same pawns on the same positions have the same key, also when one
+     * of them is a shifted perspective. Different states can share a key, although
+     * that is unlikely.
+     *
+     * @return 64-bit key of the state.
+     */
+    long getZobristKey();
 }
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn;
+
+import java.util.Objects;
+import java.util.random.RandomGenerator;
+
+/**
+ * Random generator that rolls a die of a fixed number of faces in bulk, so that
+ * a roll is an array read.
+ * <p>
+ * The buffer is refilled from the bits of {@link RandomGenerator#nextLong()} of
+ * the source, which are cut into chunks just wide enough for the faces. A chunk
+ * that is not below the number of faces is rejected, so that every face is
+ * equally likely. A six sided die gets 21 chunks of 3 bits from each long and
+ * keeps three out of four of them. Bits left at the end of a fill are used by
+ * the next, so the rolls depend on the source alone and not on the size of the
+ * buffer.
+ * <p>
+ * Only {@link #nextInt(int)} with a bound equal to the faces reads the buffer,
+ * all other values come straight from the source. Pass a buffer to a
+ * {@link Die} or a {@link Board} to have their rolls come from it. Not thread
+ * safe.
+ */
+public final class DiceBuffer implements RandomGenerator {
+
+	/**
+	 * Number of rolls made at once when no size is given.
+	 */
+	public static final int DEFAULT_SIZE = 1024;
+
+	private final RandomGenerator source;
+	private final int faces;
+	private final int bits;
+	private final int chunks;
+	private final long mask;
+	/**
+	 * Rolls between 0 (inclusive) and faces (exclusive).
+	 */
+	private final byte[] rolls;
+	/**
+	 * Index of the next roll, the buffer is used up when it reaches its length.
+	 */
+	private int next;
+	/**
+	 * Bits left over from the last fill, so that the rolls do not depend on the size
+	 * of the buffer.
+	 */
+	private long word;
+	private int chunksLeft;
+
+	/**
+	 * @param source where the bits come from
+	 * @param faces  number of faces of the die, from 1 to 128
+	 */
+	public DiceBuffer(RandomGenerator source, int faces) {
+		this(source, faces, DEFAULT_SIZE);
+	}
+
+	/**
+	 * @param source where the bits come from
+	 * @param faces  number of faces of the die, from 1 to 128
+	 * @param size   number of rolls made at once
+	 * @throws IllegalArgumentException when faces or size is out of range.
+	 */
+	public DiceBuffer(RandomGenerator source, int faces, int size) {
+		if ((faces < 1) || (faces > Byte.MAX_VALUE + 1)) {
+			throw new IllegalArgumentException("faces must be between 1 and 128: " + faces);
+		}
+		if (size < 1) {
+			throw new IllegalArgumentException("size must be positive: " + size);
+		}
+		this.source = Objects.requireNonNull(source, "source cannot be null");
+		this.faces = faces;
+		this.bits = Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(faces - 1));
+		this.chunks = Long.SIZE / bits;
+		this.mask = (1L << bits) - 1;
+		this.rolls = new byte[size];
+		this.next = size;
+	}
+
+	/**
+	 * @return the number of faces of the die rolled by this buffer.
+	 */
+	public int faces() {
+		return faces;
+	}
+
+	/**
+	 * @return a roll between 1 and {@link #faces()} (including).
+	 */
+	public int roll() {
+		return nextInt(faces) + 1;
+	}
+
+	@Override
+	public int nextInt(int bound) {
+		if (bound != faces) {
+			return source.nextInt(bound);
+		}
+		if (next == rolls.length) {
+			fill();
+		}
+		return rolls[next++];
+	}
+
+	@Override
+	public long nextLong() {
+		return source.nextLong();
+	}
+
+	private void fill() {
+		int count = 0;
+		while (count < rolls.length) {
+			if (chunksLeft == 0) {
+				word = source.nextLong();
+				chunksLeft = chunks;
+			}
+			int candidate = (int) (word & mask);
+			word >>>= bits;
+			chunksLeft--;
+			if (candidate < faces) {
+				rolls[count++] = (byte) candidate;
+			}
+		}
+		next = 0;
+	}
+
+}
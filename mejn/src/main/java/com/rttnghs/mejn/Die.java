@@ -17,12 +17,15 @@
 package com.rttnghs.mejn;
 
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  *
- * @param faces How many faces this die has.
+ * @param faces  How many faces this die has.
+ * @param random where the rolls come from, or null for the {@link ThreadLocalRandom}
+ *               of the rolling thread. A {@link DiceBuffer} rolls in bulk.
  */
-public record Die(int faces) {
+public record Die(int faces, RandomGenerator random) {
 
     /**
      * Die will roll between 1 and faces (including).
@@ -36,11 +39,29 @@ public record Die(int faces) {
         }
     }
 
+    /**
+     * Die that rolls with the {@link ThreadLocalRandom} of the rolling thread.
+     *
+     * @param faces upper limit of what this die can roll.
+     * @throws IllegalArgumentException when faces is < 1.
+     */
+    public Die(int faces) {
+        this(faces, null);
+    }
+
     /**
      * Roll the die. Returns a random value between 1 and faces (including).
      */
     public int roll() {
-        return ThreadLocalRandom.current().nextInt(faces) + 1;
+        return generator(random).nextInt(faces) + 1;
+    }
+
+    /**
+     * @param random a generator, or null
+     * @return the generator, or the {@link ThreadLocalRandom} of the calling thread when it is null.
+     */
+    public static RandomGenerator generator(RandomGenerator random) {
+        return (random == null) ? ThreadLocalRandom.current() : random;
     }
 
 }
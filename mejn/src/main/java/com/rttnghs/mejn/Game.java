@@ -21,11 +21,15 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.random.RandomGenerator;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import com.rttnghs.mejn.internal.BaseHistory;
+import com.rttnghs.mejn.configuration.GameSpec;
+import com.rttnghs.mejn.internal.MoveHistory;
+import com.rttnghs.mejn.statistics.Covariate;
+import com.rttnghs.mejn.statistics.DenseEventCounter;
 import com.rttnghs.mejn.statistics.EventCounter;
 import com.rttnghs.mejn.strategy.BaseStrategyFactory;
 import com.rttnghs.mejn.strategy.RandomStrategy;
@@ -40,19 +44,60 @@ public class Game {
 
 	private final Board board;
 	private final List<Player> players;
-	private final BaseHistory<Move> history = new BaseHistory<>(512);
+	private final MoveHistory history;
 	private final List<String> finished;
 	/**
-	 * Agent=player that strikes other player off the board. Event is index of other
-	 * player that is struck.
+	 * Player that finished in each place, for the first {@code finished.size()} places.
 	 */
-	private final EventCounter<Integer, Integer> strikes = new EventCounter<>();
+	private final int[] finishers;
+	/**
+	 * Whether any strategy reads the history. Moves are not recorded otherwise.
+	 */
+	private final boolean recordHistory;
+	/**
+	 * Whether each player has finished, indexed by player.
+	 */
+	private final boolean[] done;
+	/**
+	 * Number of times a player strikes another player off the board, indexed by
+	 * {@code player * playerCount + struckPlayer}.
+	 */
+	private final int[] strikes;
+	/**
+	 * Reused from turn to turn, so that a turn does not allocate.
+	 */
+	private final MoveBuffer allowedMoves = new MoveBuffer();
+	/**
+	 * Generator for choices made for players, or null for the thread local one.
+	 */
+	private final RandomGenerator random;
+	private final int dieFaces;
+	/**
+	 * Where to count the covariates of each game, by {@link Covariate} ordinal, or
+	 * null when not collecting.
+	 */
+	private DenseEventCounter<String> covariateCounts;
+	private int[] covariateIds;
+	/**
+	 * Dice rolled, highest faces rolled and sum of the dice per player, null when
+	 * not collecting.
+	 */
+	private int[] rolls;
+	private int[] topRolls;
+	private int[] pips;
+	private int firstPlayer = -1;
 
 	/**
-	 * For the finishes EventCounter, the agent is the name of the strategy, and the
-	 * event is the 0-based position they finished in.
+	 * For the finishes counter, the actor is the name of the strategy, and the
+	 * event is the 0-based position they finished in. Counts the last game played
+	 * by {@link #play()}.
 	 */
-	private final EventCounter<String, Integer> finishCounts = new EventCounter<>();
+	private final DenseEventCounter<String> finishCounts;
+	/**
+	 * Counter that {@link #finishIds} are the actor ids of the players in.
+	 */
+	private DenseEventCounter<String> finishIdsCounter;
+	private int[] finishIds;
 
 	/**
 	 * @param strategyFactory to be used to create strategies for players.
@@ -60,9 +105,108 @@ public class Game {
 	 *                        player. Null names indicates there is no player at this position.
 	 */
 	public Game(StrategyFactory strategyFactory, List<String> strategyNames) {
-		players = Player.playersOf(strategyFactory, strategyNames, history);
+		this(strategyFactory, strategyNames, GameSpec.DEFAULT);
+	}
+
+	/**
+	 * @param strategyFactory to be used to create strategies for players.
+	 * @param strategyNames   The names of the strategies to be used, one per
+	 *                        player. Null names indicates there is no player at this position.
+	 * @param spec            rules and dimensions of the game.
+	 */
+	public Game(StrategyFactory strategyFactory, List<String> strategyNames, GameSpec spec) {
+		this(strategyFactory, strategyNames, spec, null);
+	}
+
+	/**
+	 * @param strategyFactory to be used to create strategies for players.
+	 * @param strategyNames   The names of the strategies to be used, one per
+	 *                        player. Null names indicates there is no player at this position.
+	 * @param spec            rules and dimensions of the game.
+	 * @param random          where the dice, the start player and random choices
+	 *                        come from, or null for the thread local generator of the
+	 *                        playing thread. Not shared with other threads, so the
+	 *                        game is to be played on one thread at a time.
+	 */
+	public Game(StrategyFactory strategyFactory, List<String> strategyNames, GameSpec spec, RandomGenerator random) {
+		this(strategyFactory, strategyNames, spec, random, random);
+	}
+
+	/**
+	 * Game that draws its dice from another generator than its random choices, so
+	 * that games with the same dice roll the same sequence, whatever the choices.
+	 *
+	 * @param strategyFactory to be used to create strategies for players.
+	 * @param strategyNames   The names of the strategies to be used, one per
+	 *                        player. Null names indicates there is no player at this position.
+	 * @param spec            rules and dimensions of the game.
+	 * @param dice            where the dice and the start player come from, or null
+	 *                        for the thread local generator of the playing thread.
+	 * @param random          where random choices come from, or null for the thread
+	 *                        local generator of the playing thread.
+	 */
+	public Game(StrategyFactory strategyFactory, List<String> strategyNames, GameSpec spec, RandomGenerator dice,
+			RandomGenerator random) {
+		this.random = random;
+		this.dieFaces = spec.dieFaces();
+		history = new MoveHistory(spec.boardSize(strategyNames.size()), strategyNames.size());
+		players = Player.playersOf(strategyFactory, strategyNames, history, spec, random);
+		recordHistory = players.stream().anyMatch(Player::needsHistory);
 		finished = new ArrayList<>(players.size());
-		board = new Board(strategyNames);
+		finishers = new int[players.size()];
+		finishCounts = new DenseEventCounter<>(Math.max(1, players.size()));
+		done = new boolean[players.size()];
+		strikes = new int[players.size() * players.size()];
+		board = new Board(strategyNames, spec, Board.StateEncoding.DEFAULT, dice);
+		// Rotate the board state up front, so that turns do not allocate.
+		for (int player = 0; player < players.size(); player++) {
+			if (players.get(player).needsBoardState()) {
+				board.getBoardState().shift(player);
+			}
+		}
+	}
+
+	/**
+	 * Sets up this game to be played again by the same players, on a board that
+	 * starts over with a random start player. Reusing a game saves setting up the
+	 * board, players and strategies for each game. Counts returned by an earlier
+	 * {@link #play()} are not affected.
+	 */
+	public void reset() {
+		board.reset();
+		history.clear();
+		finished.clear();
+		Arrays.fill(done, false);
+		Arrays.fill(strikes, 0);
+		if (rolls != null) {
+			Arrays.fill(rolls, 0);
+			Arrays.fill(topRolls, 0);
+			Arrays.fill(pips, 0);
+			firstPlayer = -1;
+		}
+	}
+
+	/**
+	 * Counts the {@link Covariate}s of each player at the end of each game played
+	 * from now on, starting with the current game when it has not started yet. Games
+	 * that do not collect only pay for a check of each turn.
+	 *
+	 * @param covariateCounts where to add the counts, per strategy name and
+	 *                        {@link Covariate} ordinal.
+	 * @return reference to self for convenient chaining of calls.
+	 */
+	public Game collectCovariates(DenseEventCounter<String> covariateCounts) {
+		if (covariateCounts.events() != Covariate.values().length) {
+			throw new IllegalArgumentException("Expected a counter of " + Covariate.values().length + " covariates");
+		}
+		this.covariateCounts = covariateCounts;
+		covariateIds = covariateCounts.actorIds(players.stream().map(Player::getName).toList());
+		if (rolls == null) {
+			rolls = new int[players.size()];
+			topRolls = new int[players.size()];
+			pips = new int[players.size()];
+		}
+		return this;
 	}
 
 	/**
@@ -72,25 +216,62 @@ public class Game {
 	 * @return EventCounter of player's strategy name to finish position.
 	 */
 	public EventCounter<String, Integer> play() {
+		finishCounts.clear();
+		play(finishCounts);
+		//logger.debug(finishCounts);
+		return finishCounts.toEventCounter(Integer::valueOf);
+	}
+
+	/**
+	 * Play the entire game until all players are done and count the finish
+	 * positions. Counting is a few array increments, so a tournament can count all
+	 * its games in one counter.
+	 *
+	 * @param finishCounts where to add the 0-based finish position of each player,
+	 *                     per strategy name, with an event per player.
+	 */
+	public void play(DenseEventCounter<String> finishCounts) {
 		//logger.debug("Starting game.");
-		while (players.size() > finished.size()) {
+		while (!isOver()) {
 			turn();
 		}
 		for (Player player : players) {
 			player.finalize(finished.indexOf(player.getName()));
 		}
-		for (int i = 0; i < finished.size(); i++) {
-			finishCounts.increment(finished.get(i), i);
+		if (finishCounts != finishIdsCounter) {
+			finishIds = finishCounts.actorIds(players.stream().map(Player::getName).toList());
+			finishIdsCounter = finishCounts;
 		}
-		//logger.debug(finishCounts);
-		return finishCounts;
+		for (int place = 0; place < finished.size(); place++) {
+			finishCounts.increment(finishIds[finishers[place]], place);
+		}
+		if (covariateCounts != null) {
+			for (int player = 0; player < players.size(); player++) {
+				int id = covariateIds[player];
+				covariateCounts.increment(id, Covariate.GAMES.ordinal());
+				covariateCounts.add(id, Covariate.STARTS.ordinal(), (player == firstPlayer) ? 1 : 0);
+				covariateCounts.add(id, Covariate.ROLLS.ordinal(), rolls[player]);
+				covariateCounts.add(id, Covariate.TOP_ROLLS.ordinal(), topRolls[player]);
+				covariateCounts.add(id, Covariate.PIPS.ordinal(), pips[player]);
+			}
+		}
+	}
+
+	/**
+	 * @return whether all players have finished.
+	 */
+	boolean isOver() {
+		return players.size() <= finished.size();
 	}
 
 	/**
 	 * Take a single turn for the next player. This could result in zero, one, or
 	 * two moves. Two moves happen when a player strikes another pawn.
+	 * <p>
+	 * With the built-in strategies and the default state encoding, a turn does not
+	 * allocate.
 	 */
-	private void turn() {
+	void turn() {
 		int currentPlayer = board.nextPlayer();
 		if (currentPlayer < 0) {
 
@@ -99,23 +280,27 @@ public class Game {
 			//logger.trace(() -> "No more active players: " + board.getBoardState());
 			return;
 		}
+		if (rolls != null) {
+			countRoll(currentPlayer);
+		}
 
 		// logger.debug(() -> "State: " + board.getBoardState());
-		List<Move> allowedMoves = board.getAllowedMoves();
+		board.getAllowedMoves(allowedMoves);
 		// logger.debug(() -> "AlloweMoves: " + allowedMoves);
 
-		if ((allowedMoves == null) || (allowedMoves.isEmpty())) {
+		if (allowedMoves.isEmpty()) {
 			// No valid moves to make by the player, continue to next player.
 			return;
 		}
 
 		// Let the player choose from the valid moves.
-		Move choice = players.get(currentPlayer).choose(allowedMoves, board.getBoardState());
+		List<Move> choices = allowedMoves.asList();
+		Move choice = players.get(currentPlayer).choose(choices, board.getBoardState());
 
 		// There was a valid choice, but the strategy didn't pick it.
-		if (!allowedMoves.contains(choice)) {
+		if (allowedMoves.indexOf(choice) < 0) {
 			// invalid choice, choose random for player
-			choice = RandomStrategy.choose(allowedMoves);
+			choice = RandomStrategy.choose(choices, Die.generator(random));
 		}
 
 		// Note that logger is commented out, because the lambda reference trick () ->
@@ -123,25 +308,48 @@ public class Game {
 		// effectively final variables, which choice is not in this case.
 		// logger.debug("Player: " + board.getCurrentPlayer() + " chose " + choice);
 
-		Board.MoveResult moveResult = move(choice);
-		if (moveResult.hasStrike()) {
-			int struckPlayer = moveResult.strike().orElseThrow().struckPlayer();
-			strikes.increment(currentPlayer, struckPlayer);
-		   // logger.debug("Player {} strikes {} with {} forcing {}", currentPlayer, struckPlayer, choice, moveResult.strike().orElseThrow().move());
+		int struckPlayer = move(choice);
+		if (struckPlayer >= 0) {
+			strikes[currentPlayer * players.size() + struckPlayer]++;
+		   // logger.debug("Player {} strikes {} with {} forcing {}", currentPlayer, struckPlayer, choice, board.getStrikeMove(choice, struckPlayer));
 		}
 	}
 
-	private Board.MoveResult move(Move move) {
-		Board.MoveResult moveResult = board.move(move);
-		if (moveResult.hasStrike()) {
-			history.add(moveResult.strike().orElseThrow().move());
+	/**
+	 * @param player that rolled the current die value
+	 */
+	private void countRoll(int player) {
+		if (firstPlayer < 0) {
+			firstPlayer = player;
+		}
+		int dieValue = board.getCurrentDieValue();
+		rolls[player]++;
+		pips[player] += dieValue;
+		if (dieValue == dieFaces) {
+			topRolls[player]++;
+		}
+	}
+
+	/**
+	 * @param move for the current player
+	 * @return the index of the player struck by the move, or -1.
+	 */
+	private int move(Move move) {
+		int player = board.getCurrentPlayer();
+		int struckPlayer = board.apply(move);
+		if (recordHistory) {
+			if (struckPlayer >= 0) {
+				history.add(struckPlayer, board.getStrikeMove(move, struckPlayer));
+			}
+			history.add(player, move);
 		}
-		if (moveResult.hasFinished()) {
-            //logger.debug("Finished: {}", finishedPlayer);
-			finished.add(players.get(moveResult.finishedPlayer().orElseThrow()).getName());
+		if (!done[player] && board.getBoardState().isFinished(player)) {
+            //logger.debug("Finished: {}", player);
+			done[player] = true;
+			finishers[finished.size()] = player;
+			finished.add(players.get(player).getName());
 		}
-		history.add(move);
-		return moveResult;
+		return struckPlayer;
 	}
 
 	/**
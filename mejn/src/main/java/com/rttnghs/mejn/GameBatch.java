@@ -0,0 +1,470 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+import com.rttnghs.mejn.configuration.GameSpec;
+
+/**
+ * Many games between the same players, kept side by side in flat int arrays and
+ * advanced turn by turn in lockstep.
+ * <p>
+ * The games follow the rules of a {@link Game} on a {@link Board} with its
+ * {@link RuleEvaluator}s, but without any per game objects: pawns are
+ * {@link BoardGeometry} ordinals, kept in order per player like the lists of a
+ * board state, and moves come from the {@link MoveTable}. Players choose with a
+ * {@link BatchStrategy}. The batch can be reset and played again, which
+ * allocates nothing. Not thread safe.
+ */
+final class GameBatch {
+
+	private final GameSpec spec;
+	private final BatchStrategy[] strategies;
+	private final int playerCount;
+	private final int pawnsPerPlayer;
+	private final int dieFaces;
+	private final BoardGeometry geometry;
+	private final MoveTable moveTable;
+	private final int ordinals;
+
+	/**
+	 * Ordinals of the begin and start positions of each player.
+	 */
+	private final int[] beginOrdinals;
+	private final int[] startOrdinals;
+
+	/**
+	 * Destinations of the {@link MoveTable} indexed by
+	 * {@code (player * ordinals + from) * dieFaces + dieValue - 1}, with the rules
+	 * that do not depend on the other pawns already applied: -1 for moves that are
+	 * stationary or out of bounds. Destinations where a pawn of the player itself
+	 * blocks the move, a HOME position or an EVENT position when self strikes are
+	 * not allowed, have {@link #SELF_BLOCKED} set.
+	 */
+	private final int[] destinations;
+
+	private static final int SELF_BLOCKED = 1 << 30;
+
+	/**
+	 * Pawn ordinals indexed by {@code (game * playerCount + player) * pawnsPerPlayer + pawn},
+	 * in ascending order per player.
+	 */
+	private final int[] pawns;
+
+	/**
+	 * Player plus one on each EVENT and HOME position, indexed by
+	 * {@code game * ordinals + ordinal}; 0 when the position is free. BEGIN
+	 * positions are not tracked, no move goes there by choice.
+	 */
+	private final int[] occupants;
+
+	/**
+	 * Number of pawns in HOME, indexed by {@code game * playerCount + player}.
+	 */
+	private final int[] homeCounts;
+
+	private final int[] currentPlayers;
+	private final int[] dieValues;
+	private final int[] activeCounts;
+
+	/**
+	 * Player that finished in each place, indexed by {@code game * playerCount + place}.
+	 */
+	private final int[] finishers;
+
+	/**
+	 * Games that are still being played, in no particular order.
+	 */
+	private final int[] running;
+	private int runningCount;
+	private int size;
+
+	private final MoveBuffer moves;
+
+	/**
+	 * @param spec       rules and dimensions of the games
+	 * @param strategies kernel of each player, in board order
+	 * @param capacity   largest number of games played at once
+	 */
+	GameBatch(GameSpec spec, List<BatchStrategy> strategies, int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("capacity must be positive: " + capacity);
+		}
+		this.spec = spec;
+		this.strategies = strategies.toArray(new BatchStrategy[0]);
+		this.playerCount = this.strategies.length;
+		this.pawnsPerPlayer = spec.pawnsPerPlayer();
+		this.dieFaces = spec.dieFaces();
+		this.geometry = BoardGeometry.of(spec.boardSize(playerCount));
+		this.moveTable = MoveTable.of(geometry, spec.dotsPerPlayer(), dieFaces);
+		this.ordinals = geometry.size();
+
+		beginOrdinals = new int[playerCount];
+		startOrdinals = new int[playerCount];
+		for (int player = 0; player < playerCount; player++) {
+			// Same begin and start positions as the board.
+			int dots = player * spec.dotsPerPlayer();
+			beginOrdinals[player] = geometry.ordinal(new Position(Layer.BEGIN, dots - dieFaces));
+			startOrdinals[player] = geometry.ordinal(new Position(Layer.EVENT, dots));
+		}
+		destinations = new int[playerCount * ordinals * dieFaces];
+		for (int player = 0; player < playerCount; player++) {
+			for (int from = 0; from < ordinals; from++) {
+				for (int dieValue = 1; dieValue <= dieFaces; dieValue++) {
+					destinations[(player * ordinals + from) * dieFaces + dieValue - 1] = destination(player, from,
+							dieValue);
+				}
+			}
+		}
+
+		pawns = new int[capacity * playerCount * pawnsPerPlayer];
+		occupants = new int[capacity * ordinals];
+		homeCounts = new int[capacity * playerCount];
+		currentPlayers = new int[capacity];
+		dieValues = new int[capacity];
+		activeCounts = new int[capacity];
+		finishers = new int[capacity * playerCount];
+		running = new int[capacity];
+		moves = new MoveBuffer(pawnsPerPlayer);
+	}
+
+	/**
+	 * Sets up new games with all pawns on their begin positions, and a random
+	 * player to start like a new {@link Board}.
+	 *
+	 * @param games  number of games to play, at most the capacity
+	 * @param random source of the die rolls
+	 */
+	void reset(int games, RandomGenerator random) {
+		if ((games < 0) || (games > running.length)) {
+			throw new IllegalArgumentException("games must be between 0 and " + running.length + ": " + games);
+		}
+		size = games;
+		runningCount = games;
+		Arrays.fill(occupants, 0, games * ordinals, 0);
+		Arrays.fill(homeCounts, 0, games * playerCount, 0);
+		for (int game = 0; game < games; game++) {
+			for (int player = 0; player < playerCount; player++) {
+				int first = (game * playerCount + player) * pawnsPerPlayer;
+				Arrays.fill(pawns, first, first + pawnsPerPlayer, beginOrdinals[player]);
+			}
+			currentPlayers[game] = random.nextInt(playerCount);
+			dieValues[game] = roll(random);
+			activeCounts[game] = playerCount;
+			running[game] = game;
+		}
+	}
+
+	/**
+	 * Plays all games to the end.
+	 *
+	 * @param random source of the die rolls and random choices
+	 */
+	void play(RandomGenerator random) {
+		while (runningCount > 0) {
+			step(random);
+		}
+	}
+
+	/**
+	 * Takes one turn in every game that is still running.
+	 *
+	 * @param random source of the die rolls and random choices
+	 */
+	void step(RandomGenerator random) {
+		int index = 0;
+		while (index < runningCount) {
+			int game = running[index];
+			turn(game, random);
+			if (activeCounts[game] == 0) {
+				// Swap in the last running game, which still needs its turn.
+				running[index] = running[--runningCount];
+			} else {
+				index++;
+			}
+		}
+	}
+
+	private void turn(int game, RandomGenerator random) {
+		int player = nextPlayer(game, random);
+		getAllowedMoves(game, moves);
+		if (moves.isEmpty()) {
+			return;
+		}
+		int choice = (moves.size() == 1) ? 0 : strategies[player].choose(this, game, moves, random);
+		move(game, moves.from(choice), moves.to(choice));
+	}
+
+	/**
+	 * Same as {@link Board#nextPlayer()}: the player who rolled the highest face
+	 * goes again unless they just finished, and finished players are skipped.
+	 *
+	 * @param game   index of a running game
+	 * @param random source of the die roll
+	 * @return the player whose turn it is now.
+	 */
+	int nextPlayer(int game, RandomGenerator random) {
+		int player = currentPlayers[game];
+		if (isFinished(game, player) || (dieValues[game] != dieFaces)) {
+			player = (player + 1) % playerCount;
+		}
+		while (isFinished(game, player)) {
+			player = (player + 1) % playerCount;
+		}
+		currentPlayers[game] = player;
+		dieValues[game] = roll(random);
+		return player;
+	}
+
+	private int roll(RandomGenerator random) {
+		return random.nextInt(dieFaces) + 1;
+	}
+
+	/**
+	 * Same as {@link Board#getAllowedMoves(MoveBuffer)}, with the rules of
+	 * {@link RuleEvaluator#evaluate(BoardState, MoveBuffer)} applied while the
+	 * potential moves are generated.
+	 *
+	 * @param game index of a game
+	 * @param out  buffer that is reset and filled with the allowed moves of the
+	 *             current player and die value.
+	 */
+	void getAllowedMoves(int game, MoveBuffer out) {
+		out.reset(geometry);
+		int player = currentPlayers[game];
+		int dieValue = dieValues[game];
+		int start = startOrdinals[player];
+		int first = (game * playerCount + player) * pawnsPerPlayer;
+		int previousFrom = -1;
+		int toStartIndex = -1;
+		for (int pawn = first; pawn < first + pawnsPerPlayer; pawn++) {
+			int from = pawns[pawn];
+			if (from == previousFrom) {
+				continue;
+			}
+			previousFrom = from;
+			int to = destinations[(player * ordinals + from) * dieFaces + dieValue - 1];
+			if (to < 0) {
+				continue;
+			}
+			if ((to & SELF_BLOCKED) != 0) {
+				to &= ~SELF_BLOCKED;
+				if (occupants[game * ordinals + to] == player + 1) {
+					continue;
+				}
+			}
+			if (from == start) {
+				// Mandatory move: when a pawn is on start it must move off start.
+				out.reset(geometry);
+				out.add(from, to);
+				return;
+			}
+			if (to == start) {
+				toStartIndex = out.size();
+			}
+			out.add(from, to);
+		}
+		if (toStartIndex != -1) {
+			// Moving onto the start is mandatory too.
+			int from = out.from(toStartIndex);
+			out.reset(geometry);
+			out.add(from, start);
+		}
+	}
+
+	/**
+	 * Applies the rules of {@link RuleEvaluator} that do not depend on the other
+	 * pawns. Only the player itself can be on a HOME position of the player, so
+	 * it is the only one who can block a move there.
+	 *
+	 * @return the entry for {@link #destinations}.
+	 */
+	private int destination(int player, int from, int dieValue) {
+		int to = moveTable.destination(player, from, dieValue);
+		if ((to < 0) || (to == from)) {
+			return -1;
+		}
+		int start = startOrdinals[player];
+		boolean selfBlocked = switch (geometry.layer(to)) {
+			case BEGIN -> {
+				// Out of bounds.
+				to = -1;
+				yield false;
+			}
+			case EVENT -> !spec.selfStrikeAllowed();
+			case HOME -> {
+				int spot = geometry.spot(to);
+				int startSpot = geometry.spot(start);
+				if ((spot < startSpot) || (spot >= startSpot + pawnsPerPlayer)) {
+					to = -1;
+				}
+				yield true;
+			}
+		};
+		if ((to < 0) || (from == start)) {
+			// Any move from the start is allowed to strike.
+			return to;
+		}
+		return selfBlocked ? (to | SELF_BLOCKED) : to;
+	}
+
+	/**
+	 * Moves a pawn of the current player, striking whoever is on the destination
+	 * back to their begin position, and records the player as finished when their
+	 * last pawn comes home.
+	 *
+	 * @param game index of a running game
+	 * @param from ordinal of a pawn of the current player
+	 * @param to   ordinal of an allowed destination
+	 */
+	void move(int game, int from, int to) {
+		int player = currentPlayers[game];
+		int occupant = occupants[game * ordinals + to] - 1;
+		if (occupant != -1) {
+			relocate(game, occupant, to, beginOrdinals[occupant]);
+		}
+		relocate(game, player, from, to);
+		if ((geometry.layer(from) == Layer.EVENT) && (geometry.layer(to) == Layer.HOME)
+				&& isFinished(game, player)) {
+			int place = playerCount - activeCounts[game];
+			finishers[game * playerCount + place] = player;
+			activeCounts[game]--;
+		}
+	}
+
+	private void relocate(int game, int player, int from, int to) {
+		int first = (game * playerCount + player) * pawnsPerPlayer;
+		int last = first + pawnsPerPlayer - 1;
+		int pawn = first;
+		while (pawns[pawn] != from) {
+			pawn++;
+		}
+		// Keep the pawns in order by shifting the others over.
+		while ((pawn > first) && (pawns[pawn - 1] > to)) {
+			pawns[pawn] = pawns[pawn - 1];
+			pawn--;
+		}
+		while ((pawn < last) && (pawns[pawn + 1] < to)) {
+			pawns[pawn] = pawns[pawn + 1];
+			pawn++;
+		}
+		pawns[pawn] = to;
+
+		Layer fromLayer = geometry.layer(from);
+		Layer toLayer = geometry.layer(to);
+		if (fromLayer != Layer.BEGIN) {
+			occupants[game * ordinals + from] = 0;
+		}
+		if (toLayer != Layer.BEGIN) {
+			occupants[game * ordinals + to] = player + 1;
+		}
+		if (fromLayer == Layer.HOME) {
+			homeCounts[game * playerCount + player]--;
+		}
+		if (toLayer == Layer.HOME) {
+			homeCounts[game * playerCount + player]++;
+		}
+	}
+
+	private boolean isFinished(int game, int player) {
+		return homeCounts[game * playerCount + player] == pawnsPerPlayer;
+	}
+
+	/**
+	 * @return the rules and dimensions of the games.
+	 */
+	GameSpec getSpec() {
+		return spec;
+	}
+
+	/**
+	 * @return the geometry of the board of the games.
+	 */
+	BoardGeometry getGeometry() {
+		return geometry;
+	}
+
+	/**
+	 * @return the number of players in each game.
+	 */
+	int getPlayerCount() {
+		return playerCount;
+	}
+
+	/**
+	 * @return the number of games since the last reset.
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @param game index of a game
+	 * @return whether all players of the game have finished.
+	 */
+	boolean isOver(int game) {
+		return activeCounts[game] == 0;
+	}
+
+	/**
+	 * @param game index of a game
+	 * @return the player whose turn it is.
+	 */
+	int getCurrentPlayer(int game) {
+		return currentPlayers[game];
+	}
+
+	/**
+	 * @param game index of a game
+	 * @return what the die shows.
+	 */
+	int getCurrentDieValue(int game) {
+		return dieValues[game];
+	}
+
+	/**
+	 * @param game    index of a game
+	 * @param player  index of the player
+	 * @param pawn    index of the pawn, in board order
+	 * @return the ordinal of the pawn.
+	 */
+	int getPawn(int game, int player, int pawn) {
+		return pawns[(game * playerCount + player) * pawnsPerPlayer + pawn];
+	}
+
+	/**
+	 * @param game    index of a game
+	 * @param ordinal of an EVENT or HOME position
+	 * @return the player on the position, or -1 when it is free.
+	 */
+	int getPlayer(int game, int ordinal) {
+		return occupants[game * ordinals + ordinal] - 1;
+	}
+
+	/**
+	 * @param game  index of a game that is over
+	 * @param place zero based finishing place
+	 * @return the player that finished in that place.
+	 */
+	int getFinisher(int game, int place) {
+		return finishers[game * playerCount + place];
+	}
+
+}
@@ -16,6 +16,8 @@
  */
 package com.rttnghs.mejn;
 
+import java.util.List;
+import java.util.Objects;
 import java.util.stream.Stream;
 
 /**
@@ -41,4 +43,28 @@ public interface History<E> {
      */
     Stream<E> reverseStream();
 
+    /**
+     * The default implementation streams the history, implementations that can
+     * index their events directly override it.
+     *
+     * @param index between 0 (oldest) and {@link #size()} (exclusive)
+     * @return the event at the index.
+     * @throws IndexOutOfBoundsException when the index is out of range.
+     */
+    default E get(int index) {
+        Objects.checkIndex(index, size());
+        return stream().skip(index).findFirst().orElseThrow();
+    }
+
+    /**
+     * @param count maximum number of events to return, not negative.
+     * @return the most recent events, oldest first. Fewer than count when the
+     * history is shorter.
+     */
+    default List<E> last(int count) {
+        int size = size();
+        int first = size - Math.min(Math.max(count, 0), size);
+        return stream().skip(first).toList();
+    }
+
 }
@@ -18,7 +18,6 @@ package com.rttnghs.mejn;
 
 import org.jspecify.annotations.NonNull;
 
-import java.util.Comparator;
 import java.util.Objects;
 import java.util.function.UnaryOperator;
 
@@ -75,9 +74,35 @@ public record Move(Position from, Position to) implements Comparable<Move> {
         }
     }
 
+	/**
+	 * Compares the move first on from, then on to.
+	 */
 	@Override
 	public int compareTo(@NonNull Move that) {
-		return Objects.compare(this, that, Comparator.comparing(Move::from).thenComparing(Move::to));
+		if (this == that) {
+			return 0;
+		}
+		int fromOrder = from.compareTo(that.from);
+		return (fromOrder != 0) ? fromOrder : to.compareTo(that.to);
+	}
+
+	/**
+	 * Spelled out for the same reason as {@link Position#equals(Object)}.
+	 */
+	@Override
+	public boolean equals(Object object) {
+		if (this == object) {
+			return true;
+		}
+		return (object instanceof Move that) && Objects.equals(from, that.from) && Objects.equals(to, that.to);
+	}
+
+	/**
+	 * Same value as the generated record hash code.
+	 */
+	@Override
+	public int hashCode() {
+		return 31 * Objects.hashCode(from) + Objects.hashCode(to);
 	}
 
 	@Override
@@ -89,9 +114,13 @@ public record Move(Position from, Position to) implements Comparable<Move> {
 	/**
 	 * @param spots     how many spots to shift.
 	 * @param boardSize used to normalize the Position after shifting.
-	 * @return shifted move
+	 * @return shifted move, the canonical instance from {@link BoardGeometry} when
+	 *         the board size has one.
 	 */
 	public Move shift(int spots, int boardSize) {
+		if (BoardGeometry.supports(boardSize)) {
+			return BoardGeometry.of(boardSize).shift(this, spots);
+		}
 		return new Move(from.move(spots).normalize(boardSize), to.move(spots).normalize(boardSize));
 	}
 
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Reusable buffer of moves, each held as the {@link BoardGeometry} ordinals of its
+ * from and to positions.
+ * <p>
+ * Filling and reading a buffer does not allocate once it has grown to the number
+ * of moves a turn can have, so the same buffer can be passed to
+ * {@link Board#getAllowedMoves(MoveBuffer)} turn after turn. Not thread safe.
+ */
+public final class MoveBuffer {
+
+	private BoardGeometry geometry;
+	private int[] from;
+	private int[] to;
+	private int size;
+	private final List<Move> view = new View();
+
+	/**
+	 * Creates a buffer for four moves, which will grow when needed.
+	 */
+	public MoveBuffer() {
+		this(4);
+	}
+
+	/**
+	 * @param capacity initial number of moves the buffer can hold without growing.
+	 */
+	public MoveBuffer(int capacity) {
+		from = new int[Math.max(1, capacity)];
+		to = new int[from.length];
+	}
+
+	/**
+	 * Empties the buffer and sets the geometry its ordinals refer to.
+	 *
+	 * @param geometry of the board the moves will be on
+	 */
+	public void reset(BoardGeometry geometry) {
+		this.geometry = geometry;
+		size = 0;
+	}
+
+	/**
+	 * @param fromOrdinal ordinal of the position the move is from
+	 * @param toOrdinal   ordinal of the position the move is to
+	 */
+	public void add(int fromOrdinal, int toOrdinal) {
+		if (size == from.length) {
+			from = Arrays.copyOf(from, size * 2);
+			to = Arrays.copyOf(to, size * 2);
+		}
+		from[size] = fromOrdinal;
+		to[size] = toOrdinal;
+		size++;
+	}
+
+	/**
+	 * Overwrites the move at the index with another move in the buffer.
+	 *
+	 * @param index  of the move to overwrite
+	 * @param source index of the move to copy
+	 */
+	void copy(int index, int source) {
+		from[index] = from[source];
+		to[index] = to[source];
+	}
+
+	/**
+	 * Drops all moves at or after the new size.
+	 *
+	 * @param newSize at most {@link #size()}
+	 */
+	void truncate(int newSize) {
+		size = newSize;
+	}
+
+	/**
+	 * @return the number of moves in the buffer.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return whether there are no moves in the buffer.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @return the geometry the ordinals in this buffer refer to, or null before the first reset.
+	 */
+	public BoardGeometry getGeometry() {
+		return geometry;
+	}
+
+	/**
+	 * @param index between 0 (inclusive) and {@link #size()} (exclusive)
+	 * @return ordinal of the position the move at the index is from.
+	 */
+	public int from(int index) {
+		return from[Objects.checkIndex(index, size)];
+	}
+
+	/**
+	 * @param index between 0 (inclusive) and {@link #size()} (exclusive)
+	 * @return ordinal of the position the move at the index is to.
+	 */
+	public int to(int index) {
+		return to[Objects.checkIndex(index, size)];
+	}
+
+	/**
+	 * @param index between 0 (inclusive) and {@link #size()} (exclusive)
+	 * @return the canonical move at the index.
+	 * @throws IndexOutOfBoundsException when the index is out of range.
+	 */
+	public Move get(int index) {
+		return geometry.move(from(index), to(index));
+	}
+
+	/**
+	 * @param move any move, or null
+	 * @return the index of the first move in the buffer equal to the move, or -1.
+	 */
+	public int indexOf(Move move) {
+		if ((move == null) || (geometry == null)) {
+			return -1;
+		}
+		for (int index = 0; index < size; index++) {
+			if (get(index).equals(move)) {
+				return index;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return an unmodifiable list backed by this buffer, which follows the buffer
+	 *         as it is refilled. The same list is returned every time.
+	 */
+	public List<Move> asList() {
+		return view;
+	}
+
+	/**
+	 * @return an unmodifiable list of the canonical moves in the buffer.
+	 */
+	public List<Move> toList() {
+		Move[] moves = new Move[size];
+		for (int index = 0; index < size; index++) {
+			moves[index] = get(index);
+		}
+		return List.of(moves);
+	}
+
+	@Override
+	public String toString() {
+		return toList().toString();
+	}
+
+	/**
+	 * Read only list on the moves in the buffer.
+	 */
+	private final class View extends AbstractList<Move> implements RandomAccess {
+
+		@Override
+		public Move get(int index) {
+			return MoveBuffer.this.get(index);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public int indexOf(Object object) {
+			return (object instanceof Move move) ? MoveBuffer.this.indexOf(move) : -1;
+		}
+	}
+
+}
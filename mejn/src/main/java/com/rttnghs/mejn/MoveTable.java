@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Destination of every pawn move for one board configuration, indexed by player,
+ * from position ordinal and die value.
+ * <p>
+ * The table is filled once per configuration with {@link #calculate}, so that
+ * move generation during the game is a lookup rather than modulo arithmetic and
+ * start wrap checks. Destinations are {@link BoardGeometry} ordinals. Entries for
+ * moves that cannot be made, such as a pawn in the HOME layer passing its start,
+ * are -1.
+ */
+final class MoveTable {
+
+	private record Key(int boardSize, int dotsPerPlayer, int dieFaces) {
+	}
+
+	private static final Map<Key, MoveTable> TABLES = new ConcurrentHashMap<>();
+
+	private final BoardGeometry geometry;
+	private final int dotsPerPlayer;
+	private final int dieFaces;
+	private final int playerCount;
+	private final int[] destinations;
+
+	/**
+	 * @param geometry      of the board
+	 * @param dotsPerPlayer number of spots in the EVENT layer per player
+	 * @param dieFaces      highest die value to tabulate
+	 * @return the shared table for this configuration
+	 */
+	static MoveTable of(BoardGeometry geometry, int dotsPerPlayer, int dieFaces) {
+		return TABLES.computeIfAbsent(new Key(geometry.getBoardSize(), dotsPerPlayer, dieFaces),
+				_ -> new MoveTable(geometry, dotsPerPlayer, dieFaces));
+	}
+
+	private MoveTable(BoardGeometry geometry, int dotsPerPlayer, int dieFaces) {
+		this.geometry = geometry;
+		this.dotsPerPlayer = dotsPerPlayer;
+		this.dieFaces = dieFaces;
+		this.playerCount = Math.ceilDiv(geometry.getBoardSize(), dotsPerPlayer);
+		this.destinations = new int[playerCount * geometry.size() * dieFaces];
+		for (int player = 0; player < playerCount; player++) {
+			for (int from = 0; from < geometry.size(); from++) {
+				for (int spots = 1; spots <= dieFaces; spots++) {
+					destinations[index(player, from, spots)] = calculate(geometry, startSpot(player), from, spots);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param player zero based player index
+	 * @param from   any position, normalized or not
+	 * @param spots  die value
+	 * @return the move for the pawn, or null when the pawn cannot move that far or
+	 *         the player has no start position.
+	 */
+	Move move(int player, Position from, int spots) {
+		int fromOrdinal = geometry.ordinal(from);
+		int toOrdinal = destination(player, fromOrdinal, spots);
+		return (toOrdinal < 0) ? null : geometry.move(fromOrdinal, toOrdinal);
+	}
+
+	/**
+	 * @param player      zero based player index
+	 * @param fromOrdinal ordinal of the position of the pawn
+	 * @param spots       die value
+	 * @return the ordinal the pawn moves to, or -1 when the pawn cannot move that far
+	 *         or the player has no start position.
+	 */
+	int destination(int player, int fromOrdinal, int spots) {
+		if ((player < 0) || (player >= playerCount)) {
+			return -1;
+		}
+		if ((spots < 1) || (spots > dieFaces)) {
+			// Outside the table, for instance with an injected die value.
+			return calculate(geometry, startSpot(player), fromOrdinal, spots);
+		}
+		return destinations[index(player, fromOrdinal, spots)];
+	}
+
+	private int index(int player, int fromOrdinal, int spots) {
+		return ((player * geometry.size()) + fromOrdinal) * dieFaces + (spots - 1);
+	}
+
+	private int startSpot(int player) {
+		return (player * dotsPerPlayer) % geometry.getBoardSize();
+	}
+
+	/**
+	 * Moves the pawn within its layer, and bumps it to the next layer when it
+	 * passes the start of the player.
+	 *
+	 * @param geometry    of the board
+	 * @param startSpot   spot on the EVENT layer where the player starts
+	 * @param fromOrdinal ordinal of the position of the pawn
+	 * @param spots       how far to move
+	 * @return the ordinal of the destination, or -1 when it would leave the HOME layer.
+	 */
+	private static int calculate(BoardGeometry geometry, int startSpot, int fromOrdinal, int spots) {
+		Position from = geometry.position(fromOrdinal);
+		Position to = geometry.position(from.layer(), from.spot() + spots);
+		boolean wrapped;
+		if (startSpot == 0) {
+			// Wrapped around 0
+			wrapped = to.spot() < from.spot();
+		} else {
+			// For other players, if (from < start <= to)-ignoring layers then they wrapped
+			// their start
+			wrapped = (from.spot() < startSpot) && (startSpot <= to.spot());
+		}
+		if (wrapped) {
+			if (to.layer() == Layer.HOME) {
+				return -1;
+			}
+			to = geometry.position(to.layer().next(), to.spot());
+		}
+		return geometry.ordinal(to);
+	}
+
+}
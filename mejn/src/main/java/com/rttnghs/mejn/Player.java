@@ -16,17 +16,21 @@
  */
 package com.rttnghs.mejn;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.Set;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
+import java.util.random.RandomGenerator;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import com.rttnghs.mejn.configuration.Config;
+import com.rttnghs.mejn.configuration.GameSpec;
 import com.rttnghs.mejn.internal.HistorySupplier;
 import com.rttnghs.mejn.strategy.Strategy;
+import com.rttnghs.mejn.strategy.Strategy.Capability;
 import com.rttnghs.mejn.strategy.StrategyFactory;
 
 /**
@@ -45,17 +49,43 @@ public class Player {
 	 */
 	public static List<Player> playersOf(StrategyFactory strategyFactory, List<String> strategyNames,
 			HistorySupplier<Move> historySupplier) {
+		return playersOf(strategyFactory, strategyNames, historySupplier, GameSpec.DEFAULT);
+	}
+
+	/**
+	 * @param strategyFactory to be used to create strategies.
+	 * @param strategyNames the list of names of the strategies to get from the strategy factory.
+	 * @param historySupplier used to get a thing that supplies a history.
+	 * @param spec rules and dimensions of the game.
+	 * @return list of players, one for each strategy, in order.
+	 */
+	public static List<Player> playersOf(StrategyFactory strategyFactory, List<String> strategyNames,
+			HistorySupplier<Move> historySupplier, GameSpec spec) {
+		return playersOf(strategyFactory, strategyNames, historySupplier, spec, null);
+	}
+
+	/**
+	 * @param strategyFactory to be used to create strategies.
+	 * @param strategyNames the list of names of the strategies to get from the strategy factory.
+	 * @param historySupplier used to get a thing that supplies a history.
+	 * @param spec rules and dimensions of the game.
+	 * @param random generator the strategies draw random choices from, or null for the thread local one.
+	 * @return list of players, one for each strategy, in order.
+	 */
+	public static List<Player> playersOf(StrategyFactory strategyFactory, List<String> strategyNames,
+			HistorySupplier<Move> historySupplier, GameSpec spec, RandomGenerator random) {
 
 		List<Player> players = new ArrayList<>(strategyNames.size());
-		int boardSize = strategyNames.size() * Config.value.dotsPerPlayer();
+		int dotsPerPlayer = spec.dotsPerPlayer();
+		int boardSize = spec.boardSize(strategyNames.size());
 
 		for (int playerIndex = 0; playerIndex < strategyNames.size(); playerIndex++) {
 			// Rotate perspective counter clockwise
-			int rotation = rotation(playerIndex);
-			Supplier<History<Move>> shiftedHistorySupplier = historySupplier.getSupplier(Move.shifter(rotation, boardSize));
-			Strategy strategy = strategyFactory.getStrategy(strategyNames.get(playerIndex)).initialize(shiftedHistorySupplier);
+			int rotation = rotation(playerIndex, dotsPerPlayer);
+			Supplier<History<Move>> shiftedHistorySupplier = historySupplier.getSupplier(playerIndex, Move.shifter(rotation, boardSize));
+			Strategy strategy = strategyFactory.getStrategy(strategyNames.get(playerIndex)).initialize(shiftedHistorySupplier, random);
 
-			players.add(playerIndex, new Player(strategy, playerIndex, boardSize));
+			players.add(playerIndex, new Player(strategy, playerIndex, boardSize, dotsPerPlayer));
             //logger.debug("Player {} strategy {}", playerIndex, strategy.getName());
 		}
 		return players;
@@ -67,7 +97,17 @@ public class Player {
 	 *         current player start from 0;
 	 */
 	public static int rotation(int playerIndex) {
-		return playerIndex * Config.value.dotsPerPlayer() * -1;
+		return rotation(playerIndex, GameSpec.DEFAULT.dotsPerPlayer());
+	}
+
+	/**
+	 * @param playerIndex   zero based index where along the board this player sits.
+	 * @param dotsPerPlayer number of spots on the board between the starts of two players.
+	 * @return how many spots the Moves of a board need to be rotated to put the
+	 *         current player start from 0;
+	 */
+	public static int rotation(int playerIndex, int dotsPerPlayer) {
+		return playerIndex * dotsPerPlayer * -1;
 	}
 
 	private final Strategy strategy;
@@ -77,6 +117,19 @@ public class Player {
 	 */
 	private final int playerIndex;
 	private final int boardSize;
+	private final int dotsPerPlayer;
+
+	/**
+	 * Capabilities of the strategy, see {@link Strategy#getCapabilities()}.
+	 */
+	private final boolean needsBoardState;
+	private final boolean needsHistory;
+	private final boolean needsForcedChoice;
+
+	/**
+	 * Choices from the perspective of the player, reused from turn to turn.
+	 */
+	private final ShiftedChoices shiftedChoices = new ShiftedChoices();
 
 	/**
 	 * @param strategy        used to choose moves
@@ -85,9 +138,25 @@ public class Player {
 	 * @param boardSize       number of spots on the board.
 	 */
 	public Player(Strategy strategy, int playerIndex, int boardSize) {
+		this(strategy, playerIndex, boardSize, GameSpec.DEFAULT.dotsPerPlayer());
+	}
+
+	/**
+	 * @param strategy        used to choose moves
+	 * @param playerIndex     zero based index where along the board this player
+	 *                        sits.
+	 * @param boardSize       number of spots on the board.
+	 * @param dotsPerPlayer   number of spots on the board between the starts of two players.
+	 */
+	public Player(Strategy strategy, int playerIndex, int boardSize, int dotsPerPlayer) {
 		this.strategy = strategy;
 		this.boardSize = boardSize;
 		this.playerIndex = playerIndex;
+		this.dotsPerPlayer = dotsPerPlayer;
+		Set<Capability> capabilities = (strategy == null) ? Set.of() : strategy.getCapabilities();
+		this.needsBoardState = capabilities.contains(Capability.BOARD_STATE);
+		this.needsHistory = capabilities.contains(Capability.HISTORY);
+		this.needsForcedChoice = capabilities.contains(Capability.FORCED_CHOICE);
 	}
 
 	/**
@@ -95,20 +164,25 @@ public class Player {
 	 *         current player start from 0;
 	 */
 	public int rotation() {
-		return rotation(playerIndex);
+		return rotation(playerIndex, dotsPerPlayer);
 	}
 
 	/**
 	 * Have the player choose a move from the list of choices.
-	 * This method will rotate the board to the perspective of the player.
+	 * This method will rotate the board to the perspective of the player, if the
+	 * strategy reads it. The only choice is made without asking the strategy,
+	 * unless it wants to be asked.
 	 * 
 	 * @param choices Could be empty to indicate that there are no choices.
 	 * @param state   the state of the board.
 	 * @return the move the choices list. Could be null if there were no choices.
 	 */
 	public Move choose(List<Move> choices, BoardState state) {
+		if ((choices != null) && (choices.size() == 1) && !needsForcedChoice) {
+			return choices.getFirst();
+		}
 		// Rotate perspective counter clockwise
-		BoardState rotatedState = state.shift(playerIndex);
+		BoardState rotatedState = needsBoardState ? state.shift(playerIndex) : null;
 
 		if (choices == null) {
 			// this should not happen.
@@ -116,9 +190,7 @@ public class Player {
 		}
 		// Shift the move to the perspective where strategy thinks it is player 0;
 
-		List<Move> shiftedChoices = choices.stream().map(Move.shifter(rotation(), boardSize))
-				.collect(Collectors.toList());
-
+		shiftedChoices.source = choices;
 		Move choice = strategy.choose(shiftedChoices, rotatedState);
 
 		// Shift perspective back, moving board clockwise
@@ -142,4 +214,36 @@ public class Player {
 		return strategy.getName();
 	}
 
+	/**
+	 * @return whether the strategy of this player reads the board state.
+	 */
+	public boolean needsBoardState() {
+		return needsBoardState;
+	}
+
+	/**
+	 * @return whether the strategy of this player reads the history of moves.
+	 */
+	public boolean needsHistory() {
+		return needsHistory;
+	}
+
+	/**
+	 * Read only view on the choices of a turn, each shifted to the perspective of
+	 * this player when it is read.
+	 */
+	private final class ShiftedChoices extends AbstractList<Move> implements RandomAccess {
+		private List<Move> source;
+
+		@Override
+		public Move get(int index) {
+			return source.get(index).shift(rotation(), boardSize);
+		}
+
+		@Override
+		public int size() {
+			return source.size();
+		}
+	}
+
 }
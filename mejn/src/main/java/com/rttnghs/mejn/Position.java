@@ -16,7 +16,6 @@
  */
 package com.rttnghs.mejn;
 
-import java.util.Comparator;
 import java.util.Objects;
 
 import org.apache.logging.log4j.LogManager;
@@ -31,6 +30,48 @@ public record Position(Layer layer, int spot) implements Comparable<Position> {
 
 	private static final Logger logger = LogManager.getLogger(Position.class);
 
+	/**
+	 * Smallest spot for which {@link #valueOf(Layer, int)} returns a cached instance.
+	 */
+	public static final int MIN_CACHED_SPOT = -128;
+
+	/**
+	 * Largest spot for which {@link #valueOf(Layer, int)} returns a cached instance.
+	 */
+	public static final int MAX_CACHED_SPOT = 255;
+
+	private static final int CACHED_SPOTS = MAX_CACHED_SPOT - MIN_CACHED_SPOT + 1;
+
+	/**
+	 * Canonical instances, indexed by {@code layer.ordinal() * CACHED_SPOTS + spot - MIN_CACHED_SPOT}.
+	 */
+	private static final Position[] CACHE = new Position[Layer.values().length * CACHED_SPOTS];
+
+	static {
+		for (Layer layer : Layer.values()) {
+			for (int spot = MIN_CACHED_SPOT; spot <= MAX_CACHED_SPOT; spot++) {
+				CACHE[layer.ordinal() * CACHED_SPOTS + spot - MIN_CACHED_SPOT] = new Position(layer, spot);
+			}
+		}
+	}
+
+	/**
+	 * Like {@link Integer#valueOf(int)}, this returns a cached instance for
+	 * frequently used values, so that the positions on and around the board are
+	 * not allocated over and over.
+	 *
+	 * @param layer non-null layer of the position
+	 * @param spot  of the position
+	 * @return the canonical instance when spot is between {@link #MIN_CACHED_SPOT}
+	 *         and {@link #MAX_CACHED_SPOT}, otherwise a new position.
+	 */
+	public static Position valueOf(Layer layer, int spot) {
+		if ((spot < MIN_CACHED_SPOT) || (spot > MAX_CACHED_SPOT)) {
+			return new Position(layer, spot);
+		}
+		return CACHE[layer.ordinal() * CACHED_SPOTS + spot - MIN_CACHED_SPOT];
+	}
+
 	/**
 	 * @param position obtained from {@link #toString()} method.
 	 * @return a position of the given string representation or null if no such
@@ -51,7 +92,7 @@ public record Position(Layer layer, int spot) implements Comparable<Position> {
             logger.debug("Not a valid number in {}", position);
 			return null;
 		}
-		return new Position(layer, spot);
+		return valueOf(layer, spot);
 	}
 
 	/**
@@ -77,7 +118,7 @@ public record Position(Layer layer, int spot) implements Comparable<Position> {
 		}
 		// If normalized spot is the same as the original position's spot, return
 		// original position.
-		return (spot == normalSpot) ? this : new Position(layer, normalSpot);
+		return (spot == normalSpot) ? this : valueOf(layer, normalSpot);
 	}
 
 	/**
@@ -87,7 +128,7 @@ public record Position(Layer layer, int spot) implements Comparable<Position> {
 	 *         Note, result is not normalized.
 	 */
 	public Position move(int spots) {
-		return (spots == 0) ? this : new Position(layer, spot + spots);
+		return (spots == 0) ? this : valueOf(layer, spot + spots);
 	}
 
 	/**
@@ -95,7 +136,11 @@ public record Position(Layer layer, int spot) implements Comparable<Position> {
 	 */
 	@Override
 	public int compareTo(@NonNull Position that) {
-		return Objects.compare(this, that, Comparator.comparing(Position::layer).thenComparing(Position::spot));
+		if (this == that) {
+			return 0;
+		}
+		int layerOrder = Integer.compare(layer.ordinal(), that.layer.ordinal());
+		return (layerOrder != 0) ? layerOrder : Integer.compare(spot, that.spot);
 	}
 
 	/**
@@ -113,6 +158,26 @@ public record Position(Layer layer, int spot) implements Comparable<Position> {
         return this.compareTo(max) <= 0;
     }
 
+	/**
+	 * Spelled out rather than left to the record, whose generated equals goes
+	 * through method handles that can allocate when called a lot.
+	 */
+	@Override
+	public boolean equals(Object object) {
+		if (this == object) {
+			return true;
+		}
+		return (object instanceof Position that) && (layer == that.layer) && (spot == that.spot);
+	}
+
+	/**
+	 * Same value as the generated record hash code.
+	 */
+	@Override
+	public int hashCode() {
+		return 31 * Objects.hashCode(layer) + Integer.hashCode(spot);
+	}
+
 	@Override
 	@NonNull
 	public String toString() {
@@ -125,7 +190,7 @@ public record Position(Layer layer, int spot) implements Comparable<Position> {
 	 * @return the position of the same spot in the next layer.
 	 */
 	public Position nextLayer() {
-		return new Position(layer.next(), spot);
+		return valueOf(layer.next(), spot);
 	}
 
 }
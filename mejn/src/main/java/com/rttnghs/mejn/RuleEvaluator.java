@@ -16,7 +16,7 @@
  */
 package com.rttnghs.mejn;
 
-import com.rttnghs.mejn.configuration.Config;
+import com.rttnghs.mejn.configuration.GameSpec;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -27,81 +27,109 @@ import java.util.Objects;
  */
 public class RuleEvaluator {
 
-    public static final boolean isSelfStrikeAllowed = Config.configuration.getBoolean("isSelfStrikeAllowed");
+    /**
+     * Whether self strikes are allowed as configured, see {@link GameSpec#DEFAULT}.
+     * Evaluators use the rule of their own spec.
+     */
+    public static final boolean isSelfStrikeAllowed = GameSpec.DEFAULT.selfStrikeAllowed();
 
     /**
      * List of positions where each respective players start from (where the layers
      * intersect).
      */
     private final Position startPosition;
+    private final int pawnsPerPlayer;
+    private final boolean selfStrikeAllowed;
 
     /**
-     * Game rule evaluator for the given player.
+     * Game rule evaluator for the given player, with the configured rules.
      */
     public RuleEvaluator(Position startPosition) {
-        this.startPosition = Objects.requireNonNull(startPosition, "startPosition cannot be null");
+        this(startPosition, GameSpec.DEFAULT);
     }
 
     /**
-     * Not out of bounds.
+     * Game rule evaluator for the given player.
      *
-     * @param move to check
-     * @return false for all BEGIN layers that are not the start. True for all
-     * other.
+     * @param startPosition where the player starts
+     * @param spec          rules of the game
      */
-    private boolean isInbound(Move move) {
-        return switch (move.to().layer()) {
-            case BEGIN -> isToStart(move);
-            case EVENT -> true;
-            case HOME -> move.to().spot() < startPosition.spot() + Config.value.pawnsPerPlayer();
-            default -> throw new IllegalArgumentException("Unexpected value: " + move.to().layer());
-        };
+    public RuleEvaluator(Position startPosition, GameSpec spec) {
+        this.startPosition = Objects.requireNonNull(startPosition, "startPosition cannot be null");
+        this.pawnsPerPlayer = spec.pawnsPerPlayer();
+        this.selfStrikeAllowed = spec.selfStrikeAllowed();
     }
 
     /**
-     * @param move to check
-     * @return whether this move moves a pawn onto the start position.
+     * Not out of bounds.
+     *
+     * @param to position the move is to
+     * @return false for all BEGIN layers that are not the start, and for HOME
+     * spots outside the home of the player. True for all other.
      */
-    private boolean isToStart(Move move) {
-        return startPosition.equals(move.to());
+    private boolean isInbound(Position to) {
+        return switch (to.layer()) {
+            case BEGIN -> isStart(to);
+            case EVENT -> true;
+            case HOME -> isOwnHome(to);
+            default -> throw new IllegalArgumentException("Unexpected value: " + to.layer());
+        };
     }
 
     /**
-     * @param move to check
-     * @return if the move is from the start position, which is preferential. over other moves.
+     * Only the spots from the start on, as many as there are pawns, are the home of
+     * the player. A pawn moving on past the last spot of the board wraps around to a
+     * low HOME spot, which is the home of another player. Checking only the upper
+     * bound let such a pawn move on forever on boards where the last home ends at
+     * the end of the board, so those games never finished.
+     *
+     * @param to HOME position the move is to
+     * @return whether the position is in the home of the player.
      */
-    private boolean isFromStart(Move move) {
-        return startPosition.equals(move.from());
+    private boolean isOwnHome(Position to) {
+        return (to.spot() >= startPosition.spot()) && (to.spot() < startPosition.spot() + pawnsPerPlayer);
     }
 
     /**
-     * @param move to be evaluated
-     * @return if the from and to are the same.
+     * @param position to check
+     * @return whether this is the start position. Moving onto the start is
+     * mandatory, and moving from the start is preferential over other moves.
      */
-    private boolean stationary(Move move) {
-        return move.from().equals(move.to());
+    private boolean isStart(Position position) {
+        return startPosition.equals(position);
     }
 
     /**
-     * @param move to be evaluated.
+     * @param from position the move is from
+     * @param to   position the move is to
      * @return True when moving to begin, true when moving from start. False when
      * EVENT is occupied. Otherwise allowed if you strike yourself and that is
      * allowed per config.
      */
-    private boolean isLegalSelfStrike(BoardState state, Move move) {
-        if (isFromStart(move) || move.to().layer() == Layer.BEGIN) {
+    private boolean isLegalSelfStrike(BoardState state, Position from, Position to) {
+        if (isStart(from) || to.layer() == Layer.BEGIN) {
             // Any move from the start or to the begin layer is legal.
             return true;
         }
-        if (move.to().layer() == Layer.HOME) {
+        if (to.layer() == Layer.HOME) {
             // Move to home is legal if the spot is unoccupied.
-            return state.getPlayer(move.to()) == -1;
+            return state.getPlayer(to) == -1;
         }
-        if (move.to().layer() == Layer.EVENT) {
+        if (to.layer() == Layer.EVENT) {
             // Move to event is legal if self-strike is allowed or the spot is occupied by another player.
-            return isSelfStrikeAllowed || state.getPlayer(move.from()) != state.getPlayer(move.to());
+            return selfStrikeAllowed || state.getPlayer(from) != state.getPlayer(to);
         }
-        throw new IllegalArgumentException("Unexpected value: " + move.to().layer());
+        throw new IllegalArgumentException("Unexpected value: " + to.layer());
+    }
+
+    /**
+     * @param from position the move is from
+     * @param to   position the move is to
+     * @return whether the move is discarded as plainly illegal; stationary, out of
+     * bounds or an illegal self strike.
+     */
+    private boolean isIllegal(BoardState state, Position from, Position to) {
+        return from.equals(to) || !isInbound(to) || !isLegalSelfStrike(state, from, to);
     }
 
     /**
@@ -119,16 +147,16 @@ public class RuleEvaluator {
 
         for (Move potentialMove : potentialMoves) {
             // Discard plainly illegal moves.
-            if (stationary(potentialMove) || !isInbound(potentialMove) || !isLegalSelfStrike(state, potentialMove)) {
+            if (isIllegal(state, potentialMove.from(), potentialMove.to())) {
                 continue;
             }
 
-            if (isFromStart(potentialMove)) {
+            if (isStart(potentialMove.from())) {
                 // Mandatory move: when a pawn is on start it must move off start.
                 return List.of(potentialMove);
             }
 
-            if (isToStart(potentialMove)) {
+            if (isStart(potentialMove.to())) {
                 // Remember the to-start move; from-start has higher priority and will return immediately.
                 possibleToStartMove = potentialMove;
             }
@@ -145,4 +173,54 @@ public class RuleEvaluator {
         return legalMoves;
     }
 
+    /**
+     * Same as {@link #evaluate(BoardState, List)}, but reduces the moves in place
+     * without allocating.
+     *
+     * @param state board state used for occupancy/self-strike checks.
+     * @param moves non-null, possibly empty, buffer of potential moves. Holds the
+     *              legal moves afterwards, a single one when it is forced.
+     */
+    public void evaluate(BoardState state, MoveBuffer moves) {
+        Objects.requireNonNull(state, "state cannot be null");
+        Objects.requireNonNull(moves, "moves cannot be null");
+        if (moves.isEmpty()) {
+            return;
+        }
+        BoardGeometry geometry = moves.getGeometry();
+        int legalCount = 0;
+        int toStartIndex = -1;
+
+        for (int index = 0; index < moves.size(); index++) {
+            Position from = geometry.position(moves.from(index));
+            Position to = geometry.position(moves.to(index));
+            // Discard plainly illegal moves.
+            if (isIllegal(state, from, to)) {
+                continue;
+            }
+
+            if (isStart(from)) {
+                // Mandatory move: when a pawn is on start it must move off start.
+                moves.copy(0, index);
+                moves.truncate(1);
+                return;
+            }
+
+            if (isStart(to)) {
+                // Remember the to-start move; from-start has higher priority and will return immediately.
+                toStartIndex = legalCount;
+            }
+
+            moves.copy(legalCount++, index);
+        }
+
+        // If the player is not on start, but moving to start is an option, then that
+        // option must be taken.
+        if (toStartIndex != -1) {
+            moves.copy(0, toStartIndex);
+            legalCount = 1;
+        }
+        moves.truncate(legalCount);
+    }
+
 }
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Random generator for reproducible tournaments. Every game plays on a stream of
+ * its own, derived from a master seed and the indices of its bracket, round and
+ * game with {@link #derive(long, long)}. The results of a game then depend on
+ * the master seed and its indices only, not on which thread or server plays it,
+ * nor on what else that thread played before.
+ * <p>
+ * The generator is SplitMix64, the algorithm of {@link java.util.SplittableRandom},
+ * and produces the same longs as a {@code SplittableRandom} created with the same
+ * seed. Unlike a {@code SplittableRandom}, it can be moved to another stream with
+ * {@link #reseed(long)}, so that a game that is reset does not need new objects
+ * holding the generator. Not thread safe.
+ */
+public final class SeededRandom implements RandomGenerator {
+
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	private long state;
+
+	/**
+	 * @param seed of the stream to start with.
+	 */
+	public SeededRandom(long seed) {
+		this.state = seed;
+	}
+
+	/**
+	 * @param seed  of a parent stream, such as a master seed or the seed of a bracket.
+	 * @param index of the child stream, such as a bracket, round or game index.
+	 * @return the seed of the child stream. Different indices of the same parent
+	 *         give different seeds.
+	 */
+	public static long derive(long seed, long index) {
+		return mix(seed ^ mix((index + 1) * GOLDEN_GAMMA));
+	}
+
+	/**
+	 * @param seed    master seed of a tournament.
+	 * @param bracket index of the bracket.
+	 * @param round   index of the round.
+	 * @return the seed of the games of the bracket in the round.
+	 */
+	public static long derive(long seed, int bracket, int round) {
+		return derive(derive(seed, bracket), round);
+	}
+
+	/**
+	 * Moves this generator to the start of the stream with the given seed.
+	 *
+	 * @param seed of the stream.
+	 * @return reference to self for convenient chaining of calls.
+	 */
+	public SeededRandom reseed(long seed) {
+		this.state = seed;
+		return this;
+	}
+
+	@Override
+	public long nextLong() {
+		state += GOLDEN_GAMMA;
+		return mix(state);
+	}
+
+	/**
+	 * SplitMix64 finalizer, spreads consecutive inputs over all 64 bits.
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+}
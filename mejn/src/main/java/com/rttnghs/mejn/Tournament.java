@@ -24,7 +24,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Function;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -32,6 +35,10 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import com.rttnghs.mejn.configuration.Config;
+import com.rttnghs.mejn.configuration.GameSpec;
+import com.rttnghs.mejn.statistics.ConcurrentEventCounter;
+import com.rttnghs.mejn.statistics.Covariate;
+import com.rttnghs.mejn.statistics.DenseEventCounter;
 import com.rttnghs.mejn.statistics.EventCounter;
 import com.rttnghs.mejn.statistics.Score;
 import com.rttnghs.mejn.strategy.BaseStrategyFactory;
@@ -39,34 +46,312 @@ import com.rttnghs.mejn.strategy.StrategyFactory;
 
 /**
  * Play multiple games and get the stats.
+ * <p>
+ * The games are split over fork-join tasks, which each set up a game of their own,
+ * with strategies of their own from the factory, and count finishes apart. The
+ * counts are added up when the tasks join.
  */
 public class Tournament {
 
 	private static final Logger logger = LogManager.getLogger(Tournament.class);
 
+	/**
+	 * Fewest games a fork-join task plays, so that setting up its game is small
+	 * compared to playing them.
+	 */
+	static final int GAMES_PER_TASK = 64;
+
 	private final StrategyFactory strategyFactory;
 	private final List<String> strategyNames;
 	private final int games;
+	private final GameSpec spec;
+	/**
+	 * Generator all games draw from one after the other, or null for seeded or
+	 * thread local generators of their own.
+	 */
+	private final RandomGenerator random;
+	/**
+	 * Whether each game plays on streams of its own, derived from the seed.
+	 */
+	private final boolean seeded;
+	private final long seed;
+	private final long firstGame;
 	private final EventCounter<String, Integer> finishCounts = new EventCounter<>();
+	/**
+	 * Covariates of the games per strategy, by {@link Covariate} ordinal, or null
+	 * when not collecting.
+	 */
+	private DenseEventCounter<String> covariateCounts;
+	/**
+	 * Finish counts shared with other tournaments, or null when not publishing.
+	 */
+	private ConcurrentEventCounter<String> sharedFinishCounts;
 
 	public Tournament(StrategyFactory strategyFactory, List<String> strategyNames, int games) {
+		this(strategyFactory, strategyNames, games, GameSpec.DEFAULT);
+	}
+
+	/**
+	 * @param strategyFactory to be used to create strategies for players.
+	 * @param strategyNames   The names of the strategies to be used, one per player.
+	 * @param games           how many games to play.
+	 * @param spec            rules and dimensions of all games in this tournament.
+	 */
+	public Tournament(StrategyFactory strategyFactory, List<String> strategyNames, int games, GameSpec spec) {
+		this(strategyFactory, strategyNames, games, spec, null);
+	}
+
+	/**
+	 * @param strategyFactory to be used to create strategies for players.
+	 * @param strategyNames   The names of the strategies to be used, one per player.
+	 * @param games           how many games to play.
+	 * @param spec            rules and dimensions of all games in this tournament.
+	 * @param random          where all games get their dice, start players and
+	 *                        random choices from, or null for the thread local
+	 *                        generator of the playing thread. Games drawing from
+	 *                        one given generator are played one after the other.
+	 */
+	public Tournament(StrategyFactory strategyFactory, List<String> strategyNames, int games, GameSpec spec,
+			RandomGenerator random) {
 		// If strategyFactory == null then use the base factory.
 		this.strategyFactory = strategyFactory;
 		this.strategyNames = strategyNames;
 		this.games = games;
+		this.spec = spec;
+		this.random = random;
+		this.seeded = false;
+		this.seed = 0;
+		this.firstGame = 0;
+	}
+
+	/**
+	 * Same as {@link #Tournament(StrategyFactory, List, int, GameSpec, long, long)}
+	 * starting from game index 0.
+	 */
+	public Tournament(StrategyFactory strategyFactory, List<String> strategyNames, int games, GameSpec spec,
+			long seed) {
+		this(strategyFactory, strategyNames, games, spec, seed, 0);
+	}
+
+	/**
+	 * Plays reproducible games. Game {@code i} of this tournament plays on the streams
+	 * derived from {@code SeededRandom.derive(seed, firstGame + i)}, so the games of
+	 * a tournament split into parts that each play a range of game indices are the
+	 * same as when played in one go. The dice have a stream apart from the random
+	 * choices, so tournaments with the same seed roll the same dice for each game,
+	 * whichever strategies play them in which seats.
+	 *
+	 * @param strategyFactory to be used to create strategies for players.
+	 * @param strategyNames   The names of the strategies to be used, one per player.
+	 * @param games           how many games to play.
+	 * @param spec            rules and dimensions of all games in this tournament.
+	 * @param seed            seed all games derive their stream from, see
+	 *                        {@link SeededRandom#derive(long, int, int)} for the
+	 *                        seed of a bracket in a round.
+	 * @param firstGame       index of the first game to play.
+	 */
+	public Tournament(StrategyFactory strategyFactory, List<String> strategyNames, int games, GameSpec spec,
+			long seed, long firstGame) {
+		this.strategyFactory = strategyFactory;
+		this.strategyNames = strategyNames;
+		this.games = games;
+		this.spec = spec;
+		this.random = null;
+		this.seeded = true;
+		this.seed = seed;
+		this.firstGame = firstGame;
 	}
 
+	/**
+	 * Plays the games, in parallel when they draw from seeded or thread local
+	 * generators. Seeded games have the same results however they are split.
+	 *
+	 * @return the finish counts of the games played by this tournament so far.
+	 */
 	public EventCounter<String, Integer> play() {
         // logger.info("Starting {} games: {} Strategies: {}", games, Config.value, strategyNames);
-		for (int i = 0; i < games; i++) {
-			Game game = new Game(strategyFactory, strategyNames);
-			EventCounter<String, Integer> gameFinishCounts = game.play();
-			finishCounts.add(gameFinishCounts);
+		if (games > 0) {
+			DenseEventCounter<String> gameFinishCounts;
+			if (random == null) {
+				GameRange range = new GameRange(0, games);
+				range.invoke();
+				gameFinishCounts = range.finishCounts;
+				if (covariateCounts != null) {
+					covariateCounts.add(range.covariateCounts);
+				}
+			} else {
+				gameFinishCounts = new DenseEventCounter<>(strategyNames.size());
+				play(0, games, random, random, gameFinishCounts, covariateCounts);
+				if (sharedFinishCounts != null) {
+					sharedFinishCounts.add(gameFinishCounts);
+				}
+			}
+			finishCounts.add(gameFinishCounts.toEventCounter(Integer::valueOf));
 		}
 		logger.debug(finishCounts);
 		return finishCounts;
 	}
 
+	/**
+	 * Plays a range of games one after the other. One game is set up, and reset for
+	 * each next game.
+	 *
+	 * @param from            index of the first game to play
+	 * @param to              index after the last game to play
+	 * @param dice            generator for the dice, reseeded per game when seeded
+	 * @param random          generator for the choices, reseeded per game when seeded
+	 * @param finishCounts    to add the finishes to
+	 * @param covariateCounts to add the covariates to, or null to not collect them
+	 */
+	private void play(int from, int to, RandomGenerator dice, RandomGenerator random,
+			DenseEventCounter<String> finishCounts, DenseEventCounter<String> covariateCounts) {
+		startGame(from, dice, random);
+		Game game = new Game(strategyFactory, strategyNames, spec, dice, random);
+		if (covariateCounts != null) {
+			game.collectCovariates(covariateCounts);
+		}
+		for (int i = from; i < to; i++) {
+			if (i > from) {
+				startGame(i, dice, random);
+				game.reset();
+			}
+			game.play(finishCounts);
+		}
+	}
+
+	/**
+	 * Have the games of the next {@link #play()} count their {@link Covariate}s.
+	 *
+	 * @return reference to self for convenient chaining of calls.
+	 */
+	public Tournament collectCovariates() {
+		if (covariateCounts == null) {
+			covariateCounts = newCovariateCounts();
+		}
+		return this;
+	}
+
+	/**
+	 * Have the games of the next {@link #play()} also add their finish counts to
+	 * counts shared with other tournaments playing at the same time. The finishes
+	 * are added as each fork-join task is done with its games, so readers of the
+	 * shared counts see the tournament progress.
+	 *
+	 * @param sharedFinishCounts where to add the finish positions, with an event
+	 *                           per player.
+	 * @return reference to self for convenient chaining of calls.
+	 */
+	public Tournament publishTo(ConcurrentEventCounter<String> sharedFinishCounts) {
+		if (sharedFinishCounts.events() != strategyNames.size()) {
+			throw new IllegalArgumentException("Expected a counter of " + strategyNames.size() + " finish positions");
+		}
+		this.sharedFinishCounts = sharedFinishCounts;
+		return this;
+	}
+
+	/**
+	 * @return the covariates of the games played per strategy, or null when not
+	 *         collecting, see {@link #collectCovariates()}.
+	 */
+	public EventCounter<String, Covariate> getCovariateCounts() {
+		if (covariateCounts == null) {
+			return null;
+		}
+		Covariate[] covariates = Covariate.values();
+		return covariateCounts.toEventCounter(ordinal -> covariates[ordinal]);
+	}
+
+	private static DenseEventCounter<String> newCovariateCounts() {
+		return new DenseEventCounter<>(Covariate.values().length);
+	}
+
+	/**
+	 * Moves seeded generators to the streams of a game, before the game rolls its
+	 * start player.
+	 *
+	 * @param game   index of the game in this tournament
+	 * @param dice   generator for the dice of the game
+	 * @param random generator for the choices of the game
+	 */
+	private void startGame(int game, RandomGenerator dice, RandomGenerator random) {
+		if (seeded) {
+			long gameSeed = SeededRandom.derive(seed, firstGame + game);
+			((SeededRandom) dice).reseed(SeededRandom.derive(gameSeed, 0));
+			((SeededRandom) random).reseed(SeededRandom.derive(gameSeed, 1));
+		}
+	}
+
+	/**
+	 * Fork-join task that plays a range of games, split in halves while there are
+	 * enough games for both, with counts of its own.
+	 */
+	@SuppressWarnings("serial") // Fork-join tasks are never serialized.
+	private final class GameRange extends RecursiveAction {
+
+		private final int from;
+		private final int to;
+		private DenseEventCounter<String> finishCounts = new DenseEventCounter<>(strategyNames.size());
+		private DenseEventCounter<String> covariateCounts;
+
+		private GameRange(int from, int to) {
+			this.from = from;
+			this.to = to;
+			if (Tournament.this.covariateCounts != null) {
+				covariateCounts = newCovariateCounts();
+			}
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from < 2 * GAMES_PER_TASK) {
+				// Seeded games get generators of their own, reseeded for each game.
+				play(from, to, seeded ? new SeededRandom(seed) : null, seeded ? new SeededRandom(seed) : null,
+						finishCounts, covariateCounts);
+				if (sharedFinishCounts != null) {
+					sharedFinishCounts.add(finishCounts);
+				}
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			GameRange first = new GameRange(from, middle);
+			GameRange second = new GameRange(middle, to);
+			invokeAll(first, second);
+			finishCounts = first.finishCounts.add(second.finishCounts);
+			if (covariateCounts != null) {
+				covariateCounts = first.covariateCounts.add(second.covariateCounts);
+			}
+		}
+	}
+
+	/**
+	 * @param seed                master seed of the tournament.
+	 * @param bracket             index of the bracket.
+	 * @param round               index of the round.
+	 * @param commonRandomNumbers whether all brackets of a round roll the same dice,
+	 *                            so that brackets that seat the same strategies in
+	 *                            another order replay each game with the same luck.
+	 * @return the seed of the games of the bracket in the round.
+	 */
+	public static long bracketSeed(long seed, int bracket, int round, boolean commonRandomNumbers) {
+		return SeededRandom.derive(seed, commonRandomNumbers ? 0 : bracket, round);
+	}
+
+	/**
+	 * @return whether brackets replay the same dice, as configured by
+	 *         {@code commonRandomNumbers}.
+	 */
+	public static boolean getCommonRandomNumbers() {
+		return Config.configuration.getBoolean("commonRandomNumbers", false);
+	}
+
+	/**
+	 * @return the master seed configured as {@code seed}, or a fresh one when none
+	 *         is configured.
+	 */
+	public static long getSeed() {
+		return Config.configuration.getLong("seed", ThreadLocalRandom.current().nextLong());
+	}
+
 	public static List<String> getStrategyNames() {
 		String bracketStrategyNamesAttribute = Config.configuration.getString("tournamentBrackets[@strategies]");
         return new ArrayList<>(
@@ -105,27 +390,31 @@ public class Tournament {
 	public static void main(String[] args) throws InterruptedException, ExecutionException {
 		Instant start = Instant.now();
 
-		EventCounter<String, Integer> finishCounts = new EventCounter<>();
-
 		List<String> strategyNames = getStrategyNames();
 		List<List<String>> strategyNameBrackets = getStrategyNameBrackets(strategyNames);
 		int configuredGames = Config.configuration.getInt("games");
+		long seed = getSeed();
+		boolean commonRandomNumbers = getCommonRandomNumbers();
+		logger.info("Master seed: {} common random numbers: {}", seed, commonRandomNumbers);
 
+		// Assume all brackets have the same number of players.
+		int playerCount = strategyNameBrackets.getFirst().size();
+		// All brackets add their finishes to the same counts as they go.
+		ConcurrentEventCounter<String> sharedFinishCounts = new ConcurrentEventCounter<>(playerCount);
 		List<CompletableFuture<EventCounter<String, Integer>>> futures = new ArrayList<>(strategyNameBrackets.size());
 
-		for (List<String> strategyNameBracket : strategyNameBrackets) {
-			Tournament tournament = new Tournament(new BaseStrategyFactory(), strategyNameBracket,
-					configuredGames);
+		for (int bracket = 0; bracket < strategyNameBrackets.size(); bracket++) {
+			// The first round of TournamentStatistics plays the same games.
+			Tournament tournament = new Tournament(new BaseStrategyFactory(), strategyNameBrackets.get(bracket),
+					configuredGames, GameSpec.DEFAULT, bracketSeed(seed, bracket, 0, commonRandomNumbers))
+					.publishTo(sharedFinishCounts);
 			CompletableFuture<EventCounter<String, Integer>> future;
             future = CompletableFuture.supplyAsync(tournament::play);
             futures.add(future);
 		}
 
-		for (CompletableFuture<EventCounter<String, Integer>> completableFuture : futures) {
-			finishCounts.add(completableFuture.get());
-		}
-		// Assume all brackets have the same number of players.
-		int playerCount = strategyNameBrackets.getFirst().size();
+		CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get();
+		EventCounter<String, Integer> finishCounts = sharedFinishCounts.snapshot(Integer::valueOf);
 		Function<Integer, Integer> scorer = (finishPosition) -> Score.get(finishPosition, playerCount);
 		// Multiply by 100, to keep a reasonable resolution when dividing by games
 		// as the smallest score for each game is 1, and we don't want to lose too much
@@ -59,6 +59,15 @@ public record Config(int dieFaces, int pawnsPerPlayer, int dotsPerPlayer) {
 	 *                       6 players and 8 spots each.
 	 */
 	public Config {
+		validate(dieFaces, pawnsPerPlayer, dotsPerPlayer);
+	}
+
+	/**
+	 * Checks dimensions of a game, see {@link #Config(int, int, int)}.
+	 *
+	 * @throws IllegalArgumentException when the dimensions do not make a game.
+	 */
+	public static void validate(int dieFaces, int pawnsPerPlayer, int dotsPerPlayer) {
 		if (dieFaces < 1) {
 			throw new IllegalArgumentException("Cannot have a die with <1 faces");
 		}
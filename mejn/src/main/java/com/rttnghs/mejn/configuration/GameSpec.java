@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn.configuration;
+
+/**
+ * Immutable rules and dimensions of the games of one run.
+ * <p>
+ * Boards, games and tournaments carry their own spec instead of reading
+ * {@link Config#value} while they play, so that games with different specs can
+ * run side by side in the same JVM.
+ *
+ * @param dieFaces          for example 6 for cube dice.
+ * @param pawnsPerPlayer    For example, 4. Must be less than dotsPerPlayer
+ *                          otherwise home areas will overlap.
+ * @param dotsPerPlayer     How many spots there are on the field between players'
+ *                          start spot.
+ * @param selfStrikeAllowed whether a player may strike its own pawn.
+ */
+public record GameSpec(int dieFaces, int pawnsPerPlayer, int dotsPerPlayer, boolean selfStrikeAllowed) {
+
+	/**
+	 * Spec as configured in the configuration file.
+	 */
+	public static final GameSpec DEFAULT = of(Config.value,
+			Config.configuration.getBoolean("isSelfStrikeAllowed"));
+
+	/**
+	 * Validated the same way as {@link Config}.
+	 */
+	public GameSpec {
+		Config.validate(dieFaces, pawnsPerPlayer, dotsPerPlayer);
+	}
+
+	/**
+	 * @param config            dimensions of the game
+	 * @param selfStrikeAllowed whether a player may strike its own pawn.
+	 * @return spec with the dimensions of the config.
+	 */
+	public static GameSpec of(Config config, boolean selfStrikeAllowed) {
+		return new GameSpec(config.dieFaces(), config.pawnsPerPlayer(), config.dotsPerPlayer(), selfStrikeAllowed);
+	}
+
+	/**
+	 * @param selfStrikeAllowed whether a player may strike its own pawn.
+	 * @return spec with the same dimensions and the given self strike rule.
+	 */
+	public GameSpec withSelfStrikeAllowed(boolean selfStrikeAllowed) {
+		return new GameSpec(dieFaces, pawnsPerPlayer, dotsPerPlayer, selfStrikeAllowed);
+	}
+
+	/**
+	 * @param playerCount number of players, including absent ones.
+	 * @return number of spots in the EVENT layer of a board for that many players.
+	 */
+	public int boardSize(int playerCount) {
+		return playerCount * dotsPerPlayer;
+	}
+
+}
@@ -17,6 +17,7 @@
 package com.rttnghs.mejn.de;
 
 import com.rttnghs.mejn.Tournament;
+import com.rttnghs.mejn.configuration.GameSpec;
 import com.rttnghs.mejn.statistics.EventCounter;
 import com.rttnghs.mejn.statistics.Score;
 import com.rttnghs.mejn.strategy.Strategy;
@@ -91,6 +92,28 @@ public class RankingStrategyTournament {
      *                                  or if {@code games} is not positive.
      */
     public List<Double> runBracket(List<List<Integer>> competitors, int games) {
+        return runBracket(competitors, games, null, 0);
+    }
+
+    /**
+     * Same as {@link #runBracket(List, int)}, playing reproducible games. Game
+     * {@code i} plays on the stream derived from the seed and {@code firstGame + i},
+     * so a batch split into ranges of game indices plays the same games whichever
+     * worker or server runs each range.
+     *
+     * @param competitors list of parameter vectors; one {@link SomeRankingStrategy}
+     *                    is created per entry.
+     * @param games       number of games to play in the tournament.
+     * @param seed        seed all games derive their stream from.
+     * @param firstGame   index of the first game to play.
+     * @return normalized scores indexed by competitor position in {@code competitors}.
+     * @throws IllegalArgumentException as {@link #runBracket(List, int)}.
+     */
+    public List<Double> runBracket(List<List<Integer>> competitors, int games, long seed, long firstGame) {
+        return runBracket(competitors, games, Long.valueOf(seed), firstGame);
+    }
+
+    private List<Double> runBracket(List<List<Integer>> competitors, int games, Long seed, long firstGame) {
         if (competitors == null || competitors.isEmpty()) {
             throw new IllegalArgumentException("competitors must not be null or empty");
         }
@@ -100,18 +123,20 @@ public class RankingStrategyTournament {
 
         int playerCount = competitors.size();
 
-        // Build strategy name list and pre-construct each SomeRankingStrategy.
+        // Build strategy name list and a prototype SomeRankingStrategy per competitor,
+        // which validates its parameters up front.
         // Names are "competitor-<index>" to keep a stable mapping back to result indices.
         List<String> strategyNames = new ArrayList<>(playerCount);
-        Map<String, SomeRankingStrategy> strategyMap = new HashMap<>(playerCount);
+        Map<String, SomeRankingStrategy> prototypes = new HashMap<>(playerCount);
 
         for (int i = 0; i < playerCount; i++) {
             String name = "competitor-" + i;
             strategyNames.add(name);
-            strategyMap.put(name, new SomeRankingStrategy(name, competitors.get(i)));
+            prototypes.put(name, new SomeRankingStrategy(name, competitors.get(i)));
         }
 
-        // Inline StrategyFactory backed by the pre-built map; no Config dependency.
+        // Inline StrategyFactory backed by the prototypes; no Config dependency.
+        // Each call copies a prototype, as the tournament plays games in parallel.
         StrategyFactory factory = new StrategyFactory() {
             @Override
             public List<String> listStrategies() {
@@ -120,15 +145,16 @@ public class RankingStrategyTournament {
 
             @Override
             public Strategy getStrategy(String strategyName) {
-                Strategy s = strategyMap.get(strategyName);
-                if (s == null) {
+                SomeRankingStrategy prototype = prototypes.get(strategyName);
+                if (prototype == null) {
                     throw new IllegalArgumentException("Unknown strategy name: " + strategyName);
                 }
-                return s;
+                return new SomeRankingStrategy(strategyName, prototype.getParameters());
             }
         };
 
-        Tournament tournament = new Tournament(factory, strategyNames, games);
+        Tournament tournament = (seed == null) ? new Tournament(factory, strategyNames, games)
+                : new Tournament(factory, strategyNames, games, GameSpec.DEFAULT, seed, firstGame);
         EventCounter<String, Integer> finishCounts = tournament.play();
 
         // Score.get maps finish-order index → integer medal score for playerCount players.
@@ -16,14 +16,18 @@
  */
 package com.rttnghs.mejn.internal;
 
+import static com.rttnghs.mejn.Layer.BEGIN;
+import static com.rttnghs.mejn.Layer.EVENT;
 import static com.rttnghs.mejn.Layer.HOME;
 
 import java.util.*;
 
+import com.rttnghs.mejn.BoardGeometry;
 import com.rttnghs.mejn.BoardState;
+import com.rttnghs.mejn.Layer;
 import com.rttnghs.mejn.Move;
 import com.rttnghs.mejn.Position;
-import com.rttnghs.mejn.configuration.Config;
+import com.rttnghs.mejn.configuration.GameSpec;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -31,22 +35,61 @@ import org.apache.logging.log4j.Logger;
  * A board state is essentially a list of positions for each player. The list of
  * positions will be kept in order.
  * <p>
- * Note that this class is immutable. This means that the state can be
- * passed around without the risk of modifications having a side-effect on
+ * Note that moves change this state in place. Use {@link #snapshot()} to pass
+ * the state around without the risk of modifications having a side-effect on
  * others using the same state.
  */
-public class BaseBoardState implements BoardState {
+public class BaseBoardState implements MutableBoardState {
 
 	private static final Logger logger = LogManager.getLogger(BaseBoardState.class);
 
+	private static final int LAYERS = Layer.values().length;
+
 	/**
-	 * This state is meant to be immutable and should not be modified.
+	 * The position lists of the players are immutable, a move replaces the list of
+	 * the player. This outer list, the layer counts and the Zobrist keys are
+	 * copied before a move when a snapshot shares them.
 	 */
-	private final List<List<Position>> state;
+	private List<List<Position>> state;
 	private final int boardSize;
 	private final int pawnsPerPlayer;
 	private final int dotsPerPlayer;
 
+	/**
+	 * Number of pawns per player and layer, indexed by {@code player * LAYERS + layer}.
+	 * Kept up to date by {@link #move(Move)}.
+	 */
+	private int[] layerCounts;
+
+	private final BoardGeometry geometry;
+	private final ZobristTable zobristTable;
+
+	/**
+	 * Position each player is struck back to, null for players without pawns.
+	 */
+	private final Position[] beginPositions;
+
+	/**
+	 * Zobrist key of the state from the perspective of each player, kept up to date
+	 * by {@link #move(Move)}.
+	 */
+	private long[] zobristKeys;
+
+	/**
+	 * Whether this is a snapshot, which cannot be moved on.
+	 */
+	private final boolean frozen;
+
+	/**
+	 * Snapshot of the current state, or null when there is none since the last move.
+	 */
+	private BaseBoardState snapshot;
+
+	/**
+	 * Whether a snapshot shares the lists and arrays of this state.
+	 */
+	private boolean shared;
+
 	/**
 	 * @param boardSize      The number of spots in the Event layer of the board.
 	 * @param dotsPerPlayer The number of spots in the Event layer of the board per player.
@@ -75,16 +118,41 @@ public class BaseBoardState implements BoardState {
 			newState.add(i, Collections.unmodifiableList(playerState));
 		}
 		state = newState;
+		this.beginPositions = beginPositions.toArray(new Position[0]);
+		frozen = false;
+		layerCounts = countLayers(state);
+		geometry = BoardGeometry.of(boardSize);
+		UndoToken.checkFits(geometry.size(), state.size());
+		zobristTable = ZobristTable.of(boardSize, dotsPerPlayer, state.size());
+		zobristKeys = new long[zobristTable.rotations()];
+		for (int rotation = 0; rotation < zobristKeys.length; rotation++) {
+			zobristKeys[rotation] = computeZobristKey(rotation);
+		}
 	}
 
 	/**
-	 * For private use only.
+	 * For private use only. Players without a pawn in BEGIN are struck back to the
+	 * begin position of the default game spec.
 	 *
 	 * @param boardSize  The number of spots in the Event layer of the board.
 	 * @param otherState to start this new board state with. Each sub-list
 	 *              (playerPositions) must have the same length.
 	 */
 	protected BaseBoardState(List<List<Position>> otherState, int boardSize, int dotsPerPlayer, int pawnsPerPlayer) {
+		this(otherState, boardSize, dotsPerPlayer, pawnsPerPlayer, GameSpec.DEFAULT.dieFaces());
+	}
+
+	/**
+	 * For private use only.
+	 *
+	 * @param boardSize  The number of spots in the Event layer of the board.
+	 * @param otherState to start this new board state with. Each sub-list
+	 *              (playerPositions) must have the same length.
+	 * @param dieFaces   of the die of the game, which places the begin position of
+	 *                   players without a pawn in BEGIN.
+	 */
+	protected BaseBoardState(List<List<Position>> otherState, int boardSize, int dotsPerPlayer, int pawnsPerPlayer,
+			int dieFaces) {
 		this.boardSize = boardSize;
 		this.dotsPerPlayer = dotsPerPlayer;
 		this.pawnsPerPlayer = pawnsPerPlayer;
@@ -94,7 +162,46 @@ public class BaseBoardState implements BoardState {
             playerState.sort(Position::compareTo);
             newStateCopy.add(Collections.unmodifiableList(playerState));
         }
-		this.state = Collections.unmodifiableList(newStateCopy);
+		this.state = newStateCopy;
+		this.beginPositions = new Position[state.size()];
+		for (int player = 0; player < beginPositions.length; player++) {
+			beginPositions[player] = findBeginPosition(player, dieFaces);
+		}
+		frozen = false;
+		layerCounts = countLayers(state);
+		geometry = BoardGeometry.of(boardSize);
+		UndoToken.checkFits(geometry.size(), state.size());
+		zobristTable = ZobristTable.of(boardSize, dotsPerPlayer, state.size());
+		zobristKeys = new long[zobristTable.rotations()];
+		for (int rotation = 0; rotation < zobristKeys.length; rotation++) {
+			zobristKeys[rotation] = computeZobristKey(rotation);
+		}
+	}
+
+	/**
+	 * Snapshot of the source, sharing its lists and arrays.
+	 */
+	private BaseBoardState(BaseBoardState source) {
+		this.boardSize = source.boardSize;
+		this.dotsPerPlayer = source.dotsPerPlayer;
+		this.pawnsPerPlayer = source.pawnsPerPlayer;
+		this.state = source.state;
+		this.layerCounts = source.layerCounts;
+		this.geometry = source.geometry;
+		this.zobristTable = source.zobristTable;
+		this.zobristKeys = source.zobristKeys;
+		this.beginPositions = source.beginPositions;
+		this.frozen = true;
+	}
+
+	private static int[] countLayers(List<List<Position>> state) {
+		int[] layerCounts = new int[state.size() * LAYERS];
+		for (int player = 0; player < state.size(); player++) {
+			for (Position position : state.get(player)) {
+				layerCounts[player * LAYERS + position.layer().ordinal()]++;
+			}
+		}
+		return layerCounts;
 	}
 
 	@Override
@@ -134,9 +241,13 @@ public class BaseBoardState implements BoardState {
 		return Collections.unmodifiableList(state.get(player));
 	}
 
+	/**
+	 * @return hash based on the Zobrist key, which is consistent with equals as
+	 *         equal states have their pawns on the same positions.
+	 */
 	@Override
 	public int hashCode() {
-		return Objects.hash(boardSize, state, dotsPerPlayer, pawnsPerPlayer);
+		return Long.hashCode(zobristKeys[0]);
 	}
 
 	@Override
@@ -196,6 +307,7 @@ public class BaseBoardState implements BoardState {
 		return -1;
 	}
 
+	@Override
 	public int getDotsPerPlayer() {
 		return dotsPerPlayer;
 	}
@@ -204,57 +316,199 @@ public class BaseBoardState implements BoardState {
 	 * Applies the move to this state in place. Nothing changes when {@code move} is
 	 * null, when either endpoint is null, or when there is no player at
 	 * {@code move.from()}.
+	 * <p>
+	 * The undo token holds the positions as normalized ordinals, so taking a move
+	 * back restores normalized positions.
 	 *
 	 * @param move assumed to be a valid move
+	 * @return token to take the move back with {@link #unmove(long)}.
 	 */
-	public void move(Move move) {
+	@Override
+	public long move(Move move) {
 		if ((move == null) || (move.from() == null) || (move.to() == null)) {
-			return;
+			return UndoToken.NONE;
 		}
 		if (move.from() == move.to()) {
 			// nobody is moving anywhere
-			return;
+			return UndoToken.NONE;
 		}
 		// Determine whose pawn we're moving.
         int player = getPlayer(move.from());
         if (player == -1) {
             // No such move
-            return;
+            return UndoToken.NONE;
         }
+		prepareForChange();
+		int from = geometry.ordinal(move.from());
+		int to = geometry.ordinal(move.to());
 
 		// Resolve strike as part of state mutation: any pawn currently on move.to()
 		// is moved back to that player's begin position first.
 		int struckPlayer = getPlayer(move.to());
+		int struckBegin = -1;
 		if (struckPlayer != -1) {
-			Position struckBegin = getBeginPosition(struckPlayer);
-			if (struckBegin != null) {
-				List<Position> struckOldState = state.get(struckPlayer);
-				List<Position> struckNewState = getPositions(new Move(move.to(), struckBegin), struckOldState);
-				sortIfOutOfOrder(struckNewState);
-				state.set(struckPlayer, Collections.unmodifiableList(struckNewState));
+			Position struckBeginPosition = getBeginPosition(struckPlayer);
+			if (relocate(struckPlayer, move.to(), struckBeginPosition)) {
+				struckBegin = geometry.ordinal(struckBeginPosition);
+			} else {
+				struckPlayer = -1;
 			}
 		}
 
+		if (!relocate(player, move.from(), move.to())) {
+			if (struckPlayer == -1) {
+				return UndoToken.NONE;
+			}
+			// Only the strike happened, taking back the move itself changes nothing.
+			from = to;
+		}
+		return UndoToken.of(player, from, to, struckPlayer, struckBegin);
+	}
 
+	@Override
+	public void unmove(long token) {
+		if (token == UndoToken.NONE) {
+			return;
+		}
+		prepareForChange();
+		Position to = geometry.position(UndoToken.to(token));
+		relocate(UndoToken.player(token), to, geometry.position(UndoToken.from(token)));
+		int struckPlayer = UndoToken.struckPlayer(token);
+		if (struckPlayer != -1) {
+			relocate(struckPlayer, geometry.position(UndoToken.struckBegin(token)), to);
+		}
+	}
 
-		List<Position> oldPlayerState = state.get(player);
-		List<Position> newPlayerState = getPositions(move, oldPlayerState);
+	/**
+	 * Players without pawns keep having none.
+	 */
+	@Override
+	public void reset() {
+		prepareForChange();
+		for (int player = 0; player < state.size(); player++) {
+			int pawns = state.get(player).size();
+			if (pawns > 0) {
+				state.set(player, Collections.nCopies(pawns, getBeginPosition(player)));
+			}
+		}
+		layerCounts = countLayers(state);
+		for (int rotation = 0; rotation < zobristKeys.length; rotation++) {
+			zobristKeys[rotation] = computeZobristKey(rotation);
+		}
+	}
+
+	/**
+	 * Snapshots of this state are immutable and can be read from any thread, as long
+	 * as they are handed over safely, for instance by starting a thread or through
+	 * a concurrent queue. Taking a snapshot is O(1) and shares the lists of this
+	 * state until the next move, which then copies the outer list and the counters.
+	 *
+	 * @return this state as it is now, unaffected by later moves.
+	 */
+	@Override
+	public BoardState snapshot() {
+		if (frozen) {
+			return this;
+		}
+		if (snapshot == null) {
+			snapshot = new BaseBoardState(this);
+			shared = true;
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Drops the snapshot and stops sharing with it before this state changes.
+	 *
+	 * @throws UnsupportedOperationException when this is a snapshot.
+	 */
+	private void prepareForChange() {
+		if (frozen) {
+			throw new UnsupportedOperationException("A snapshot cannot be changed");
+		}
+		snapshot = null;
+		if (shared) {
+			state = new ArrayList<>(state);
+			layerCounts = layerCounts.clone();
+			zobristKeys = zobristKeys.clone();
+			shared = false;
+		}
+	}
+
+	/**
+	 * Moves one pawn of the player, keeps the positions in order and updates the
+	 * layer counts.
+	 *
+	 * @return whether the player had a pawn on from.
+	 */
+	private boolean relocate(int player, Position from, Position to) {
+		List<Position> newPlayerState = getPositions(from, to, state.get(player));
+		if (newPlayerState == null) {
+			return false;
+		}
 		sortIfOutOfOrder(newPlayerState);
 		// Replace the player state in the state list.
 		state.set(player, Collections.unmodifiableList(newPlayerState));
+		layerCounts[player * LAYERS + from.layer().ordinal()]--;
+		layerCounts[player * LAYERS + to.layer().ordinal()]++;
+		int fromOrdinal = geometry.ordinal(from);
+		int toOrdinal = geometry.ordinal(to);
+		for (int rotation = 0; rotation < zobristKeys.length; rotation++) {
+			zobristKeys[rotation] += zobristTable.key(rotation, player, toOrdinal)
+					- zobristTable.key(rotation, player, fromOrdinal);
+		}
+		return true;
+	}
+
+	/**
+	 * @param rotation player index whose perspective to use.
+	 * @return the Zobrist key summed over all pawns.
+	 */
+	private long computeZobristKey(int rotation) {
+		long key = 0;
+		for (int player = 0; player < state.size(); player++) {
+			for (Position position : state.get(player)) {
+				key += zobristTable.key(rotation, player, geometry.ordinal(position));
+			}
+		}
+		return key;
+	}
+
+	@Override
+	public long getZobristKey() {
+		return zobristKeys[0];
+	}
+
+	@Override
+	public long getZobristKey(int playerIndex) {
+		if ((playerIndex < 0) || (playerIndex >= zobristKeys.length)) {
+			return computeZobristKey(playerIndex);
+		}
+		return zobristKeys[playerIndex];
 	}
 
 	private Position getBeginPosition(int player) {
+		return beginPositions[player];
+	}
+
+	/**
+	 * @param player   index of the player
+	 * @param dieFaces of the die of the game
+	 * @return the first BEGIN position of the player, or the one from the begin
+	 *         formula of {@link com.rttnghs.mejn.Board} when the player has no pawn
+	 *         in BEGIN.
+	 */
+	private Position findBeginPosition(int player, int dieFaces) {
 		List<Position> playerState = state.get(player);
 		for (Position position : playerState) {
-			if (position.layer() == com.rttnghs.mejn.Layer.BEGIN) {
+			if (position.layer() == BEGIN) {
 				return position;
 			}
 		}
 		// Fall back to configured board begin formula if this player currently has no
 		// pawn in BEGIN.
-		int beginIndex = (-1 * Config.value.dieFaces()) + (player * dotsPerPlayer);
-		return new Position(com.rttnghs.mejn.Layer.BEGIN, beginIndex).normalize(boardSize);
+		int beginIndex = (-1 * dieFaces) + (player * dotsPerPlayer);
+		return Position.valueOf(BEGIN, beginIndex).normalize(boardSize);
 	}
 
 	private static void sortIfOutOfOrder(List<Position> playerState) {
@@ -272,26 +526,27 @@ public class BaseBoardState implements BoardState {
 	}
 
 	/**
-	 * @param move         assumed to be a valid move
+	 * @param from           position of the pawn to move
+	 * @param to             position to move the pawn to
 	 * @param oldPlayerState the state of the player before the move
-	 * @return new state with the move applied. Will be the same as this state if
-	 *         move is null, or to/from Positions in the move are null.
+	 * @return new state with the move applied, or null when the player has no pawn
+	 *         on {@code from}.
 	 */
-	private static List<Position> getPositions(Move move, List<Position> oldPlayerState) {
+	private static List<Position> getPositions(Position from, Position to, List<Position> oldPlayerState) {
 		List<Position> newPlayerState = new ArrayList<>(oldPlayerState.size());
-		// Count backwards, and replace the first match on move.from(). This is useful
+		// Count backwards, and replace the first match on from. This is useful
 		// to replace only one move from BEGIN layer, and keep list sorted.
 		int replacedIndex = -1;
 		for (int i = oldPlayerState.size() - 1; i >= 0; i--) {
 			Position oldPosition = oldPlayerState.get(i);
-			if ((replacedIndex < 0) && oldPosition.equals(move.from())) {
-				newPlayerState.add(move.to());
+			if ((replacedIndex < 0) && oldPosition.equals(from)) {
+				newPlayerState.add(to);
 				replacedIndex = i;
 			} else {
 				newPlayerState.add(oldPosition);
 			}
 		}
-		return newPlayerState;
+		return (replacedIndex < 0) ? null : newPlayerState;
 	}
 
 	@Override
@@ -306,24 +561,32 @@ public class BaseBoardState implements BoardState {
 	@Override
 	public boolean isFinished(int player) {
 		// Consider non-existing players as finished.
-		if ((player < 0) || (state.get(player).isEmpty())) {
+		if ((player < 0) || (player >= state.size()) || (state.get(player).isEmpty())) {
 			return true;
 		}
+		return getHomeCount(player) == pawnsPerPlayer;
+	}
 
-		// Either player has zero pawn, or pawnsPerPlayer
-		if (state.get(player).size() != pawnsPerPlayer) {
-			throw new RuntimeException("Player " + player + " has " + state.get(player).size() + " pawns, but should have " + pawnsPerPlayer);
-		}
+	@Override
+	public int getBeginCount(int player) {
+		return layerCount(player, BEGIN);
+	}
+
+	@Override
+	public int getOnBoardCount(int player) {
+		return layerCount(player, EVENT);
+	}
 
+	@Override
+	public int getHomeCount(int player) {
+		return layerCount(player, HOME);
+	}
 
-		// Check if all pawns are in the HOME layer, return result on the first one that is not.
-		for (int i = 0; i < pawnsPerPlayer; i++) {
-			if (getPosition(player, i).layer() != HOME) {
-				return false;
-			}
+	private int layerCount(int player, Layer layer) {
+		if ((player < 0) || (player >= state.size())) {
+			return 0;
 		}
-		// logger.debug(()-> "isFinished true " + player);
-		return true;
+		return layerCounts[player * LAYERS + layer.ordinal()];
 	}
 
 }
@@ -62,6 +62,11 @@ public class BaseHistory<E> implements HistorySupplier<E>, History<E> {
 		return history.reverseStream();
 	}
 
+	@Override
+	public E get(int index) {
+		return history.get(index);
+	}
+
 	@Override
 	public String toString() {
 		return history.toString();
@@ -131,6 +136,11 @@ public class BaseHistory<E> implements HistorySupplier<E>, History<E> {
 				return wrapped.reverseStream().map(operator);
 			}
 
+			@Override
+			public E get(int index) {
+				return operator.apply(wrapped.get(index));
+			}
+
 			@Override
 			public String toString() {
 				return this.stream().toList().toString();
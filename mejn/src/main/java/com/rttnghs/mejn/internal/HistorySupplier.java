@@ -29,4 +29,14 @@ public interface HistorySupplier<E> {
      */
     Supplier<History<E>> getSupplier(UnaryOperator<E> operator);
 
+    /**
+     * @param playerIndex index of the player the history is for. Histories that track
+     *                    players number them so that this player is player 0.
+     * @param operator    applied to the elements.
+     * @return a {@code Supplier} of histories from the perspective of the player.
+     */
+    default Supplier<History<E>> getSupplier(int playerIndex, UnaryOperator<E> operator) {
+        return getSupplier(operator);
+    }
+
 }
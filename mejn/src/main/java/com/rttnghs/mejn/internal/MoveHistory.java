@@ -0,0 +1,289 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn.internal;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.rttnghs.mejn.BoardGeometry;
+import com.rttnghs.mejn.History;
+import com.rttnghs.mejn.Move;
+import com.rttnghs.mejn.PlayerHistory;
+
+/**
+ * History of the moves in a game, each held as one {@code int} with the
+ * {@link BoardGeometry} ordinals of its from and to positions.
+ * <p>
+ * Unlike {@link BaseHistory}, the events can be read by index without streaming
+ * the history, and the moves of each player are kept apart as well so that
+ * {@link #ofPlayer(int)} is a lookup too. The histories handed out through
+ * {@link #getSupplier} are {@link PlayerHistory} views: a move is only shifted to the perspective of
+ * the player when it is read.
+ * <p>
+ * A bounded history keeps the most recent moves only, so that memory stays
+ * capped in long simulations. Not thread safe.
+ */
+public final class MoveHistory implements HistorySupplier<Move>, PlayerHistory<Move> {
+
+	private final BoardGeometry geometry;
+	private final int playerCount;
+	private final Ring moves;
+	private final Ring[] playerMoves;
+	private final View all;
+
+	/**
+	 * Creates a history that keeps all moves.
+	 *
+	 * @param boardSize   number of spots in the EVENT layer, supported by {@link BoardGeometry}
+	 * @param playerCount number of players, at least one
+	 */
+	public MoveHistory(int boardSize, int playerCount) {
+		this(boardSize, playerCount, 0);
+	}
+
+	/**
+	 * @param boardSize   number of spots in the EVENT layer, supported by {@link BoardGeometry}
+	 * @param playerCount number of players, at least one
+	 * @param limit       number of most recent moves to keep, overall and per player.
+	 *                    Zero to keep all moves.
+	 */
+	public MoveHistory(int boardSize, int playerCount, int limit) {
+		if (playerCount < 1) {
+			throw new IllegalArgumentException("playerCount must be at least 1, not " + playerCount);
+		}
+		if (limit < 0) {
+			throw new IllegalArgumentException("limit must not be negative, not " + limit);
+		}
+		this.geometry = BoardGeometry.of(boardSize);
+		this.playerCount = playerCount;
+		this.moves = new Ring(limit);
+		this.playerMoves = new Ring[playerCount];
+		for (int player = 0; player < playerCount; player++) {
+			playerMoves[player] = new Ring(limit);
+		}
+		this.all = new View(moves, 0, UnaryOperator.identity());
+	}
+
+	/**
+	 * Appends a move to the end of the history.
+	 *
+	 * @param player index of the player whose pawn moved
+	 * @param move   on the board of this history
+	 * @return {@code false} if the move is null, {@code true} otherwise.
+	 */
+	public boolean add(int player, Move move) {
+		if (move == null) {
+			return false;
+		}
+		int packed = (geometry.ordinal(move.from()) << 16) | geometry.ordinal(move.to());
+		moves.add(packed);
+		playerMoves[Objects.checkIndex(player, playerCount)].add(packed);
+		return true;
+	}
+
+	/**
+	 * Forgets all moves, keeping the memory for the next game.
+	 */
+	public void clear() {
+		moves.clear();
+		for (Ring ring : playerMoves) {
+			ring.clear();
+		}
+	}
+
+	/**
+	 * @return the maximum number of moves kept, or zero when all moves are kept.
+	 */
+	public int getLimit() {
+		return moves.limit;
+	}
+
+	@Override
+	public int size() {
+		return all.size();
+	}
+
+	@Override
+	public Move get(int index) {
+		return all.get(index);
+	}
+
+	@Override
+	public List<Move> last(int count) {
+		return all.last(count);
+	}
+
+	@Override
+	public PlayerHistory<Move> ofPlayer(int player) {
+		return all.ofPlayer(player);
+	}
+
+	@Override
+	public Stream<Move> stream() {
+		return all.stream();
+	}
+
+	@Override
+	public Stream<Move> reverseStream() {
+		return all.reverseStream();
+	}
+
+	@Override
+	public String toString() {
+		return all.toString();
+	}
+
+	@Override
+	public Supplier<History<Move>> getSupplier(UnaryOperator<Move> operator) {
+		return getSupplier(0, operator);
+	}
+
+	@Override
+	public Supplier<History<Move>> getSupplier(int playerIndex, UnaryOperator<Move> operator) {
+		History<Move> view = new View(moves, Math.floorMod(playerIndex, playerCount), operator);
+		return () -> view;
+	}
+
+	private Move decode(int packed) {
+		return geometry.move(packed >>> 16, packed & 0xFFFF);
+	}
+
+	/**
+	 * Read only view on a ring, with the operator applied to each move as it is read.
+	 */
+	private final class View implements PlayerHistory<Move> {
+		private final Ring ring;
+		private final int playerOffset;
+		private final UnaryOperator<Move> operator;
+
+		/**
+		 * @param ring         with the moves to view
+		 * @param playerOffset index of the player that is player 0 in this view
+		 * @param operator     applied to each move that is read
+		 */
+		View(Ring ring, int playerOffset, UnaryOperator<Move> operator) {
+			this.ring = ring;
+			this.playerOffset = playerOffset;
+			this.operator = operator;
+		}
+
+		@Override
+		public int size() {
+			return ring.size();
+		}
+
+		@Override
+		public Move get(int index) {
+			return operator.apply(decode(ring.get(index)));
+		}
+
+		/**
+		 * @return a list backed by this view, valid until the next move is added.
+		 */
+		@Override
+		public List<Move> last(int count) {
+			int size = size();
+			int first = size - Math.min(Math.max(count, 0), size);
+			return new AbstractList<>() {
+				@Override
+				public Move get(int index) {
+					return View.this.get(first + Objects.checkIndex(index, size - first));
+				}
+
+				@Override
+				public int size() {
+					return size - first;
+				}
+			};
+		}
+
+		@Override
+		public PlayerHistory<Move> ofPlayer(int player) {
+			return new View(playerMoves[Math.floorMod(player + playerOffset, playerCount)], playerOffset, operator);
+		}
+
+		@Override
+		public Stream<Move> stream() {
+			return IntStream.range(0, size()).mapToObj(this::get);
+		}
+
+		@Override
+		public Stream<Move> reverseStream() {
+			int size = size();
+			return IntStream.range(0, size).mapToObj(index -> get(size - 1 - index));
+		}
+
+		@Override
+		public String toString() {
+			return stream().toList().toString();
+		}
+	}
+
+	/**
+	 * Growing array of packed moves, or a ring of the most recent ones when it has a limit.
+	 */
+	private static final class Ring {
+		private final int limit;
+		private int[] buffer;
+		private long count;
+
+		/**
+		 * @param limit maximum number of moves to keep, zero for all.
+		 */
+		Ring(int limit) {
+			this.limit = limit;
+			this.buffer = new int[(limit == 0) ? 64 : Math.min(limit, 64)];
+		}
+
+		void add(int packed) {
+			if ((count < buffer.length) || (limit != 0 && buffer.length == limit)) {
+				buffer[(limit == 0) ? (int) count : (int) (count % limit)] = packed;
+			} else {
+				int length = (limit == 0) ? buffer.length * 2 : Math.min(limit, buffer.length * 2);
+				buffer = Arrays.copyOf(buffer, length);
+				buffer[(int) count] = packed;
+			}
+			count++;
+		}
+
+		int size() {
+			return (limit == 0) ? (int) count : (int) Math.min(count, limit);
+		}
+
+		/**
+		 * @param index between 0 (oldest kept) and {@link #size()} (exclusive)
+		 */
+		int get(int index) {
+			int size = size();
+			Objects.checkIndex(index, size);
+			if (limit == 0) {
+				return buffer[index];
+			}
+			return buffer[(int) ((count - size + index) % limit)];
+		}
+
+		void clear() {
+			count = 0;
+		}
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn.internal;
+
+import com.rttnghs.mejn.BoardState;
+import com.rttnghs.mejn.Move;
+
+/**
+ * A {@link BoardState} that the board can apply moves to. Implemented by each of
+ * the state encodings a {@link com.rttnghs.mejn.Board} can be configured with.
+ */
+public interface MutableBoardState extends BoardState {
+
+    /**
+     * @return the number of spots in the EVENT layer of the board per player.
+     */
+    int getDotsPerPlayer();
+
+    /**
+     * Applies the move to this state in place. Any pawn currently on
+     * {@code move.to()} is struck back to its player's begin position first.
+     * Nothing changes when {@code move} is null, or when there is no player at
+     * {@code move.from()}.
+     *
+     * @param move assumed to be a valid move
+     * @return token to pass to {@link #unmove(long)} to take the move back, or
+     * {@link UndoToken#NONE} when nothing changed.
+     */
+    long move(Move move);
+
+    /**
+     * Takes back a move, restoring the positions and counters from before it,
+     * including any struck pawn. Moves must be taken back in reverse order.
+     *
+     * @param token returned by {@link #move(Move)} on this state
+     */
+    void unmove(long token);
+
+    /**
+     * Puts all pawns back on the begin positions of their players, so that the
+     * state can be used for another game. Snapshots taken before are not affected.
+     */
+    void reset();
+
+    /**
+     * @param playerIndex index of the player whose perspective to use.
+     * @return the Zobrist key of {@code shift(playerIndex)}.
+     */
+    long getZobristKey(int playerIndex);
+
+    /**
+     * @return an immutable copy of this state as it is now, which later moves do not
+     * affect. Cheap, as it shares structure with this state where it can.
+     */
+    BoardState snapshot();
+}
@@ -0,0 +1,741 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn.internal;
+
+import com.rttnghs.mejn.BoardGeometry;
+import com.rttnghs.mejn.BoardState;
+import com.rttnghs.mejn.Layer;
+import com.rttnghs.mejn.Move;
+import com.rttnghs.mejn.Position;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import static com.rttnghs.mejn.Layer.BEGIN;
+import static com.rttnghs.mejn.Layer.EVENT;
+import static com.rttnghs.mejn.Layer.HOME;
+
+/**
+ * A board state that packs the pawn locations into primitive arrays.
+ * <p>
+ * Each position is encoded as its {@link BoardGeometry} ordinal, which sorts the
+ * same way as {@link Position#compareTo(Position)}. Per player and
+ * per layer a {@code long} bitmask records which spots are occupied, so that
+ * occupancy, strike detection and blocked home checks are bit operations rather
+ * than list scans. This limits the board size to {@link #MAX_BOARD_SIZE} spots.
+ * <p>
+ * Behaves the same as {@link BaseBoardState}, except that positions outside the
+ * board are never occupied and a stationary move never strikes.
+ * <p>
+ * {@link #shift(int)} returns a rotated view on the same arrays rather than a
+ * {@link ShiftingBoardState}. Views are created once per player, and reading
+ * them does not allocate.
+ */
+public class PackedBoardState implements MutableBoardState {
+
+    /**
+     * Largest board that fits the per-layer bitmasks.
+     */
+    public static final int MAX_BOARD_SIZE = Long.SIZE;
+
+    private static final int LAYERS = Layer.values().length;
+
+    private final int boardSize;
+    private final int dotsPerPlayer;
+    private final int pawnsPerPlayer;
+    private final int playerCount;
+
+    /**
+     * Ordinal of the begin position of each player, or -1 for a player without pawns.
+     */
+    private final int[] beginOrdinals;
+
+    /**
+     * Ordinals of the pawns, pawnsPerPlayer consecutive entries per player kept in
+     * ascending order. Players without pawns have all entries set to -1.
+     */
+    private int[] pawns;
+
+    /**
+     * Occupied spots per player and layer, indexed by {@code player * LAYERS + layer}.
+     */
+    private long[] occupancy;
+
+    /**
+     * Occupied spots per layer for all players combined.
+     */
+    private long[] layerOccupancy;
+
+    /**
+     * Number of pawns per player and layer, indexed by {@code player * LAYERS + layer}.
+     */
+    private int[] layerCounts;
+
+    private final ZobristTable zobristTable;
+
+    /**
+     * Zobrist key of the state from the perspective of each player.
+     */
+    private long[] zobristKeys;
+
+    /**
+     * Canonical position for each ordinal, so that reads do not allocate.
+     */
+    private final BoardGeometry geometry;
+
+    /**
+     * Rotated view for each player index, created on first use.
+     */
+    private final RotatedView[] rotatedViews;
+
+    /**
+     * Whether this is a snapshot, which cannot be moved on.
+     */
+    private final boolean frozen;
+
+    /**
+     * Snapshot of the current state, or null when there is none since the last move.
+     */
+    private PackedBoardState snapshot;
+
+    /**
+     * Whether a snapshot shares the arrays of this state, which then have to be
+     * copied before the next move.
+     */
+    private boolean shared;
+
+    /**
+     * @param boardSize      The number of spots in the Event layer of the board. At most {@link #MAX_BOARD_SIZE}.
+     * @param dotsPerPlayer  The number of spots in the Event layer of the board per player.
+     * @param pawnsPerPlayer how many pawns each player should have. Should be >0;
+     * @param beginPositions List of begin positions for each player with the length of
+     *                       number of players. Cannot be null; A null begin position means the player has no pawns.
+     * @throws IllegalStateException    for empty/null begin positions or fewer than one pawn per player.
+     * @throws IllegalArgumentException when the board does not fit the bitmasks or a begin position is off the board.
+     */
+    public PackedBoardState(int boardSize, int dotsPerPlayer, int pawnsPerPlayer, List<Position> beginPositions) {
+        if ((beginPositions == null) || beginPositions.isEmpty() || pawnsPerPlayer < 1) {
+            throw new IllegalStateException(
+                    "Cannot create BoardState with empty/null beginpositions or < 1 pawns per player");
+        }
+        if ((boardSize < 1) || (boardSize > MAX_BOARD_SIZE)) {
+            throw new IllegalArgumentException("boardSize must be between 1 and " + MAX_BOARD_SIZE + ": " + boardSize);
+        }
+        this.boardSize = boardSize;
+        this.dotsPerPlayer = dotsPerPlayer;
+        this.pawnsPerPlayer = pawnsPerPlayer;
+        this.playerCount = beginPositions.size();
+        this.beginOrdinals = new int[playerCount];
+        this.pawns = new int[playerCount * pawnsPerPlayer];
+        this.occupancy = new long[playerCount * LAYERS];
+        this.layerOccupancy = new long[LAYERS];
+        this.layerCounts = new int[playerCount * LAYERS];
+        this.geometry = BoardGeometry.of(boardSize);
+        this.rotatedViews = new RotatedView[playerCount];
+        this.frozen = false;
+
+        for (int player = 0; player < playerCount; player++) {
+            Position beginPosition = beginPositions.get(player);
+            int beginOrdinal = -1;
+            if (beginPosition != null) {
+                beginOrdinal = ordinalOf(beginPosition);
+                if (beginOrdinal < 0) {
+                    throw new IllegalArgumentException("Begin position " + beginPosition + " is not on the board");
+                }
+                occupy(player, beginOrdinal);
+                layerCounts[player * LAYERS + BEGIN.ordinal()] = pawnsPerPlayer;
+            }
+            beginOrdinals[player] = beginOrdinal;
+            Arrays.fill(pawns, player * pawnsPerPlayer, (player + 1) * pawnsPerPlayer, beginOrdinal);
+        }
+        this.zobristTable = ZobristTable.of(boardSize, dotsPerPlayer, playerCount);
+        this.zobristKeys = new long[zobristTable.rotations()];
+        for (int rotation = 0; rotation < zobristKeys.length; rotation++) {
+            zobristKeys[rotation] = computeZobristKey(rotation);
+        }
+    }
+
+    /**
+     * Snapshot of the source, sharing its arrays.
+     */
+    private PackedBoardState(PackedBoardState source) {
+        this.boardSize = source.boardSize;
+        this.dotsPerPlayer = source.dotsPerPlayer;
+        this.pawnsPerPlayer = source.pawnsPerPlayer;
+        this.playerCount = source.playerCount;
+        this.beginOrdinals = source.beginOrdinals;
+        this.pawns = source.pawns;
+        this.occupancy = source.occupancy;
+        this.layerOccupancy = source.layerOccupancy;
+        this.layerCounts = source.layerCounts;
+        this.zobristTable = source.zobristTable;
+        this.zobristKeys = source.zobristKeys;
+        this.geometry = source.geometry;
+        this.rotatedViews = new RotatedView[playerCount];
+        this.frozen = true;
+    }
+
+    @Override
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    @Override
+    public int getDotsPerPlayer() {
+        return dotsPerPlayer;
+    }
+
+    @Override
+    public int getPawnsPerPlayer() {
+        return pawnsPerPlayer;
+    }
+
+    @Override
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    @Override
+    public Position getPosition(int player, int pawn) {
+        if ((player < 0) || (player >= playerCount) || (pawn < 0) || (pawn >= pawnsPerPlayer)) {
+            return null;
+        }
+        int ordinal = pawns[player * pawnsPerPlayer + pawn];
+        return (ordinal < 0) ? null : geometry.position(ordinal);
+    }
+
+    @Override
+    public List<Position> getPositions(int player) {
+        if ((player < 0) || (player >= playerCount)) {
+            // out of bound for player
+            return null;
+        }
+        if (beginOrdinals[player] < 0) {
+            return List.of();
+        }
+        Position[] playerPositions = new Position[pawnsPerPlayer];
+        for (int pawn = 0; pawn < pawnsPerPlayer; pawn++) {
+            playerPositions[pawn] = geometry.position(pawns[player * pawnsPerPlayer + pawn]);
+        }
+        return Collections.unmodifiableList(Arrays.asList(playerPositions));
+    }
+
+    @Override
+    public int getPlayer(Position position) {
+        if (position == null) {
+            return -1;
+        }
+        return playerAt(ordinalOf(position));
+    }
+
+    /**
+     * Applies the move to this state in place. Nothing changes when {@code move} is
+     * null, when it does not go anywhere, when either endpoint is off the board, or
+     * when there is no player at {@code move.from()}.
+     *
+     * @param move assumed to be a valid move
+     * @return token to take the move back with {@link #unmove(long)}.
+     */
+    @Override
+    public long move(Move move) {
+        if ((move == null) || (move.from() == null) || (move.to() == null) || move.from().equals(move.to())) {
+            return UndoToken.NONE;
+        }
+        int from = ordinalOf(move.from());
+        int to = ordinalOf(move.to());
+        if ((from < 0) || (to < 0)) {
+            return UndoToken.NONE;
+        }
+        int player = playerAt(from);
+        if (player == -1) {
+            // No such move
+            return UndoToken.NONE;
+        }
+        prepareForChange();
+        // Resolve strike as part of state mutation: any pawn currently on move.to()
+        // is moved back to that player's begin position first.
+        int struckPlayer = playerAt(to);
+        int struckBegin = -1;
+        if (struckPlayer != -1) {
+            struckBegin = beginOrdinals[struckPlayer];
+            relocate(struckPlayer, to, struckBegin);
+        }
+        relocate(player, from, to);
+        return UndoToken.of(player, from, to, struckPlayer, struckBegin);
+    }
+
+    @Override
+    public void unmove(long token) {
+        if (token == UndoToken.NONE) {
+            return;
+        }
+        prepareForChange();
+        int to = UndoToken.to(token);
+        relocate(UndoToken.player(token), to, UndoToken.from(token));
+        int struckPlayer = UndoToken.struckPlayer(token);
+        if (struckPlayer != -1) {
+            relocate(struckPlayer, UndoToken.struckBegin(token), to);
+        }
+    }
+
+    @Override
+    public void reset() {
+        prepareForChange();
+        Arrays.fill(occupancy, 0L);
+        Arrays.fill(layerOccupancy, 0L);
+        Arrays.fill(layerCounts, 0);
+        for (int player = 0; player < playerCount; player++) {
+            int beginOrdinal = beginOrdinals[player];
+            if (beginOrdinal >= 0) {
+                occupy(player, beginOrdinal);
+                layerCounts[player * LAYERS + BEGIN.ordinal()] = pawnsPerPlayer;
+            }
+            Arrays.fill(pawns, player * pawnsPerPlayer, (player + 1) * pawnsPerPlayer, beginOrdinal);
+        }
+        for (int rotation = 0; rotation < zobristKeys.length; rotation++) {
+            zobristKeys[rotation] = computeZobristKey(rotation);
+        }
+    }
+
+    /**
+     * Snapshots of this state are immutable and can be read from any thread, as long
+     * as they are handed over safely, for instance by starting a thread or through
+     * a concurrent queue. Taking a snapshot is O(1) and shares the arrays of this
+     * state until the next move, which then copies them.
+     *
+     * @return this state as it is now, unaffected by later moves.
+     */
+    @Override
+    public BoardState snapshot() {
+        if (frozen) {
+            return this;
+        }
+        if (snapshot == null) {
+            snapshot = new PackedBoardState(this);
+            shared = true;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Drops the snapshot and stops sharing with it before this state changes.
+     *
+     * @throws UnsupportedOperationException when this is a snapshot.
+     */
+    private void prepareForChange() {
+        if (frozen) {
+            throw new UnsupportedOperationException("A snapshot cannot be changed");
+        }
+        snapshot = null;
+        if (shared) {
+            pawns = pawns.clone();
+            occupancy = occupancy.clone();
+            layerOccupancy = layerOccupancy.clone();
+            layerCounts = layerCounts.clone();
+            zobristKeys = zobristKeys.clone();
+            shared = false;
+        }
+    }
+
+    /**
+     * @param playerIndex index of the player to shift the perspective for.
+     * @return this state for player 0, otherwise a view that shares the arrays of
+     * this state, and so reflects later moves.
+     */
+    @Override
+    public BoardState shift(int playerIndex) {
+        if (playerIndex == 0) {
+            return this;
+        }
+        if ((playerIndex < 0) || (playerIndex >= playerCount)) {
+            // Not a player on this board, do not bother caching.
+            return new RotatedView(playerIndex);
+        }
+        RotatedView rotatedView = rotatedViews[playerIndex];
+        if (rotatedView == null) {
+            rotatedView = new RotatedView(playerIndex);
+            rotatedViews[playerIndex] = rotatedView;
+        }
+        return rotatedView;
+    }
+
+    @Override
+    public boolean isFinished(int player) {
+        // Consider non-existing players as finished.
+        if ((player < 0) || (player >= playerCount) || (beginOrdinals[player] < 0)) {
+            return true;
+        }
+        return layerCounts[player * LAYERS + HOME.ordinal()] == pawnsPerPlayer;
+    }
+
+    @Override
+    public int getBeginCount(int player) {
+        return layerCount(player, BEGIN);
+    }
+
+    @Override
+    public int getOnBoardCount(int player) {
+        return layerCount(player, EVENT);
+    }
+
+    @Override
+    public int getHomeCount(int player) {
+        return layerCount(player, HOME);
+    }
+
+    private int layerCount(int player, Layer layer) {
+        if ((player < 0) || (player >= playerCount)) {
+            return 0;
+        }
+        return layerCounts[player * LAYERS + layer.ordinal()];
+    }
+
+    /**
+     * @param position any position, normalized or not.
+     * @return the ordinal of the position, or -1 when it is not on the board.
+     */
+    private int ordinalOf(Position position) {
+        int spot = position.spot();
+        if ((spot < 0) || (spot >= boardSize)) {
+            return -1;
+        }
+        return position.layer().ordinal() * boardSize + spot;
+    }
+
+    /**
+     * @param ordinal of the position to look up, or -1.
+     * @return the player occupying the ordinal, or -1 if nobody does.
+     */
+    private int playerAt(int ordinal) {
+        if (ordinal < 0) {
+            return -1;
+        }
+        int layer = ordinal / boardSize;
+        long bit = 1L << (ordinal - layer * boardSize);
+        if ((layerOccupancy[layer] & bit) == 0) {
+            return -1;
+        }
+        for (int player = 0; player < playerCount; player++) {
+            if ((occupancy[player * LAYERS + layer] & bit) != 0) {
+                return player;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Moves one pawn of the player and keeps the player's pawns in order.
+     *
+     * @param player whose pawn moves
+     * @param from   ordinal the pawn currently is on
+     * @param to     ordinal the pawn moves to
+     */
+    private void relocate(int player, int from, int to) {
+        int first = player * pawnsPerPlayer;
+        int last = first + pawnsPerPlayer - 1;
+        // Replace the last match, like BaseBoardState does.
+        int index = last;
+        while ((index >= first) && (pawns[index] != from)) {
+            index--;
+        }
+        if (index < first) {
+            return;
+        }
+        // Restore ascending order by shifting the neighbours over.
+        while ((index > first) && (pawns[index - 1] > to)) {
+            pawns[index] = pawns[index - 1];
+            index--;
+        }
+        while ((index < last) && (pawns[index + 1] < to)) {
+            pawns[index] = pawns[index + 1];
+            index++;
+        }
+        pawns[index] = to;
+
+        if (!occupies(player, from)) {
+            vacate(player, from);
+        }
+        occupy(player, to);
+        layerCounts[player * LAYERS + from / boardSize]--;
+        layerCounts[player * LAYERS + to / boardSize]++;
+        for (int rotation = 0; rotation < zobristKeys.length; rotation++) {
+            zobristKeys[rotation] += zobristTable.key(rotation, player, to) - zobristTable.key(rotation, player, from);
+        }
+    }
+
+    /**
+     * @param rotation player index whose perspective to use.
+     * @return the Zobrist key summed over all pawns.
+     */
+    private long computeZobristKey(int rotation) {
+        long key = 0;
+        for (int index = 0; index < pawns.length; index++) {
+            if (pawns[index] >= 0) {
+                key += zobristTable.key(rotation, index / pawnsPerPlayer, pawns[index]);
+            }
+        }
+        return key;
+    }
+
+    @Override
+    public long getZobristKey() {
+        return zobristKeys[0];
+    }
+
+    @Override
+    public long getZobristKey(int playerIndex) {
+        if ((playerIndex < 0) || (playerIndex >= zobristKeys.length)) {
+            return computeZobristKey(playerIndex);
+        }
+        return zobristKeys[playerIndex];
+    }
+
+    private boolean occupies(int player, int ordinal) {
+        for (int index = player * pawnsPerPlayer; index < (player + 1) * pawnsPerPlayer; index++) {
+            if (pawns[index] == ordinal) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void occupy(int player, int ordinal) {
+        int layer = ordinal / boardSize;
+        long bit = 1L << (ordinal - layer * boardSize);
+        occupancy[player * LAYERS + layer] |= bit;
+        layerOccupancy[layer] |= bit;
+    }
+
+    private void vacate(int player, int ordinal) {
+        int layer = ordinal / boardSize;
+        long bit = 1L << (ordinal - layer * boardSize);
+        occupancy[player * LAYERS + layer] &= ~bit;
+        // Only one player can occupy a spot at a time.
+        layerOccupancy[layer] &= ~bit;
+    }
+
+    /**
+     * @return hash based on the Zobrist key, which is consistent with equals as
+     * equal states have their pawns on the same positions.
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(zobristKeys[0]);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if ((obj == null) || (getClass() != obj.getClass())) {
+            return false;
+        }
+        PackedBoardState other = (PackedBoardState) obj;
+        return boardSize == other.boardSize &&
+                dotsPerPlayer == other.dotsPerPlayer &&
+                pawnsPerPlayer == other.pawnsPerPlayer &&
+                Arrays.equals(pawns, other.pawns);
+    }
+
+    /**
+     * @return the same representation as {@link BaseBoardState#toString()}.
+     */
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder();
+        str.append("(").append(boardSize).append(")[");
+        for (int player = 0; player < playerCount; player++) {
+            str.append("P").append(player).append("={");
+            if (beginOrdinals[player] >= 0) {
+                for (int pawn = 0; pawn < pawnsPerPlayer; pawn++) {
+                    str.append(getPosition(player, pawn));
+                    if (pawn + 1 < pawnsPerPlayer) {
+                        str.append(",");
+                    }
+                }
+            }
+            str.append("}");
+            // Print semi-colon only between players
+            if (player + 1 < playerCount) {
+                str.append(";");
+            }
+        }
+        str.append("]");
+        return str.toString();
+    }
+
+    /**
+     * The state from the perspective of one player, who becomes player 0 and
+     * starts at spot 0. Same as {@link ShiftingBoardState}, but it translates
+     * ordinals through lookup tables and returns canonical positions.
+     */
+    private final class RotatedView implements BoardState {
+
+        private final int playerIndex;
+
+        /**
+         * Base ordinal for each rotated ordinal, and the other way around.
+         */
+        private final int[] toBase;
+        private final int[] fromBase;
+
+        /**
+         * Live view on the pawns of each rotated player.
+         */
+        private final List<List<Position>> positionLists;
+
+        private RotatedView(int playerIndex) {
+            this.playerIndex = playerIndex;
+            int shift = Math.floorMod(playerIndex * dotsPerPlayer, boardSize);
+            this.toBase = new int[geometry.size()];
+            this.fromBase = new int[geometry.size()];
+            for (int ordinal = 0; ordinal < geometry.size(); ordinal++) {
+                int layerStart = ordinal - geometry.spot(ordinal);
+                int baseOrdinal = layerStart + (geometry.spot(ordinal) + shift) % boardSize;
+                toBase[ordinal] = baseOrdinal;
+                fromBase[baseOrdinal] = ordinal;
+            }
+            List<List<Position>> lists = new ArrayList<>(playerCount);
+            for (int rotatedPlayer = 0; rotatedPlayer < playerCount; rotatedPlayer++) {
+                int player = basePlayer(rotatedPlayer);
+                lists.add((beginOrdinals[player] < 0) ? List.of() : new PositionList(player));
+            }
+            this.positionLists = List.copyOf(lists);
+        }
+
+        private int basePlayer(int rotatedPlayer) {
+            return Math.floorMod(rotatedPlayer + playerIndex, playerCount);
+        }
+
+        @Override
+        public int getBoardSize() {
+            return boardSize;
+        }
+
+        @Override
+        public int getPawnsPerPlayer() {
+            return pawnsPerPlayer;
+        }
+
+        @Override
+        public int getPlayerCount() {
+            return playerCount;
+        }
+
+        @Override
+        public Position getPosition(int rotatedPlayer, int pawn) {
+            if ((rotatedPlayer < 0) || (rotatedPlayer >= playerCount) || (pawn < 0) || (pawn >= pawnsPerPlayer)) {
+                return null;
+            }
+            return rotated(pawns[basePlayer(rotatedPlayer) * pawnsPerPlayer + pawn]);
+        }
+
+        /**
+         * @return an unmodifiable list that reflects later moves on the state.
+         */
+        @Override
+        public List<Position> getPositions(int rotatedPlayer) {
+            if ((rotatedPlayer < 0) || (rotatedPlayer >= playerCount)) {
+                // out of bound for player
+                return null;
+            }
+            return positionLists.get(rotatedPlayer);
+        }
+
+        @Override
+        public int getPlayer(Position position) {
+            if (position == null) {
+                return -1;
+            }
+            int ordinal = ordinalOf(position);
+            if (ordinal < 0) {
+                return -1;
+            }
+            int player = playerAt(toBase[ordinal]);
+            return (player == -1) ? -1 : Math.floorMod(player - playerIndex, playerCount);
+        }
+
+        @Override
+        public boolean isFinished(int rotatedPlayer) {
+            if ((rotatedPlayer < 0) || (rotatedPlayer >= playerCount)) {
+                return true;
+            }
+            return PackedBoardState.this.isFinished(basePlayer(rotatedPlayer));
+        }
+
+        @Override
+        public int getBeginCount(int rotatedPlayer) {
+            return layerCount(rotatedBase(rotatedPlayer), BEGIN);
+        }
+
+        @Override
+        public int getOnBoardCount(int rotatedPlayer) {
+            return layerCount(rotatedBase(rotatedPlayer), EVENT);
+        }
+
+        @Override
+        public int getHomeCount(int rotatedPlayer) {
+            return layerCount(rotatedBase(rotatedPlayer), HOME);
+        }
+
+        @Override
+        public long getZobristKey() {
+            return PackedBoardState.this.getZobristKey(playerIndex);
+        }
+
+        /**
+         * @return the base player, or -1 for a player that does not exist.
+         */
+        private int rotatedBase(int rotatedPlayer) {
+            return ((rotatedPlayer < 0) || (rotatedPlayer >= playerCount)) ? -1 : basePlayer(rotatedPlayer);
+        }
+
+        @Override
+        public BoardState shift(int playerIndex) {
+            return (playerIndex == 0) ? this : PackedBoardState.this.shift(Math.floorMod(this.playerIndex + playerIndex, playerCount));
+        }
+
+        private Position rotated(int baseOrdinal) {
+            return (baseOrdinal < 0) ? null : geometry.position(fromBase[baseOrdinal]);
+        }
+
+        private final class PositionList extends AbstractList<Position> {
+
+            private final int first;
+
+            private PositionList(int player) {
+                this.first = player * pawnsPerPlayer;
+            }
+
+            @Override
+            public Position get(int pawn) {
+                return rotated(pawns[first + Objects.checkIndex(pawn, pawnsPerPlayer)]);
+            }
+
+            @Override
+            public int size() {
+                return pawnsPerPlayer;
+            }
+        }
+    }
+
+}
@@ -26,7 +26,7 @@ import java.util.List;
  * A BoardState implementation that shifts the positions of the base board state.
  */
 public class ShiftingBoardState implements BoardState {
-    private final BaseBoardState baseBoardState;
+    private final MutableBoardState baseBoardState;
     private final  int playerIndex;
     private final int shift;
     private final int boardSize;
@@ -38,7 +38,7 @@ public class ShiftingBoardState implements BoardState {
      * @param baseBoardState the base board state to be shifted
      * @throws IllegalArgumentException if baseBoardState is null
      */
-    public ShiftingBoardState(BaseBoardState baseBoardState, int playerIndex) {
+    public ShiftingBoardState(MutableBoardState baseBoardState, int playerIndex) {
         if (baseBoardState == null) {
             throw new IllegalArgumentException("baseBoardState cannot be null");
         }
@@ -84,13 +84,47 @@ public class ShiftingBoardState implements BoardState {
     @Override
     public int getPlayer(Position shiftedPosition) {
         Position position = shiftedPosition.move(-shift).normalize(boardSize);
-        int player = baseBoardState.getPlayer(position);
-        return (player + playerIndex) % playerCount;
+        return shiftedPlayer(baseBoardState.getPlayer(position));
     }
 
     @Override
-    public boolean isFinished(int player) {
-        return baseBoardState.isFinished(player);
+    public boolean isFinished(int shiftedPlayer) {
+        // Players that do not exist are finished, as in the base state.
+        return baseBoardState.isFinished(basePlayer(shiftedPlayer));
+    }
+
+    @Override
+    public int getBeginCount(int shiftedPlayer) {
+        return baseBoardState.getBeginCount(basePlayer(shiftedPlayer));
+    }
+
+    @Override
+    public int getOnBoardCount(int shiftedPlayer) {
+        return baseBoardState.getOnBoardCount(basePlayer(shiftedPlayer));
+    }
+
+    @Override
+    public int getHomeCount(int shiftedPlayer) {
+        return baseBoardState.getHomeCount(basePlayer(shiftedPlayer));
+    }
+
+    @Override
+    public long getZobristKey() {
+        return baseBoardState.getZobristKey(playerIndex);
+    }
+
+    /**
+     * @return the player in the base state, or -1 for a player that does not exist.
+     */
+    private int basePlayer(int shiftedPlayer) {
+        return ((shiftedPlayer < 0) || (shiftedPlayer >= playerCount)) ? -1 : (shiftedPlayer + playerIndex) % playerCount;
+    }
+
+    /**
+     * @return the player as seen from this perspective, or -1 for nobody.
+     */
+    private int shiftedPlayer(int basePlayer) {
+        return (basePlayer == -1) ? -1 : Math.floorMod(basePlayer - playerIndex, playerCount);
     }
 
     @Override
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn.internal;
+
+/**
+ * Packs what {@link MutableBoardState#unmove(long)} needs to take a move back
+ * into a single {@code long}, so that making and unmaking moves during a search
+ * does not allocate.
+ * <p>
+ * Positions are stored as {@link com.rttnghs.mejn.BoardGeometry} ordinals. Bits
+ * 0-15 hold the from ordinal, 16-31 the to ordinal, 32-47 the begin ordinal of the
+ * struck player, 48-55 the moving player and 56-63 the struck player plus one, or
+ * zero when nobody was struck. Boards and players that do not fit are rejected by
+ * {@link #checkFits(int, int)}.
+ */
+public final class UndoToken {
+
+    /**
+     * Token for a move that did not change anything.
+     */
+    public static final long NONE = -1L;
+
+    private static final int ORDINAL_BITS = 16;
+    private static final int PLAYER_BITS = 8;
+    private static final long ORDINAL_MASK = (1L << ORDINAL_BITS) - 1;
+    private static final long PLAYER_MASK = (1L << PLAYER_BITS) - 1;
+
+    private static final int TO_SHIFT = ORDINAL_BITS;
+    private static final int STRUCK_BEGIN_SHIFT = 2 * ORDINAL_BITS;
+    private static final int PLAYER_SHIFT = 3 * ORDINAL_BITS;
+    private static final int STRUCK_PLAYER_SHIFT = PLAYER_SHIFT + PLAYER_BITS;
+
+    private UndoToken() {
+    }
+
+    /**
+     * @param ordinals    number of ordinals of the board, see {@link com.rttnghs.mejn.BoardGeometry#size()}
+     * @param playerCount number of players of the board
+     * @throws IllegalArgumentException when the moves on such a board do not fit in a token.
+     */
+    static void checkFits(int ordinals, int playerCount) {
+        if (ordinals > (1 << ORDINAL_BITS)) {
+            throw new IllegalArgumentException("Board has " + ordinals + " positions, at most " + (1 << ORDINAL_BITS)
+                    + " can be taken back");
+        }
+        // The struck player is stored plus one, and a moving player of 255 could make a token equal to NONE.
+        if (playerCount > PLAYER_MASK - 1) {
+            throw new IllegalArgumentException("Board has " + playerCount + " players, at most " + (PLAYER_MASK - 1)
+                    + " can be taken back");
+        }
+    }
+
+    /**
+     * @param player       who moved
+     * @param from         ordinal the pawn moved from
+     * @param to           ordinal the pawn moved to
+     * @param struckPlayer who was struck, or -1 for nobody
+     * @param struckBegin  ordinal the struck pawn was sent back to, ignored when nobody was struck
+     * @return the token
+     */
+    static long of(int player, int from, int to, int struckPlayer, int struckBegin) {
+        long token = (from & ORDINAL_MASK) | ((to & ORDINAL_MASK) << TO_SHIFT) | ((player & PLAYER_MASK) << PLAYER_SHIFT);
+        if (struckPlayer != -1) {
+            token |= ((struckBegin & ORDINAL_MASK) << STRUCK_BEGIN_SHIFT)
+                    | (((struckPlayer + 1) & PLAYER_MASK) << STRUCK_PLAYER_SHIFT);
+        }
+        return token;
+    }
+
+    static int player(long token) {
+        return (int) ((token >>> PLAYER_SHIFT) & PLAYER_MASK);
+    }
+
+    static int from(long token) {
+        return (int) (token & ORDINAL_MASK);
+    }
+
+    static int to(long token) {
+        return (int) ((token >>> TO_SHIFT) & ORDINAL_MASK);
+    }
+
+    /**
+     * @return the struck player, or -1 when nobody was struck.
+     */
+    static int struckPlayer(long token) {
+        return (int) ((token >>> STRUCK_PLAYER_SHIFT) & PLAYER_MASK) - 1;
+    }
+
+    static int struckBegin(long token) {
+        return (int) ((token >>> STRUCK_BEGIN_SHIFT) & ORDINAL_MASK);
+    }
+}
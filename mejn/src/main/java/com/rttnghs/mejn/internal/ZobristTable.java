@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn.internal;
+
+import com.rttnghs.mejn.BoardGeometry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Random 64-bit keys for each player and position, used to maintain a Zobrist
+ * key of a board state incrementally.
+ * <p>
+ * The key of a state is the sum of the keys of all its pawns. A sum rather than
+ * the usual exclusive or, because several pawns of a player can share a BEGIN
+ * position and must not cancel each other out. Moving a pawn subtracts the key
+ * of its old position and adds the key of the new one.
+ * <p>
+ * For every rotation there is a table with the keys of the positions as seen by
+ * that player, who becomes player 0 starting at spot 0. A state that keeps one key
+ * per rotation therefore has the key of each of its shifted perspectives at hand.
+ * The key of a rotated perspective equals the key of a state that has its pawns
+ * on those positions. Keys are the same from run to run.
+ */
+final class ZobristTable {
+
+    private record Key(int boardSize, int dotsPerPlayer, int playerCount) {
+    }
+
+    private static final Map<Key, ZobristTable> TABLES = new ConcurrentHashMap<>();
+
+    private static final long SEED = 0x6D65_6A6E_5A6F_6272L;
+
+    private final int boardSize;
+    private final int dotsPerPlayer;
+    private final int playerCount;
+    private final int ordinals;
+
+    /**
+     * Keys indexed by {@code (rotation * playerCount + player) * ordinals + ordinal}.
+     */
+    private final long[] keys;
+
+    /**
+     * @param boardSize     number of spots in the EVENT layer, supported by {@link BoardGeometry}
+     * @param dotsPerPlayer number of spots in the EVENT layer per player
+     * @param playerCount   number of players, at least one
+     * @return the shared table for this configuration
+     */
+    static ZobristTable of(int boardSize, int dotsPerPlayer, int playerCount) {
+        return TABLES.computeIfAbsent(new Key(boardSize, dotsPerPlayer, playerCount),
+                _ -> new ZobristTable(boardSize, dotsPerPlayer, playerCount));
+    }
+
+    private ZobristTable(int boardSize, int dotsPerPlayer, int playerCount) {
+        this.boardSize = boardSize;
+        this.dotsPerPlayer = dotsPerPlayer;
+        this.playerCount = playerCount;
+        this.ordinals = BoardGeometry.of(boardSize).size();
+        this.keys = new long[playerCount * playerCount * ordinals];
+        for (int rotation = 0; rotation < playerCount; rotation++) {
+            for (int player = 0; player < playerCount; player++) {
+                for (int ordinal = 0; ordinal < ordinals; ordinal++) {
+                    keys[(rotation * playerCount + player) * ordinals + ordinal] = compute(rotation, player, ordinal);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of rotations that have a table, which is the number of players.
+     */
+    int rotations() {
+        return playerCount;
+    }
+
+    /**
+     * @param rotation player index whose perspective to use, any value.
+     * @param player   index of the player in the unrotated state
+     * @param ordinal  ordinal of the position in the unrotated state
+     * @return the key of a pawn of the player on the position, seen from the rotation.
+     */
+    long key(int rotation, int player, int ordinal) {
+        if ((rotation < 0) || (rotation >= playerCount)) {
+            return compute(rotation, player, ordinal);
+        }
+        return keys[(rotation * playerCount + player) * ordinals + ordinal];
+    }
+
+    private long compute(int rotation, int player, int ordinal) {
+        int spot = ordinal % boardSize;
+        int rotatedSpot = Math.floorMod(spot - rotation * dotsPerPlayer, boardSize);
+        int rotatedPlayer = Math.floorMod(player - rotation, playerCount);
+        long index = (long) rotatedPlayer * ordinals + (ordinal - spot) + rotatedSpot;
+        return mix(SEED + index * 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * SplitMix64 finalizer, spreads consecutive inputs over all 64 bits.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
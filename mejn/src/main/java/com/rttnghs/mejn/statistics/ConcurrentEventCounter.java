@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn.statistics;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * Counts of events per actor that many threads add to at once, such as the
+ * workers playing the games of a tournament.
+ * <p>
+ * Each count is a {@link LongAdder}, so adding does not lock and threads adding
+ * the same event spread over cells of their own. Workers are expected to count
+ * their games in a {@link DenseEventCounter} of their own and publish it with
+ * {@link #add(DenseEventCounter)} every so many games.
+ * <p>
+ * A {@link #snapshot(IntFunction)} has all or nothing of each publish, so that it
+ * never shows a game with fewer finishes than players. Adding never waits for a
+ * snapshot; a snapshot taken while a publish is in progress reads again.
+ *
+ * @param <A> The type of actor generating the events. Type A must-have hashCode
+ *            and equals properly defined.
+ */
+public final class ConcurrentEventCounter<A extends Comparable<A>> {
+
+	private final int events;
+	private final Map<A, LongAdder[]> counts = new ConcurrentHashMap<>();
+	/**
+	 * Publishes started and finished. A snapshot is consistent when no publish
+	 * was in progress while it was read.
+	 */
+	private final LongAdder started = new LongAdder();
+	private final LongAdder finished = new LongAdder();
+
+	/**
+	 * @param events number of event ids, at least one.
+	 */
+	public ConcurrentEventCounter(int events) {
+		if (events < 1) {
+			throw new IllegalArgumentException("events must be >= 1");
+		}
+		this.events = events;
+	}
+
+	/**
+	 * @return the number of event ids.
+	 */
+	public int events() {
+		return events;
+	}
+
+	/**
+	 * Add how many times the event happened for the actor, as a publish of its own.
+	 *
+	 * @param actor actor had the event happen, not null
+	 * @param event id of the event that happened
+	 * @param count how many times the event happened
+	 */
+	public void add(A actor, int event, long count) {
+		Objects.checkIndex(event, events);
+		started.increment();
+		try {
+			cells(actor)[event].add(count);
+		} finally {
+			finished.increment();
+		}
+	}
+
+	/**
+	 * Adds all counts of the other counter at once.
+	 *
+	 * @param other counter with the same number of events to add to this one. If
+	 *              other is null, nothing is changed.
+	 */
+	public void add(DenseEventCounter<? extends A> other) {
+		if (other == null) {
+			return;
+		}
+		if (other.events() != events) {
+			throw new IllegalArgumentException("Cannot add " + other.events() + " events to " + events);
+		}
+		started.increment();
+		try {
+			int id = 0;
+			for (A actor : other.getActors()) {
+				LongAdder[] cells = null;
+				for (int event = 0; event < events; event++) {
+					long count = other.getCount(id, event);
+					if (count != 0) {
+						if (cells == null) {
+							cells = cells(actor);
+						}
+						cells[event].add(count);
+					}
+				}
+				id++;
+			}
+		} finally {
+			finished.increment();
+		}
+	}
+
+	/**
+	 * @param actor any actor
+	 * @param event id of the event
+	 * @return how many times the event happened for the actor so far, or 0 if it
+	 *         never happened.
+	 */
+	public long getCount(A actor, int event) {
+		Objects.checkIndex(event, events);
+		LongAdder[] cells = counts.get(actor);
+		return (cells == null) ? 0 : cells[event].sum();
+	}
+
+	/**
+	 * Reads the counts when no publish is in progress. Spins, and then yields, for
+	 * as long as publishes keep overlapping the read.
+	 *
+	 * @param <E>   type of events in the EventCounter.
+	 * @param event maps each event id to its event
+	 * @return a new EventCounter with the events that happened, from all or
+	 *         nothing of each publish.
+	 * @throws ArithmeticException when a count does not fit an int.
+	 */
+	public <E> EventCounter<A, E> snapshot(IntFunction<? extends E> event) {
+		for (int attempt = 0;; attempt++) {
+			long before = finished.sum();
+			EventCounter<A, E> snapshot = new EventCounter<>();
+			counts.forEach((actor, cells) -> {
+				for (int eventId = 0; eventId < events; eventId++) {
+					long count = cells[eventId].sum();
+					if (count != 0) {
+						snapshot.add(actor, event.apply(eventId), Math.toIntExact(count));
+					}
+				}
+			});
+			// Every publish started by now was finished before the read started.
+			if (started.sum() == before) {
+				return snapshot;
+			}
+			if (attempt < 16) {
+				Thread.onSpinWait();
+			} else {
+				Thread.yield();
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return snapshot(Integer::valueOf).toString();
+	}
+
+	private LongAdder[] cells(A actor) {
+		LongAdder[] cells = counts.get(Objects.requireNonNull(actor, "actor cannot be null"));
+		if (cells != null) {
+			return cells;
+		}
+		return counts.computeIfAbsent(actor, _ -> {
+			LongAdder[] newCells = new LongAdder[events];
+			for (int event = 0; event < events; event++) {
+				newCells[event] = new LongAdder();
+			}
+			return newCells;
+		});
+	}
+}
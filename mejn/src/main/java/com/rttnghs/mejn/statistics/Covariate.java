@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn.statistics;
+
+/**
+ * Luck of a player in a game that can be observed and that has a known
+ * expectation, so that it can be used as control variate of the score.
+ * Counted per strategy by ordinal in a {@link DenseEventCounter}, see
+ * {@link com.rttnghs.mejn.Game#collectCovariates(DenseEventCounter)}.
+ */
+public enum Covariate {
+	/**
+	 * Games played.
+	 */
+	GAMES,
+	/**
+	 * Games in which the player took the first turn. Expected once every
+	 * player count games, when all seats are taken.
+	 */
+	STARTS,
+	/**
+	 * Dice rolled by the player.
+	 */
+	ROLLS,
+	/**
+	 * Rolls of the highest face, which give another turn. Expected once every
+	 * die faces rolls.
+	 */
+	TOP_ROLLS,
+	/**
+	 * Sum of the dice rolled. Expected to be the average face times the rolls.
+	 */
+	PIPS
+}
@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn.statistics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * Counts of events per actor in one array, for counting in hot loops.
+ * <p>
+ * Actors are interned to ids 0, 1, ... in the order they are first seen, and
+ * events are ids from 0 up to a fixed number of events, such as finish positions
+ * or {@link Covariate} ordinals. Counting an event is an array increment, and
+ * adding counters with the same actors adds their arrays. Convert to an
+ * {@link EventCounter} to look up counts by event or to display them. Not thread
+ * safe.
+ *
+ * @param <A> The type of actor generating the events. Type A must-have hashCode
+ *            and equals properly defined.
+ */
+public final class DenseEventCounter<A extends Comparable<A>> {
+
+	private final int events;
+	private final List<A> actors = new ArrayList<>();
+	private final Map<A, Integer> actorIds = new HashMap<>();
+	/**
+	 * Counts indexed by {@code actorId * events + event}.
+	 */
+	private long[] counts;
+
+	/**
+	 * @param events number of event ids, at least one.
+	 */
+	public DenseEventCounter(int events) {
+		if (events < 1) {
+			throw new IllegalArgumentException("events must be >= 1");
+		}
+		this.events = events;
+		this.counts = new long[4 * events];
+	}
+
+	/**
+	 * @return the number of event ids.
+	 */
+	public int events() {
+		return events;
+	}
+
+	/**
+	 * @param actor to get the id of, not null
+	 * @return the id of the actor, which is added when it is new.
+	 */
+	public int actorId(A actor) {
+		Integer id = actorIds.get(Objects.requireNonNull(actor, "actor cannot be null"));
+		if (id != null) {
+			return id;
+		}
+		int newId = actors.size();
+		actors.add(actor);
+		actorIds.put(actor, newId);
+		if (counts.length < actors.size() * events) {
+			counts = Arrays.copyOf(counts, 2 * counts.length);
+		}
+		return newId;
+	}
+
+	/**
+	 * @param actors to get the ids of, not null
+	 * @return the id of each actor, in the same order.
+	 */
+	public int[] actorIds(List<? extends A> actors) {
+		int[] ids = new int[actors.size()];
+		for (int index = 0; index < ids.length; index++) {
+			ids[index] = actorId(actors.get(index));
+		}
+		return ids;
+	}
+
+	/**
+	 * @return an unmodifiable list of the actors, indexed by id.
+	 */
+	public List<A> getActors() {
+		return List.copyOf(actors);
+	}
+
+	/**
+	 * An actor has had one event happen.
+	 *
+	 * @param actorId id of the actor, from {@link #actorId(Comparable)}
+	 * @param event   id of the event that happened
+	 */
+	public void increment(int actorId, int event) {
+		counts[index(actorId, event)]++;
+	}
+
+	/**
+	 * @param actorId id of the actor, from {@link #actorId(Comparable)}
+	 * @param event   id of the event that happened
+	 * @param count   how many times the event happened
+	 */
+	public void add(int actorId, int event, long count) {
+		counts[index(actorId, event)] += count;
+	}
+
+	/**
+	 * @param actorId id of the actor, from {@link #actorId(Comparable)}
+	 * @param event   id of the event
+	 * @return how many times the event happened for the actor.
+	 */
+	public long getCount(int actorId, int event) {
+		return counts[index(actorId, event)];
+	}
+
+	/**
+	 * @param actor any actor
+	 * @param event id of the event
+	 * @return how many times the event happened for the actor, or 0 if it never happened.
+	 */
+	public long getCount(A actor, int event) {
+		Integer id = actorIds.get(actor);
+		return (id == null) ? 0 : counts[index(id, event)];
+	}
+
+	/**
+	 * Add the other counter to this one. When the actors of the other counter were
+	 * interned in the same order, which is so for counters of the same players,
+	 * their counts are added as arrays.
+	 *
+	 * @param other counter with the same number of events to add to this one. If
+	 *              other is null, nothing is changed.
+	 * @return reference to this class with the other one added.
+	 */
+	public DenseEventCounter<A> add(DenseEventCounter<? extends A> other) {
+		if (other == null) {
+			return this;
+		}
+		if (other.events != events) {
+			throw new IllegalArgumentException("Cannot add " + other.events + " events to " + events);
+		}
+		int shared = Math.min(actors.size(), other.actors.size());
+		if (actors.subList(0, shared).equals(other.actors.subList(0, shared))) {
+			for (int id = shared; id < other.actors.size(); id++) {
+				actorId(other.actors.get(id));
+			}
+			for (int index = 0; index < other.actors.size() * events; index++) {
+				counts[index] += other.counts[index];
+			}
+			return this;
+		}
+		for (int otherId = 0; otherId < other.actors.size(); otherId++) {
+			int id = actorId(other.actors.get(otherId));
+			for (int event = 0; event < events; event++) {
+				counts[id * events + event] += other.counts[otherId * events + event];
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Sets all counts to 0, keeping the actor ids.
+	 */
+	public void clear() {
+		Arrays.fill(counts, 0);
+	}
+
+	/**
+	 * @param <E>   type of events in the EventCounter.
+	 * @param event maps each event id to its event
+	 * @return a new EventCounter with the events that happened.
+	 * @throws ArithmeticException when a count does not fit an int.
+	 */
+	public <E> EventCounter<A, E> toEventCounter(IntFunction<? extends E> event) {
+		EventCounter<A, E> eventCounter = new EventCounter<>();
+		for (int id = 0; id < actors.size(); id++) {
+			for (int eventId = 0; eventId < events; eventId++) {
+				long count = counts[id * events + eventId];
+				if (count != 0) {
+					eventCounter.add(actors.get(id), event.apply(eventId), Math.toIntExact(count));
+				}
+			}
+		}
+		return eventCounter;
+	}
+
+	@Override
+	public String toString() {
+		return toEventCounter(Integer::valueOf).toString();
+	}
+
+	private int index(int actorId, int event) {
+		return Objects.checkIndex(actorId, actors.size()) * events + Objects.checkIndex(event, events);
+	}
+}
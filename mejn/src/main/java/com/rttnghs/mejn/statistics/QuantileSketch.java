@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn.statistics;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Mergeable sketch of a stream of non-negative values that estimates their
+ * quantiles within a relative accuracy, in memory that grows only with the
+ * logarithm of the range of the values.
+ * <p>
+ * Values are counted in buckets whose bounds grow by a factor
+ * {@code (1 + accuracy) / (1 - accuracy)}, as in DDSketch. A quantile is
+ * estimated as the middle of its bucket, which is within {@code accuracy} of the
+ * value of that rank, relative to it. Sketches with the same accuracy merge by
+ * adding their bucket counts, so that the merged sketch is the same as a sketch of
+ * all values. Not thread safe.
+ */
+public final class QuantileSketch implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Relative accuracy of the quantiles when not specified, 1 %.
+	 */
+	public static final double DEFAULT_ACCURACY = 0.01;
+
+	private final double accuracy;
+	private final double gamma;
+	private final double logGamma;
+	private long count;
+	private long zeroCount;
+	private double min = Double.NaN;
+	private double max = Double.NaN;
+	/**
+	 * Counts of the buckets from {@code offset} on. Bucket {@code i} holds the
+	 * values in {@code (gamma^(i-1), gamma^i]}.
+	 */
+	private long[] buckets = new long[0];
+	private int offset;
+
+	/**
+	 * Sketch with the {@link #DEFAULT_ACCURACY}.
+	 */
+	public QuantileSketch() {
+		this(DEFAULT_ACCURACY);
+	}
+
+	/**
+	 * @param accuracy relative accuracy of the quantiles, between 0 and 1 (exclusive).
+	 */
+	public QuantileSketch(double accuracy) {
+		if (!(accuracy > 0.0) || !(accuracy < 1.0)) {
+			throw new IllegalArgumentException("accuracy must be between 0 and 1");
+		}
+		this.accuracy = accuracy;
+		this.gamma = (1.0 + accuracy) / (1.0 - accuracy);
+		this.logGamma = Math.log(gamma);
+	}
+
+	/**
+	 * @param value to add, at least 0
+	 * @return reference to self for convenient chaining of calls.
+	 */
+	public QuantileSketch add(double value) {
+		if (!(value >= 0.0) || Double.isInfinite(value)) {
+			throw new IllegalArgumentException("value must be finite and >= 0, got: " + value);
+		}
+		if (value < Double.MIN_NORMAL) {
+			zeroCount++;
+		} else {
+			int index = (int) Math.ceil(Math.log(value) / logGamma);
+			grow(index, index);
+			buckets[index - offset]++;
+		}
+		count++;
+		min = (count == 1) ? value : Math.min(min, value);
+		max = (count == 1) ? value : Math.max(max, value);
+		return this;
+	}
+
+	/**
+	 * Add the values of the other sketch to this one.
+	 *
+	 * @param other sketch with the same accuracy to merge into this one. If other
+	 *              is null, nothing is changed.
+	 * @return reference to self for convenient chaining of calls.
+	 */
+	public QuantileSketch merge(QuantileSketch other) {
+		if ((other == null) || (other.count == 0)) {
+			return this;
+		}
+		if (other.accuracy != accuracy) {
+			throw new IllegalArgumentException("Cannot merge accuracy " + other.accuracy + " into " + accuracy);
+		}
+		if (other.buckets.length > 0) {
+			grow(other.offset, other.offset + other.buckets.length - 1);
+			for (int index = 0; index < other.buckets.length; index++) {
+				buckets[other.offset + index - offset] += other.buckets[index];
+			}
+		}
+		min = (count == 0) ? other.min : Math.min(min, other.min);
+		max = (count == 0) ? other.max : Math.max(max, other.max);
+		zeroCount += other.zeroCount;
+		count += other.count;
+		return this;
+	}
+
+	/**
+	 * @return a copy of this sketch.
+	 */
+	public QuantileSketch copy() {
+		return new QuantileSketch(accuracy).merge(this);
+	}
+
+	/**
+	 * @return the relative accuracy of the quantiles.
+	 */
+	public double accuracy() {
+		return accuracy;
+	}
+
+	/**
+	 * @return the number of values added.
+	 */
+	public long count() {
+		return count;
+	}
+
+	/**
+	 * @param quantile between 0 and 1, 0.5 for the median
+	 * @return an estimate of the value of that rank among the values added, within
+	 *         the accuracy and between the smallest and largest value, which are
+	 *         exact. 0 when there are no values.
+	 */
+	public double quantile(double quantile) {
+		if (!(quantile >= 0.0) || !(quantile <= 1.0)) {
+			throw new IllegalArgumentException("quantile must be between 0 and 1");
+		}
+		if (count == 0) {
+			return 0.0;
+		}
+		long rank = (long) Math.floor(quantile * (count - 1));
+		if (rank < zeroCount) {
+			return min;
+		}
+		if (rank == count - 1) {
+			return max;
+		}
+		long seen = zeroCount;
+		int index = 0;
+		while (seen + buckets[index] <= rank) {
+			seen += buckets[index];
+			index++;
+		}
+		double estimate = 2.0 * Math.pow(gamma, offset + index) / (gamma + 1.0);
+		return Math.clamp(estimate, min, max);
+	}
+
+	@Override
+	public String toString() {
+		return "QuantileSketch[count=" + count + ", accuracy=" + accuracy + ", median=" + quantile(0.5) + "]";
+	}
+
+	/**
+	 * Makes the buckets cover the indices from first to last.
+	 */
+	private void grow(int first, int last) {
+		if (buckets.length == 0) {
+			buckets = new long[last - first + 1];
+			offset = first;
+			return;
+		}
+		int newOffset = Math.min(offset, first);
+		int newEnd = Math.max(offset + buckets.length, last + 1);
+		if ((newOffset != offset) || (newEnd != offset + buckets.length)) {
+			long[] grown = new long[newEnd - newOffset];
+			System.arraycopy(buckets, 0, grown, offset - newOffset, buckets.length);
+			buckets = grown;
+			offset = newOffset;
+		}
+	}
+}
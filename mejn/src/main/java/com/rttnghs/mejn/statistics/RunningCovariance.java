@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn.statistics;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Means and co-moments of a stream of vectors, in constant memory, for
+ * regressions such as {@link TournamentStatistics.ControlVariateStats}.
+ * <p>
+ * The co-moment of two dimensions is the sum of the products of their
+ * differences from their means. Vectors are added with the multivariate form of
+ * Welford's update, and two summaries merge exactly as in {@link RunningStats}.
+ * Not thread safe.
+ */
+public final class RunningCovariance implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	private final int dimensions;
+	private long count;
+	private final double[] means;
+	/**
+	 * Co-moments indexed by {@code i * dimensions + j}.
+	 */
+	private final double[] comoments;
+
+	/**
+	 * @param dimensions length of the vectors, at least one.
+	 */
+	public RunningCovariance(int dimensions) {
+		if (dimensions < 1) {
+			throw new IllegalArgumentException("dimensions must be >= 1");
+		}
+		this.dimensions = dimensions;
+		this.means = new double[dimensions];
+		this.comoments = new double[dimensions * dimensions];
+	}
+
+	/**
+	 * @param values vector to add, of the length of the dimensions
+	 * @return reference to self for convenient chaining of calls.
+	 */
+	public RunningCovariance add(double... values) {
+		if (values.length != dimensions) {
+			throw new IllegalArgumentException("Expected " + dimensions + " values, got: " + values.length);
+		}
+		count++;
+		double[] before = new double[dimensions];
+		for (int i = 0; i < dimensions; i++) {
+			before[i] = values[i] - means[i];
+			means[i] += before[i] / count;
+		}
+		for (int i = 0; i < dimensions; i++) {
+			for (int j = 0; j < dimensions; j++) {
+				comoments[i * dimensions + j] += before[i] * (values[j] - means[j]);
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Add the vectors of the other summary to this one.
+	 *
+	 * @param other summary with the same dimensions to merge into this one. If
+	 *              other is null, nothing is changed.
+	 * @return reference to self for convenient chaining of calls.
+	 */
+	public RunningCovariance merge(RunningCovariance other) {
+		if ((other == null) || (other.count == 0)) {
+			return this;
+		}
+		if (other.dimensions != dimensions) {
+			throw new IllegalArgumentException("Cannot merge " + other.dimensions + " dimensions into " + dimensions);
+		}
+		long total = count + other.count;
+		double weight = (double) count * other.count / total;
+		double[] delta = new double[dimensions];
+		for (int i = 0; i < dimensions; i++) {
+			delta[i] = other.means[i] - means[i];
+		}
+		for (int i = 0; i < dimensions; i++) {
+			for (int j = 0; j < dimensions; j++) {
+				comoments[i * dimensions + j] += other.comoments[i * dimensions + j] + delta[i] * delta[j] * weight;
+			}
+			means[i] += delta[i] * other.count / total;
+		}
+		count = total;
+		return this;
+	}
+
+	/**
+	 * @return a copy of this summary.
+	 */
+	public RunningCovariance copy() {
+		return new RunningCovariance(dimensions).merge(this);
+	}
+
+	/**
+	 * @return the length of the vectors.
+	 */
+	public int dimensions() {
+		return dimensions;
+	}
+
+	/**
+	 * @return the number of vectors added.
+	 */
+	public long count() {
+		return count;
+	}
+
+	/**
+	 * @param i dimension
+	 * @return the mean of the dimension, or 0 when there are no vectors.
+	 */
+	public double mean(int i) {
+		return means[i];
+	}
+
+	/**
+	 * @param i dimension
+	 * @param j dimension
+	 * @return the sum of the products of the differences of the two dimensions from their means.
+	 */
+	public double comoment(int i, int j) {
+		return comoments[i * dimensions + j];
+	}
+
+	@Override
+	public String toString() {
+		return "RunningCovariance[count=" + count + ", means=" + Arrays.toString(means) + "]";
+	}
+}
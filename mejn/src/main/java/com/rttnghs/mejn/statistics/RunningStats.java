@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn.statistics;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Count, mean, variance, minimum and maximum of a stream of values, in constant
+ * memory.
+ * <p>
+ * Values are added with Welford's update, and two summaries merge exactly with
+ * the update of Chan et al., so that summaries of parts of a run made on other
+ * threads or in other processes add up to the summary of the whole run. Not
+ * thread safe.
+ */
+public final class RunningStats implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	private long count;
+	private double mean;
+	/**
+	 * Sum of squared differences from the mean.
+	 */
+	private double m2;
+	private double min = Double.NaN;
+	private double max = Double.NaN;
+
+	/**
+	 * @param value to add
+	 * @return reference to self for convenient chaining of calls.
+	 */
+	public RunningStats add(double value) {
+		count++;
+		double delta = value - mean;
+		mean += delta / count;
+		m2 += delta * (value - mean);
+		min = (count == 1) ? value : Math.min(min, value);
+		max = (count == 1) ? value : Math.max(max, value);
+		return this;
+	}
+
+	/**
+	 * Add the values of the other summary to this one.
+	 *
+	 * @param other summary to merge into this one. If other is null, nothing is changed.
+	 * @return reference to self for convenient chaining of calls.
+	 */
+	public RunningStats merge(RunningStats other) {
+		if ((other == null) || (other.count == 0)) {
+			return this;
+		}
+		if (count == 0) {
+			count = other.count;
+			mean = other.mean;
+			m2 = other.m2;
+			min = other.min;
+			max = other.max;
+			return this;
+		}
+		long total = count + other.count;
+		double delta = other.mean - mean;
+		mean += delta * other.count / total;
+		m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+		count = total;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+		return this;
+	}
+
+	/**
+	 * @return a copy of this summary.
+	 */
+	public RunningStats copy() {
+		return new RunningStats().merge(this);
+	}
+
+	/**
+	 * @return the number of values added.
+	 */
+	public long count() {
+		return count;
+	}
+
+	/**
+	 * @return the mean of the values, or 0 when there are none.
+	 */
+	public double mean() {
+		return mean;
+	}
+
+	/**
+	 * @return the sample variance of the values, or 0 when there are fewer than two.
+	 */
+	public double variance() {
+		return (count < 2) ? 0.0 : m2 / (count - 1);
+	}
+
+	/**
+	 * @return the sample standard deviation of the values, or 0 when there are fewer than two.
+	 */
+	public double stddev() {
+		return Math.sqrt(variance());
+	}
+
+	/**
+	 * @return the smallest value, or NaN when there are none.
+	 */
+	public double min() {
+		return min;
+	}
+
+	/**
+	 * @return the largest value, or NaN when there are none.
+	 */
+	public double max() {
+		return max;
+	}
+
+	@Override
+	public String toString() {
+		return "RunningStats[count=" + count + ", mean=" + mean + ", stddev=" + stddev() + ", min=" + min + ", max=" + max + "]";
+	}
+}
@@ -18,6 +18,7 @@ package com.rttnghs.mejn.statistics;
 
 import com.rttnghs.mejn.Tournament;
 import com.rttnghs.mejn.configuration.Config;
+import com.rttnghs.mejn.configuration.GameSpec;
 import com.rttnghs.mejn.strategy.BaseStrategyFactory;
 import com.rttnghs.mejn.strategy.StrategyFactory;
 import org.apache.logging.log4j.LogManager;
@@ -28,6 +29,8 @@ import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Function;
 
 /**
@@ -41,6 +44,15 @@ import java.util.function.Function;
  * provides enough samples to compute mean, standard deviation, and 95 %
  * confidence intervals, and to estimate how many additional rounds are needed
  * to reach a desired accuracy.
+ *
+ * <p>Rounds do not wait for each other: the brackets of later rounds are
+ * already playing on a pool of its own while the results of earlier ones are
+ * collected, so no worker idles on the slowest bracket of a round. Results are
+ * still taken in round order, which keeps them the same for the same seed.
+ *
+ * <p>Rounds are summarized as they are recorded in a {@link TournamentSummary},
+ * which takes the same memory for a million rounds as for ten, and which merges
+ * with the summaries of runs elsewhere.
  */
 public class TournamentStatistics {
 
@@ -59,6 +71,30 @@ public class TournamentStatistics {
      * Number of players per game — assumed the same across all brackets.
      */
     private final int playerCount;
+    /**
+     * Master seed the games of all rounds and brackets derive their streams from.
+     */
+    private final long seed;
+    /**
+     * Whether all brackets of a round replay the same dice.
+     */
+    private final boolean commonRandomNumbers;
+    /**
+     * Whether to collect the {@link Covariate}s of the games and adjust the scores for them.
+     */
+    private final boolean controlVariates;
+    /**
+     * When to stop before all rounds are run.
+     */
+    private final StoppingRule stoppingRule;
+    /**
+     * Number of worker threads of the pool that plays the games.
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    /**
+     * Whether to keep the score of every round, which takes memory per round.
+     */
+    private boolean retainRoundScores = false;
 
     /**
      * @param strategyFactory factory that resolves strategy names to {@link com.rttnghs.mejn.strategy.Strategy} instances
@@ -67,8 +103,34 @@ public class TournamentStatistics {
      * @param rounds          number of rounds to run; must be ≥ 2 (fewer rounds produce no meaningful stddev)
      */
     public TournamentStatistics(StrategyFactory strategyFactory, List<List<String>> brackets, int gamesPerRound, int rounds) {
+        this(strategyFactory, brackets, gamesPerRound, rounds, ThreadLocalRandom.current().nextLong(), false, false);
+    }
+
+    /**
+     * Runs all rounds, see {@link #TournamentStatistics(StrategyFactory, List, int, int, long, boolean, boolean, StoppingRule)}.
+     */
+    public TournamentStatistics(StrategyFactory strategyFactory, List<List<String>> brackets, int gamesPerRound, int rounds, long seed,
+                                boolean commonRandomNumbers, boolean controlVariates) {
+        this(strategyFactory, brackets, gamesPerRound, rounds, seed, commonRandomNumbers, controlVariates, StoppingRule.NEVER);
+    }
+
+    /**
+     * @param strategyFactory factory that resolves strategy names to {@link com.rttnghs.mejn.strategy.Strategy} instances
+     * @param brackets        list of bracket strategy-name lists, as returned by {@link Tournament#getStrategyNameBrackets}
+     * @param gamesPerRound   number of games each bracket plays per round; must be ≥ 1
+     * @param rounds          maximum number of rounds to run; must be ≥ 2 (fewer rounds produce no meaningful stddev)
+     * @param seed            master seed; runs with the same seed and arguments have the same results
+     * @param commonRandomNumbers whether all brackets of a round replay the same dice, see
+     *                        {@link Tournament#bracketSeed(long, int, int, boolean)}
+     * @param controlVariates whether to collect the {@link Covariate}s of the games and report
+     *                        scores adjusted for them, see {@link ControlVariateStats}
+     * @param stoppingRule    checked after each round, stops before {@code rounds} when met
+     */
+    public TournamentStatistics(StrategyFactory strategyFactory, List<List<String>> brackets, int gamesPerRound, int rounds, long seed,
+                                boolean commonRandomNumbers, boolean controlVariates, StoppingRule stoppingRule) {
         Objects.requireNonNull(strategyFactory, "strategyFactory cannot be null");
         Objects.requireNonNull(brackets, "brackets cannot be null");
+        Objects.requireNonNull(stoppingRule, "stoppingRule cannot be null");
         if (brackets.isEmpty()) {
             throw new IllegalArgumentException("brackets must not be empty");
         }
@@ -84,14 +146,48 @@ public class TournamentStatistics {
         this.rounds = rounds;
         // Assume all brackets have the same number of players (matches Tournament.main).
         this.playerCount = brackets.getFirst().size();
+        this.seed = seed;
+        this.commonRandomNumbers = commonRandomNumbers;
+        this.controlVariates = controlVariates;
+        this.stoppingRule = stoppingRule;
     }
 
     /**
-     * Execute all rounds.  Each round runs all brackets in parallel (via
-     * {@link CompletableFuture#supplyAsync}) and records the resulting
-     * per-strategy normalized score and place counts.
+     * @param parallelism number of threads to play games on; must be ≥ 1.
+     *                    Defaults to the number of available processors.
+     * @return reference to self for convenient chaining of calls.
+     */
+    public TournamentStatistics parallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be >= 1");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * @param retainRoundScores whether the result has the score of every round in
+     *                          {@link Result#scoresByStrategy()}. Without them, the
+     *                          memory of a run does not grow with its rounds.
+     *                          Defaults to false, as the scores take memory per
+     *                          round.
+     * @return reference to self for convenient chaining of calls.
+     */
+    public TournamentStatistics retainRoundScores(boolean retainRoundScores) {
+        this.retainRoundScores = retainRoundScores;
+        return this;
+    }
+
+    /**
+     * Execute all rounds, or fewer when the {@link StoppingRule} is met first.
+     * Every bracket of every round is a unit of work on a dedicated pool (via
+     * {@link CompletableFuture#supplyAsync}), submitted ahead of the round being
+     * recorded. Each round then records the resulting per-strategy normalized
+     * score and place counts. Only a few rounds are submitted ahead, enough to
+     * keep the pool busy, so that the pending work does not grow with the number
+     * of rounds and little is played in vain when the run stops.
      *
-     * @return aggregated {@link Result} containing per-strategy statistics and the raw per-round scores
+     * @return aggregated {@link Result} containing per-strategy statistics, and the raw per-round scores when retained
      * @throws InterruptedException if any bracket future is interrupted
      * @throws ExecutionException   if any bracket future throws
      */
@@ -100,50 +196,182 @@ public class TournamentStatistics {
 
         Function<Integer, Integer> scorer = finishPosition -> Score.get(finishPosition, playerCount);
 
-        // per-strategy lists, one element per round
+        // Everything but the raw per-round scores, when retained, takes constant memory, whatever the number of rounds.
+        TournamentSummary summary = new TournamentSummary();
         Map<String, List<Double>> scoresByStrategy = new TreeMap<>();
-        Map<String, List<Integer>> firstsByStrategy = new TreeMap<>();
-        Map<String, List<Integer>> secondsByStrategy = new TreeMap<>();
-        Map<String, List<Integer>> thirdsByStrategy = new TreeMap<>();
-        Map<String, List<Integer>> fourthsByStrategy = new TreeMap<>();
-
-        for (int round = 0; round < rounds; round++) {
-            EventCounter<String, Integer> roundFinishCounts = new EventCounter<>();
-
-            // Run all brackets concurrently (same pattern as Tournament.main).
-            List<CompletableFuture<EventCounter<String, Integer>>> futures = new ArrayList<>(brackets.size());
-            for (List<String> bracket : brackets) {
-                Tournament tournament = new Tournament(strategyFactory, bracket, gamesPerRound);
-                futures.add(CompletableFuture.supplyAsync(tournament::play));
-            }
-            for (CompletableFuture<EventCounter<String, Integer>> future : futures) {
-                roundFinishCounts.add(future.get());
+        // Finish counts per bracket of the first and the latest rounds, to decouple the brackets of common random number rounds.
+        List<List<EventCounter<String, Integer>>> firstBracketCounts = new ArrayList<>();
+        Deque<List<EventCounter<String, Integer>>> latestBracketCounts = new ArrayDeque<>();
+
+        // Rounds submitted ahead of the one being recorded, enough to keep every thread busy.
+        int lookahead = Math.max(2, 2 * parallelism / brackets.size() + 1);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        Deque<RoundWork> work = new ArrayDeque<>(lookahead + 1);
+        int roundsSubmitted = 0;
+        int roundsRun = 0;
+        try {
+            while (roundsRun < rounds) {
+                int round = roundsRun;
+                while ((roundsSubmitted < rounds) && (roundsSubmitted <= round + lookahead)) {
+                    work.addLast(submit(roundsSubmitted++, pool));
+                }
+                RoundWork roundWork = work.getFirst();
+                EventCounter<String, Integer> roundFinishCounts = new EventCounter<>();
+
+                List<EventCounter<String, Integer>> roundBracketCounts = new ArrayList<>(brackets.size());
+                for (CompletableFuture<EventCounter<String, Integer>> future : roundWork.futures()) {
+                    roundBracketCounts.add(future.get());
+                    roundFinishCounts.add(roundBracketCounts.getLast());
+                }
+                // Let go of the round once recorded.
+                work.removeFirst();
+                Map<String, double[]> roundLuck = null;
+                if (controlVariates) {
+                    EventCounter<String, Covariate> roundCovariateCounts = new EventCounter<>();
+                    roundWork.tournaments().forEach(tournament -> roundCovariateCounts.add(tournament.getCovariateCounts()));
+                    roundLuck = new TreeMap<>();
+                    for (String strategy : roundCovariateCounts.getActors()) {
+                        roundLuck.put(strategy, luck(roundCovariateCounts, strategy));
+                    }
+                }
+
+                // Normalized score per strategy for this round (accuracy=100, matching Tournament.main).
+                Map<String, Integer> roundScores = EventCounter.getNormalizedScores(roundFinishCounts, scorer, 100);
+                summary.addRound(roundScores, roundFinishCounts, roundLuck);
+                if (retainRoundScores) {
+                    roundScores.forEach((strategy, score) -> scoresByStrategy.computeIfAbsent(strategy, _ -> new ArrayList<>()).add(score.doubleValue()));
+                }
+                if (commonRandomNumbers) {
+                    addIndependentRound(summary, scorer, round, roundBracketCounts, firstBracketCounts, latestBracketCounts);
+                }
+
+                roundsRun++;
+                if (roundsRun % 10 == 0) {
+                    logger.info("Completed round {}/{}", roundsRun, rounds);
+                }
+                if ((roundsRun < rounds) && stoppingRule.isMet(summary)) {
+                    logger.info("Stopping after round {}/{}: {}", roundsRun, rounds, stoppingRule);
+                    break;
+                }
             }
+        } finally {
+            // Rounds submitted ahead are not needed after a stop or failure.
+            work.stream().flatMap(roundWork -> roundWork.futures().stream())
+                    .forEach(future -> future.cancel(true));
+            pool.shutdownNow();
+        }
+        if (commonRandomNumbers) {
+            addWrappedIndependentRounds(summary, scorer, roundsRun, firstBracketCounts, latestBracketCounts);
+        }
 
-            // Normalized score per strategy for this round (accuracy=100, matching Tournament.main).
-            Map<String, Integer> roundScores = EventCounter.getNormalizedScores(roundFinishCounts, scorer, 100);
+        Duration elapsed = Duration.between(start, Instant.now());
+        return new Result(roundsRun, rounds, gamesPerRound, seed, commonRandomNumbers, Collections.unmodifiableMap(scoresByStrategy),
+                summary.strategyStats(), summary.pairedDifferences(), summary.controlVariateStats(), summary, elapsed);
+    }
 
-            for (String strategy : roundScores.keySet()) {
-                scoresByStrategy.computeIfAbsent(strategy, _ -> new ArrayList<>()).add(roundScores.get(strategy).doubleValue());
-                firstsByStrategy.computeIfAbsent(strategy, _ -> new ArrayList<>()).add(roundFinishCounts.getCount(strategy, 0));
-                secondsByStrategy.computeIfAbsent(strategy, _ -> new ArrayList<>()).add(roundFinishCounts.getCount(strategy, 1));
-                thirdsByStrategy.computeIfAbsent(strategy, _ -> new ArrayList<>()).add(roundFinishCounts.getCount(strategy, 2));
-                fourthsByStrategy.computeIfAbsent(strategy, _ -> new ArrayList<>()).add(roundFinishCounts.getCount(strategy, 3));
+    /**
+     * Recombines the brackets of common random number rounds into rounds with the
+     * dice of independent rounds: bracket {@code b} of recombined round {@code r}
+     * is that bracket of round {@code (r + b) % rounds}. Recombined round
+     * {@code r} is added once round {@code r + brackets - 1} is recorded, so only
+     * the latest rounds are kept, and the first ones for the rounds that wrap.
+     *
+     * @param round              index of the round just recorded
+     * @param roundBracketCounts finish counts of the brackets of the round
+     * @param firstBracketCounts finish counts of the brackets of the first rounds, which the last rounds wrap around to
+     * @param latestBracketCounts finish counts of the brackets of the latest rounds
+     */
+    private void addIndependentRound(TournamentSummary summary, Function<Integer, Integer> scorer, int round,
+                                     List<EventCounter<String, Integer>> roundBracketCounts,
+                                     List<List<EventCounter<String, Integer>>> firstBracketCounts,
+                                     Deque<List<EventCounter<String, Integer>>> latestBracketCounts) {
+        if (round < brackets.size() - 1) {
+            firstBracketCounts.add(roundBracketCounts);
+        }
+        latestBracketCounts.addLast(roundBracketCounts);
+        if (latestBracketCounts.size() > brackets.size()) {
+            latestBracketCounts.removeFirst();
+        }
+        if (latestBracketCounts.size() == brackets.size()) {
+            EventCounter<String, Integer> roundFinishCounts = new EventCounter<>();
+            int bracket = 0;
+            for (List<EventCounter<String, Integer>> bracketCounts : latestBracketCounts) {
+                roundFinishCounts.add(bracketCounts.get(bracket++));
             }
+            summary.addIndependentRound(EventCounter.getNormalizedScores(roundFinishCounts, scorer, 100));
+        }
+    }
 
-            if ((round + 1) % 10 == 0) {
-                logger.info("Completed round {}/{}", round + 1, rounds);
+    /**
+     * Adds the recombined rounds that wrap around to the first rounds, once the
+     * number of rounds is known. None when there are fewer rounds than brackets.
+     */
+    private void addWrappedIndependentRounds(TournamentSummary summary, Function<Integer, Integer> scorer, int roundsRun,
+                                             List<List<EventCounter<String, Integer>>> firstBracketCounts,
+                                             Deque<List<EventCounter<String, Integer>>> latestBracketCounts) {
+        if (roundsRun < brackets.size()) {
+            return;
+        }
+        List<List<EventCounter<String, Integer>>> latest = new ArrayList<>(latestBracketCounts);
+        int firstLatest = roundsRun - latest.size();
+        for (int round = roundsRun - brackets.size() + 1; round < roundsRun; round++) {
+            EventCounter<String, Integer> roundFinishCounts = new EventCounter<>();
+            for (int bracket = 0; bracket < brackets.size(); bracket++) {
+                int bracketRound = round + bracket;
+                roundFinishCounts.add((bracketRound < roundsRun) ? latest.get(bracketRound - firstLatest).get(bracket)
+                        : firstBracketCounts.get(bracketRound - roundsRun).get(bracket));
             }
+            summary.addIndependentRound(EventCounter.getNormalizedScores(roundFinishCounts, scorer, 100));
         }
+    }
 
-        // Build summary statistics per strategy.
-        Map<String, StrategyStats> stats = new TreeMap<>();
-        for (String strategy : scoresByStrategy.keySet()) {
-            stats.put(strategy, StrategyStats.compute(strategy, scoresByStrategy.get(strategy), firstsByStrategy.getOrDefault(strategy, List.of()), secondsByStrategy.getOrDefault(strategy, List.of()), thirdsByStrategy.getOrDefault(strategy, List.of()), fourthsByStrategy.getOrDefault(strategy, List.of())));
+    /**
+     * Submits all brackets of a round to the pool.
+     *
+     * @param round index of the round
+     * @param pool  to play the games on
+     * @return the tournaments of the brackets and their finish counts to come
+     */
+    private RoundWork submit(int round, ForkJoinPool pool) {
+        List<CompletableFuture<EventCounter<String, Integer>>> futures = new ArrayList<>(brackets.size());
+        List<Tournament> tournaments = new ArrayList<>(brackets.size());
+        for (int bracket = 0; bracket < brackets.size(); bracket++) {
+            Tournament tournament = new Tournament(strategyFactory, brackets.get(bracket), gamesPerRound,
+                    GameSpec.DEFAULT, Tournament.bracketSeed(seed, bracket, round, commonRandomNumbers));
+            if (controlVariates) {
+                tournament.collectCovariates();
+            }
+            tournaments.add(tournament);
+            futures.add(CompletableFuture.supplyAsync(tournament::play, pool));
         }
+        return new RoundWork(tournaments, futures);
+    }
 
-        Duration elapsed = Duration.between(start, Instant.now());
-        return new Result(rounds, gamesPerRound, Collections.unmodifiableMap(scoresByStrategy), stats, elapsed);
+    /**
+     * Brackets of a round in play.
+     *
+     * @param tournaments one per bracket
+     * @param futures     finish counts of the tournaments, in the same order
+     */
+    private record RoundWork(List<Tournament> tournaments, List<CompletableFuture<EventCounter<String, Integer>>> futures) {
+    }
+
+    /**
+     * @param covariateCounts covariates of the games of a round
+     * @param strategy        to get the luck of
+     * @return the luck of the strategy in the round, each with an expectation of 0:
+     *         highest faces rolled more than expected from the number of rolls,
+     *         games started more than expected from the number of games, and pips
+     *         rolled more than expected from the number of rolls.
+     */
+    private double[] luck(EventCounter<String, Covariate> covariateCounts, String strategy) {
+        double topRolls = covariateCounts.getCount(strategy, Covariate.TOP_ROLLS)
+                - covariateCounts.getCount(strategy, Covariate.ROLLS) / (double) GameSpec.DEFAULT.dieFaces();
+        double starts = covariateCounts.getCount(strategy, Covariate.STARTS)
+                - covariateCounts.getCount(strategy, Covariate.GAMES) / (double) playerCount;
+        double pips = covariateCounts.getCount(strategy, Covariate.PIPS)
+                - covariateCounts.getCount(strategy, Covariate.ROLLS) * (GameSpec.DEFAULT.dieFaces() + 1) / 2.0;
+        return new double[] { topRolls, starts, pips };
     }
 
     // ── Records ────────────────────────────────────────────────────────────────
@@ -152,30 +380,119 @@ public class TournamentStatistics {
      * Aggregated results across all rounds.
      *
      * @param rounds           number of rounds that were run
+     * @param maxRounds        number of rounds that would have been run without stopping early
      * @param gamesPerRound    games per round
-     * @param scoresByStrategy raw per-round normalized scores per strategy
+     * @param seed             master seed, to reproduce the run
+     * @param commonRandomNumbers whether all brackets of a round replayed the same dice
+     * @param scoresByStrategy raw per-round normalized scores per strategy, empty when not retained
      * @param strategyStats    computed summary statistics per strategy
+     * @param pairedDifferences per-round score differences of every two strategies
+     * @param controlVariateStats scores adjusted for observed luck per strategy, empty when not collected
+     * @param summary          the rounds summarized, to merge with the summaries of other runs
      * @param elapsed          wall-clock time for the entire run
      */
-    public record Result(int rounds, int gamesPerRound, Map<String, List<Double>> scoresByStrategy,
-                         Map<String, StrategyStats> strategyStats, Duration elapsed) {
+    public record Result(int rounds, int maxRounds, int gamesPerRound, long seed, boolean commonRandomNumbers,
+                         Map<String, List<Double>> scoresByStrategy, Map<String, StrategyStats> strategyStats,
+                         List<PairedDifference> pairedDifferences, Map<String, ControlVariateStats> controlVariateStats,
+                         TournamentSummary summary, Duration elapsed) {
         /**
          * Formatted summary table, one line per strategy, sorted by mean score descending.
          */
         public String toSummary() {
             StringBuilder sb = new StringBuilder();
             sb.append(String.format("%nTournamentStatistics: %d rounds × %,d games/round  (total games: %,d)%n", rounds, gamesPerRound, (long) rounds * gamesPerRound));
+            if (rounds < maxRounds) {
+                sb.append(String.format("Stopped early, %d of %d rounds not needed%n", maxRounds - rounds, maxRounds));
+            }
             sb.append(String.format("%-24s %7s %7s %7s %7s %7s %7s %7s  %7s  %8s%n", "Strategy", "mean", "stddev", "stderr", "±95%CI", "min", "max", "median", "CoV%", "n@10%rMOE"));
             sb.repeat("-", 105).append(System.lineSeparator());
             strategyStats.values().stream().sorted(Comparator.comparingDouble(StrategyStats::mean).reversed()).forEach(ss -> sb.append(String.format("%-24s %7.2f %7.2f %7.2f %7.2f %7.2f %7.2f %7.2f  %6.1f%%  %8d%n", ss.strategy(), ss.mean(), ss.stddev(), ss.stderr(), ss.moe95(), ss.min(), ss.max(), ss.median(), ss.coefficientOfVariation() * 100.0, ss.roundsRequiredFor10PctRelativeMoe())));
             sb.repeat("-", 105).append(System.lineSeparator());
             sb.append(String.format("%-24s %7s %7s %7s %7s%n", "Strategy", "1st avg", "2nd avg", "3rd avg", "4th avg"));
             strategyStats.values().stream().sorted(Comparator.comparingDouble(StrategyStats::mean).reversed()).forEach(ss -> sb.append(String.format("%-24s %7.1f %7.1f %7.1f %7.1f%n", ss.strategy(), ss.meanFirstPlaces(), ss.meanSecondPlaces(), ss.meanThirdPlaces(), ss.meanFourthPlaces())));
-            sb.append(String.format("%nElapsed: %s%n", elapsed));
+            if (!pairedDifferences.isEmpty()) {
+                sb.repeat("-", 105).append(System.lineSeparator());
+                sb.append(String.format("%-49s %7s %7s %7s %7s  %7s%n", "Paired difference", "mean", "stddev", "±95%CI", "indep", "VarRed%"));
+                pairedDifferences.forEach(pd -> sb.append(String.format("%-49s %7.2f %7.2f %7.2f %7.2f  %6.1f%%%n", pd.first() + " - " + pd.second(), pd.mean(), pd.stddev(), pd.moe95(), pd.independentStddev(), pd.varianceReduction() * 100.0)));
+            }
+            if (!controlVariateStats.isEmpty()) {
+                sb.repeat("-", 105).append(System.lineSeparator());
+                sb.append(String.format("%-24s %7s %7s %7s %7s  %7s%n", "Control variates", "mean", "adj", "stderr", "±95%CI", "VarRed%"));
+                controlVariateStats.values().stream().sorted(Comparator.comparingDouble(ControlVariateStats::mean).reversed()).forEach(cv -> sb.append(String.format("%-24s %7.2f %7.2f %7.2f %7.2f  %6.1f%%%n", cv.strategy(), strategyStats.get(cv.strategy()).mean(), cv.mean(), cv.stderr(), cv.moe95(), cv.varianceReduction() * 100.0)));
+            }
+            sb.append(String.format("%nSeed: %d  common random numbers: %b%n", seed, commonRandomNumbers));
+            sb.append(String.format("Elapsed: %s%n", elapsed));
             return sb.toString();
         }
     }
 
+    /**
+     * When a run has enough rounds to stop before its maximum.
+     * <p>
+     * Checked after every round, once at least {@code minRounds} rounds are run. Met
+     * when every strategy has a 95 % margin of error of at most {@code targetMoe}, or,
+     * when {@code separateRanking} is set, when each strategy differs from the next in
+     * the ranking by more than the margin of error of their {@link PairedDifference}.
+     * Strategies that play alike are never separated, so such runs use all rounds.
+     * <p>
+     * Looking at the intervals after every round and stopping at the first that
+     * qualifies makes them narrower than they are. A larger {@code minRounds} keeps
+     * the stop from acting on the noisy estimates of the first rounds.
+     *
+     * @param minRounds       rounds to run before checking, at least 2
+     * @param targetMoe       margin of error on the score scale every strategy must reach, 0 to not check
+     * @param separateRanking whether to stop when the ranking of the strategies is clear
+     */
+    public record StoppingRule(int minRounds, double targetMoe, boolean separateRanking) {
+
+        /**
+         * Rule that is never met, so that all rounds are run.
+         */
+        public static final StoppingRule NEVER = new StoppingRule(2, 0.0, false);
+
+        public StoppingRule {
+            if (minRounds < 2) {
+                throw new IllegalArgumentException("minRounds must be >= 2");
+            }
+            if (!(targetMoe >= 0.0)) {
+                throw new IllegalArgumentException("targetMoe must be >= 0");
+            }
+        }
+
+        /**
+         * @param summary of the rounds so far
+         * @return whether the run can stop.
+         */
+        public boolean isMet(TournamentSummary summary) {
+            Set<String> strategies = summary.strategies();
+            if (strategies.isEmpty() || strategies.stream().anyMatch(strategy -> summary.scores(strategy).count() < minRounds)) {
+                return false;
+            }
+            if ((targetMoe > 0.0) && strategies.stream().allMatch(strategy -> moe95(summary.scores(strategy)) <= targetMoe)) {
+                return true;
+            }
+            return separateRanking && isRankingSeparated(summary);
+        }
+
+        private static double moe95(RunningStats scores) {
+            return Z_95 * scores.stddev() / Math.sqrt(scores.count());
+        }
+
+        private static boolean isRankingSeparated(TournamentSummary summary) {
+            List<String> ranking = summary.strategies().stream()
+                    .sorted(Comparator.comparingDouble((String strategy) -> summary.scores(strategy).mean()).reversed())
+                    .toList();
+            for (int place = 1; place < ranking.size(); place++) {
+                PairedDifference difference = summary.pairedDifference(ranking.get(place - 1), ranking.get(place));
+                if ((difference == null) || (summary.scores(ranking.get(place - 1)).count() != summary.scores(ranking.get(place)).count())
+                        || !(difference.mean() > difference.moe95())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
     /**
      * Summary statistics for a single strategy across all rounds.
      *
@@ -198,21 +515,29 @@ public class TournamentStatistics {
                                 double max, double median, double coefficientOfVariation,
                                 int roundsRequiredFor10PctRelativeMoe, double meanFirstPlaces, double meanSecondPlaces,
                                 double meanThirdPlaces, double meanFourthPlaces) {
-        static StrategyStats compute(String strategy, List<Double> scores, List<Integer> firsts, List<Integer> seconds, List<Integer> thirds, List<Integer> fourths) {
-
-            double mean = TournamentStatistics.mean(scores);
-            double stddev = TournamentStatistics.sampleStdDev(scores, mean);
-            double stderr = (scores.isEmpty()) ? 0.0 : stddev / Math.sqrt(scores.size());
-            double moe95 = Z_95 * stderr;
-            double min = scores.stream().mapToDouble(Double::doubleValue).min().orElse(0.0);
-            double max = scores.stream().mapToDouble(Double::doubleValue).max().orElse(0.0);
-            double medianScore = TournamentStatistics.median(scores);
+        /**
+         * The median is estimated within the accuracy of the sketch, and is a value
+         * of the lower middle rank when the number of rounds is even.
+         *
+         * @param scores    moments of the per-round scores
+         * @param quantiles sketch of the per-round scores
+         * @param places    moments of the per-round counts of each place, first place first
+         */
+        static StrategyStats of(String strategy, RunningStats scores, QuantileSketch quantiles, RunningStats[] places) {
+            long n = scores.count();
+            double mean = scores.mean();
+            double stddev = scores.stddev();
+            double stderr = (n == 0) ? 0.0 : stddev / Math.sqrt(n);
             // Coefficient of variation: how much does the score vary relative to the mean?
             double cov = (mean == 0.0) ? 0.0 : stddev / mean;
             // n_required = ceil((z * s / (0.10 * mean))^2) — relative 10 % of mean
-            int nRequired = (mean == 0.0 || stddev == 0.0) ? scores.size() : (int) Math.ceil(Math.pow(Z_95 * stddev / (0.10 * mean), 2));
-
-            return new StrategyStats(strategy, mean, stddev, stderr, moe95, min, max, medianScore, cov, nRequired, TournamentStatistics.mean(toDoubles(firsts)), TournamentStatistics.mean(toDoubles(seconds)), TournamentStatistics.mean(toDoubles(thirds)), TournamentStatistics.mean(toDoubles(fourths)));
+            int nRequired = (mean == 0.0 || stddev == 0.0) ? (int) n : (int) Math.ceil(Math.pow(Z_95 * stddev / (0.10 * mean), 2));
+            double[] meanPlaces = new double[4];
+            for (int place = 0; place < Math.min(meanPlaces.length, places.length); place++) {
+                meanPlaces[place] = places[place].mean();
+            }
+            return new StrategyStats(strategy, mean, stddev, stderr, Z_95 * stderr, (n == 0) ? 0.0 : scores.min(), (n == 0) ? 0.0 : scores.max(),
+                    quantiles.quantile(0.5), cov, nRequired, meanPlaces[0], meanPlaces[1], meanPlaces[2], meanPlaces[3]);
         }
 
         /**
@@ -243,39 +568,165 @@ public class TournamentStatistics {
         }
     }
 
-    // ── Pure-statistic helpers (package-private for testing) ──────────────────
-
-    static double mean(List<Double> values) {
-        if (values.isEmpty()) {
-            return 0.0;
+    /**
+     * Statistics of the per-round difference between the scores of two strategies.
+     * <p>
+     * With common random numbers, both strategies meet the same luck in every round,
+     * which should make their difference vary less than between rounds with
+     * independent dice. The brackets of the rounds are then recombined into rounds
+     * with independent dice, see {@link #run()}, to measure how much less: the
+     * variance reduction is the part of the independent variance removed, and as many
+     * fewer games are needed for the same confidence interval on the difference. It
+     * is negative when the common dice make the difference vary more.
+     *
+     * @param first             name of the first strategy
+     * @param second            name of the second strategy
+     * @param mean              mean of first minus second score across rounds
+     * @param stddev            sample standard deviation of the differences
+     * @param moe95             95 % margin of error of the mean difference
+     * @param independentStddev standard deviation of the differences with independent dice, NaN when not measured
+     * @param varianceReduction 1 - (stddev / independentStddev)², NaN when not measured
+     */
+    public record PairedDifference(String first, String second, double mean, double stddev, double moe95,
+                                   double independentStddev, double varianceReduction) {
+        /**
+         * @param differences            moments of first minus second score per round
+         * @param independentDifferences moments of the differences in recombined rounds, or null when not measured
+         */
+        static PairedDifference of(String first, String second, RunningStats differences, RunningStats independentDifferences) {
+            double mean = differences.mean();
+            double stddev = differences.stddev();
+            double moe95 = (differences.count() == 0) ? 0.0 : Z_95 * stddev / Math.sqrt(differences.count());
+            double independentStddev = Double.NaN;
+            double varianceReduction = Double.NaN;
+            if (independentDifferences != null) {
+                independentStddev = independentDifferences.stddev();
+                varianceReduction = (independentStddev == 0.0) ? 0.0 : 1.0 - (stddev * stddev) / (independentStddev * independentStddev);
+            }
+            return new PairedDifference(first, second, mean, stddev, moe95, independentStddev, varianceReduction);
         }
-        return values.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-    }
 
-    static double sampleStdDev(List<Double> values, double mean) {
-        if (values.size() < 2) {
-            return 0.0;
-        }
-        double sumSq = 0.0;
-        for (double v : values) {
-            double d = v - mean;
-            sumSq += d * d;
+        /**
+         * @return the difference of second minus first.
+         */
+        public PairedDifference reversed() {
+            return new PairedDifference(second, first, -mean, stddev, moe95, independentStddev, varianceReduction);
         }
-        return Math.sqrt(sumSq / (values.size() - 1));
     }
 
-    static double median(List<Double> values) {
-        if (values.isEmpty()) {
-            return 0.0;
+    /**
+     * Score of a strategy adjusted for the luck it had, with the {@link Covariate}s
+     * as control variates.
+     * <p>
+     * The per-round scores are regressed on the per-round luck, which has a known
+     * expectation of 0. The adjusted mean is the regression estimate of the score at
+     * average luck. The luck explains part of the variance of the scores, which the
+     * adjusted mean is rid of: as many fewer rounds are needed for the same
+     * confidence interval as the variance reduction. Fields are NaN when there are
+     * too few rounds, or when the luck does not vary independently.
+     *
+     * @param strategy          strategy name
+     * @param mean              adjusted mean score
+     * @param stderr            standard error of the adjusted mean
+     * @param moe95             95 % margin of error of the adjusted mean
+     * @param varianceReduction 1 - residual variance / variance of the scores
+     * @param coefficients      change of the score per unit of each kind of luck,
+     *                          highest faces rolled, games started and pips rolled
+     */
+    public record ControlVariateStats(String strategy, double mean, double stderr, double moe95, double varianceReduction,
+                                      List<Double> coefficients) {
+        /**
+         * @param luck co-moments of the per-round luck followed by the per-round score
+         */
+        static ControlVariateStats of(String strategy, RunningCovariance luck) {
+            long n = luck.count();
+            int k = luck.dimensions() - 1;
+            if (n <= k + 1) {
+                return new ControlVariateStats(strategy, Double.NaN, Double.NaN, Double.NaN, Double.NaN, List.of());
+            }
+            double meanScore = luck.mean(k);
+            double[] meanCovariates = new double[k];
+            // Centered sums of squares and products.
+            double[][] sxx = new double[k][k];
+            double[] sxy = new double[k];
+            double syy = luck.comoment(k, k);
+            for (int i = 0; i < k; i++) {
+                meanCovariates[i] = luck.mean(i);
+                sxy[i] = luck.comoment(i, k);
+                for (int j = 0; j < k; j++) {
+                    sxx[i][j] = luck.comoment(i, j);
+                }
+            }
+            double[] beta = solve(sxx, sxy);
+            double[] leverage = solve(sxx, meanCovariates);
+            if ((beta == null) || (leverage == null)) {
+                return new ControlVariateStats(strategy, Double.NaN, Double.NaN, Double.NaN, Double.NaN, List.of());
+            }
+            double mean = meanScore;
+            double explained = 0.0;
+            double c = 0.0;
+            List<Double> coefficients = new ArrayList<>(k);
+            for (int i = 0; i < k; i++) {
+                mean -= beta[i] * meanCovariates[i];
+                explained += beta[i] * sxy[i];
+                c += meanCovariates[i] * leverage[i];
+                coefficients.add(beta[i]);
+            }
+            double residualVariance = Math.max(0.0, syy - explained) / (n - 1 - k);
+            double stderr = Math.sqrt(residualVariance * (1.0 / n + c));
+            double variance = syy / (n - 1);
+            double varianceReduction = (variance == 0.0) ? 0.0 : 1.0 - residualVariance / variance;
+            return new ControlVariateStats(strategy, mean, stderr, Z_95 * stderr, varianceReduction, List.copyOf(coefficients));
         }
-        List<Double> sorted = new ArrayList<>(values);
-        Collections.sort(sorted);
-        int mid = sorted.size() / 2;
-        return ((sorted.size() & 1) == 0) ? (sorted.get(mid - 1) + sorted.get(mid)) / 2.0 : sorted.get(mid);
     }
 
-    private static List<Double> toDoubles(List<Integer> ints) {
-        return ints.stream().map(Integer::doubleValue).toList();
+    // ── Pure-statistic helpers (package-private for testing) ──────────────────
+
+    /**
+     * Solves {@code a x = b} by Gaussian elimination with partial pivoting.
+     *
+     * @return x, or null when {@code a} is singular.
+     */
+    static double[] solve(double[][] a, double[] b) {
+        int k = b.length;
+        double[][] m = new double[k][];
+        double[] x = b.clone();
+        double scale = 0.0;
+        for (int i = 0; i < k; i++) {
+            m[i] = a[i].clone();
+            scale = Math.max(scale, Math.abs(m[i][i]));
+        }
+        for (int column = 0; column < k; column++) {
+            int pivot = column;
+            for (int row = column + 1; row < k; row++) {
+                if (Math.abs(m[row][column]) > Math.abs(m[pivot][column])) {
+                    pivot = row;
+                }
+            }
+            if (Math.abs(m[pivot][column]) <= 1e-12 * scale) {
+                return null;
+            }
+            double[] swap = m[column];
+            m[column] = m[pivot];
+            m[pivot] = swap;
+            double value = x[column];
+            x[column] = x[pivot];
+            x[pivot] = value;
+            for (int row = column + 1; row < k; row++) {
+                double factor = m[row][column] / m[column][column];
+                for (int i = column; i < k; i++) {
+                    m[row][i] -= factor * m[column][i];
+                }
+                x[row] -= factor * x[column];
+            }
+        }
+        for (int row = k - 1; row >= 0; row--) {
+            for (int i = row + 1; i < k; i++) {
+                x[row] -= m[row][i] * x[i];
+            }
+            x[row] /= m[row][row];
+        }
+        return x;
     }
 
     // ── Entry point ────────────────────────────────────────────────────────────
@@ -285,7 +736,10 @@ public class TournamentStatistics {
      * read from the standard MEJN configuration chain (mejn-config.xml and
      * associated property files).  The number of rounds is taken from the
      * {@code tournamentRounds} property; the number of games per round from the
-     * {@code games} property.
+     * {@code games} property. The {@code stopMinRounds}, {@code stopTargetMoe} and
+     * {@code stopWhenRanked} properties set the {@link StoppingRule}, the
+     * {@code threads} property the number of threads to play on, and the
+     * {@code retainRoundScores} property whether to keep the score of every round.
      */
     static void main(String[] args) throws InterruptedException, ExecutionException {
         List<String> strategyNames = Tournament.getStrategyNames();
@@ -295,11 +749,26 @@ public class TournamentStatistics {
 
         logger.info("Starting TournamentStatistics: {} rounds × {} games/round, {} brackets", rounds, gamesPerRound, brackets.size());
 
-        TournamentStatistics ts = new TournamentStatistics(new BaseStrategyFactory(), brackets, gamesPerRound, rounds);
+        TournamentStatistics ts = new TournamentStatistics(new BaseStrategyFactory(), brackets, gamesPerRound, rounds, Tournament.getSeed(),
+                Tournament.getCommonRandomNumbers(), Config.configuration.getBoolean("controlVariates", false), getStoppingRule())
+                .parallelism(Config.configuration.getInt("threads", Runtime.getRuntime().availableProcessors()))
+                .retainRoundScores(Config.configuration.getBoolean("retainRoundScores", false));
 
         Result result = ts.run();
         logger.info("{}", result.toSummary());
     }
+
+    /**
+     * @return the stopping rule in the configuration, {@link StoppingRule#NEVER} when none is set.
+     */
+    static StoppingRule getStoppingRule() {
+        double targetMoe = Config.configuration.getDouble("stopTargetMoe", 0.0);
+        boolean separateRanking = Config.configuration.getBoolean("stopWhenRanked", false);
+        if ((targetMoe <= 0.0) && !separateRanking) {
+            return StoppingRule.NEVER;
+        }
+        return new StoppingRule(Config.configuration.getInt("stopMinRounds", 10), targetMoe, separateRanking);
+    }
 }
 
 
@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn.statistics;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.rttnghs.mejn.statistics.TournamentStatistics.ControlVariateStats;
+import com.rttnghs.mejn.statistics.TournamentStatistics.PairedDifference;
+import com.rttnghs.mejn.statistics.TournamentStatistics.StrategyStats;
+
+/**
+ * Summary of the rounds of {@link TournamentStatistics} in constant memory,
+ * whatever the number of rounds.
+ * <p>
+ * Per strategy it keeps the moments of the scores, a {@link QuantileSketch} of
+ * them, the moments of the places per round and, when collected, the co-moments
+ * of the luck and the scores. Per two strategies it keeps the moments of the
+ * difference of their scores. Summaries of runs in other threads, processes or
+ * servers merge into the summary of all their rounds: exactly for the moments,
+ * and within the accuracy of the sketch for the median. Not thread safe.
+ */
+public final class TournamentSummary implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Number of places whose counts per round are summarized.
+	 */
+	private static final int PLACES = 4;
+
+	private long rounds;
+	private final TreeMap<String, StrategySummary> strategies = new TreeMap<>();
+	/**
+	 * Differences of the scores of two strategies, first before second by name.
+	 */
+	private final TreeMap<String, TreeMap<String, RunningStats>> differences = new TreeMap<>();
+	/**
+	 * Differences in rounds recombined to have independent dice.
+	 */
+	private final TreeMap<String, TreeMap<String, RunningStats>> independentDifferences = new TreeMap<>();
+
+	/**
+	 * Adds a round.
+	 *
+	 * @param scores       normalized score of each strategy in the round
+	 * @param finishCounts finish positions of each strategy in the round
+	 * @param luck         luck of each strategy in the round, each with an
+	 *                     expectation of 0, or null when not collected
+	 * @return reference to self for convenient chaining of calls.
+	 */
+	public TournamentSummary addRound(Map<String, ? extends Number> scores, EventCounter<String, Integer> finishCounts,
+			Map<String, double[]> luck) {
+		rounds++;
+		scores.forEach((strategy, score) -> {
+			StrategySummary summary = strategies.computeIfAbsent(strategy, _ -> new StrategySummary());
+			summary.scores.add(score.doubleValue());
+			summary.quantiles.add(score.doubleValue());
+			for (int place = 0; place < PLACES; place++) {
+				summary.places[place].add((finishCounts == null) ? 0 : finishCounts.getCount(strategy, place));
+			}
+			double[] strategyLuck = (luck == null) ? null : luck.get(strategy);
+			if (strategyLuck != null) {
+				if (summary.luck == null) {
+					summary.luck = new RunningCovariance(strategyLuck.length + 1);
+				}
+				double[] values = Arrays.copyOf(strategyLuck, strategyLuck.length + 1);
+				values[strategyLuck.length] = score.doubleValue();
+				summary.luck.add(values);
+			}
+		});
+		addDifferences(differences, scores);
+		return this;
+	}
+
+	/**
+	 * Adds a round of brackets of different common random number rounds, which have
+	 * the dice of a round with independent dice.
+	 *
+	 * @param scores normalized score of each strategy in the recombined round
+	 * @return reference to self for convenient chaining of calls.
+	 */
+	public TournamentSummary addIndependentRound(Map<String, ? extends Number> scores) {
+		addDifferences(independentDifferences, scores);
+		return this;
+	}
+
+	/**
+	 * Add the rounds of the other summary to this one.
+	 *
+	 * @param other summary to merge into this one. If other is null, nothing is changed.
+	 * @return reference to self for convenient chaining of calls.
+	 */
+	public TournamentSummary merge(TournamentSummary other) {
+		if (other == null) {
+			return this;
+		}
+		rounds += other.rounds;
+		other.strategies.forEach((strategy, summary) -> strategies.computeIfAbsent(strategy, _ -> new StrategySummary()).merge(summary));
+		mergeDifferences(differences, other.differences);
+		mergeDifferences(independentDifferences, other.independentDifferences);
+		return this;
+	}
+
+	/**
+	 * @return the number of rounds added.
+	 */
+	public long rounds() {
+		return rounds;
+	}
+
+	/**
+	 * @return the names of the strategies that played, sorted.
+	 */
+	public Set<String> strategies() {
+		return Collections.unmodifiableSet(strategies.keySet());
+	}
+
+	/**
+	 * @param strategy name of a strategy
+	 * @return a copy of the moments of the scores of the strategy, empty when it did not play.
+	 */
+	public RunningStats scores(String strategy) {
+		StrategySummary summary = strategies.get(strategy);
+		return (summary == null) ? new RunningStats() : summary.scores.copy();
+	}
+
+	/**
+	 * @return summary statistics per strategy, sorted by name.
+	 */
+	public Map<String, StrategyStats> strategyStats() {
+		Map<String, StrategyStats> stats = new TreeMap<>();
+		strategies.forEach((strategy, summary) -> stats.put(strategy,
+				StrategyStats.of(strategy, summary.scores, summary.quantiles, summary.places)));
+		return stats;
+	}
+
+	/**
+	 * @return the paired difference of every two strategies, first before second by name.
+	 */
+	public List<PairedDifference> pairedDifferences() {
+		List<PairedDifference> pairedDifferences = new ArrayList<>();
+		differences.forEach((first, seconds) -> seconds.forEach((second, difference) -> pairedDifferences
+				.add(PairedDifference.of(first, second, difference, independentDifference(first, second)))));
+		return pairedDifferences;
+	}
+
+	/**
+	 * @param first  name of a strategy
+	 * @param second name of another strategy
+	 * @return the paired difference of first minus second, or null when they did not play the same rounds.
+	 */
+	public PairedDifference pairedDifference(String first, String second) {
+		boolean ordered = first.compareTo(second) < 0;
+		String low = ordered ? first : second;
+		String high = ordered ? second : first;
+		Map<String, RunningStats> seconds = differences.get(low);
+		RunningStats difference = (seconds == null) ? null : seconds.get(high);
+		if (difference == null) {
+			return null;
+		}
+		PairedDifference pairedDifference = PairedDifference.of(low, high, difference,
+				independentDifference(low, high));
+		return ordered ? pairedDifference : pairedDifference.reversed();
+	}
+
+	/**
+	 * @return scores adjusted for luck per strategy that had its luck collected in
+	 *         all its rounds, sorted by name.
+	 */
+	public Map<String, ControlVariateStats> controlVariateStats() {
+		Map<String, ControlVariateStats> stats = new TreeMap<>();
+		strategies.forEach((strategy, summary) -> {
+			if ((summary.luck != null) && (summary.luck.count() == summary.scores.count())) {
+				stats.put(strategy, ControlVariateStats.of(strategy, summary.luck));
+			}
+		});
+		return stats;
+	}
+
+	@Override
+	public String toString() {
+		return "TournamentSummary[rounds=" + rounds + ", strategies=" + strategies.keySet() + "]";
+	}
+
+	/**
+	 * @return the differences in recombined rounds of first before second by name, or null when not measured.
+	 */
+	private RunningStats independentDifference(String first, String second) {
+		Map<String, RunningStats> seconds = independentDifferences.get(first);
+		return (seconds == null) ? null : seconds.get(second);
+	}
+
+	private static void addDifferences(TreeMap<String, TreeMap<String, RunningStats>> differences, Map<String, ? extends Number> scores) {
+		List<String> names = new ArrayList<>(scores.keySet());
+		Collections.sort(names);
+		for (int first = 0; first < names.size(); first++) {
+			for (int second = first + 1; second < names.size(); second++) {
+				differences.computeIfAbsent(names.get(first), _ -> new TreeMap<>())
+						.computeIfAbsent(names.get(second), _ -> new RunningStats())
+						.add(scores.get(names.get(first)).doubleValue() - scores.get(names.get(second)).doubleValue());
+			}
+		}
+	}
+
+	private static void mergeDifferences(TreeMap<String, TreeMap<String, RunningStats>> differences,
+			TreeMap<String, TreeMap<String, RunningStats>> other) {
+		other.forEach((first, seconds) -> seconds.forEach((second, difference) -> differences
+				.computeIfAbsent(first, _ -> new TreeMap<>()).computeIfAbsent(second, _ -> new RunningStats()).merge(difference)));
+	}
+
+	/**
+	 * Everything kept per strategy.
+	 */
+	private static final class StrategySummary implements Serializable {
+
+		@Serial
+		private static final long serialVersionUID = 1L;
+
+		private final RunningStats scores = new RunningStats();
+		private final QuantileSketch quantiles = new QuantileSketch();
+		private final RunningStats[] places = new RunningStats[PLACES];
+		/**
+		 * Luck followed by the score, or null when not collected.
+		 */
+		private RunningCovariance luck;
+
+		private StrategySummary() {
+			for (int place = 0; place < PLACES; place++) {
+				places[place] = new RunningStats();
+			}
+		}
+
+		private void merge(StrategySummary other) {
+			scores.merge(other.scores);
+			quantiles.merge(other.quantiles);
+			for (int place = 0; place < PLACES; place++) {
+				places[place].merge(other.places[place]);
+			}
+			if (other.luck != null) {
+				luck = (luck == null) ? other.luck.copy() : luck.merge(other.luck);
+			}
+		}
+	}
+}
@@ -18,10 +18,13 @@ package com.rttnghs.mejn.strategy;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
 
 import com.rttnghs.mejn.BoardState;
+import com.rttnghs.mejn.Die;
 import com.rttnghs.mejn.History;
 import com.rttnghs.mejn.Move;
 
@@ -33,6 +36,10 @@ public abstract class BaseStrategy implements Strategy {
 
 	private final String name;
 	protected Supplier<History<Move>> historySupplier = null;
+	/**
+	 * Generator for random choices, or null for the thread local one.
+	 */
+	private RandomGenerator random = null;
 	/**
 	 * Parameters to be used for the strategy. Could be empty if so configured in
 	 * the config file.
@@ -51,12 +58,34 @@ public abstract class BaseStrategy implements Strategy {
 		return name;
 	}
 
+	/**
+	 * @return unmodifiable view of the parameters of this strategy, possibly empty.
+	 */
+	public List<Integer> getParameters() {
+		return Collections.unmodifiableList(parameters);
+	}
+
 	@Override
 	public Strategy initialize(Supplier<History<Move>> historySupplier) {
 		this.historySupplier = historySupplier;
 		return this;
 	}
 
+	@Override
+	public Strategy initialize(Supplier<History<Move>> historySupplier, RandomGenerator random) {
+		this.random = random;
+		return initialize(historySupplier);
+	}
+
+	/**
+	 * @return the generator passed to {@link #initialize(Supplier, RandomGenerator)},
+	 *         or else the {@link java.util.concurrent.ThreadLocalRandom} of the
+	 *         calling thread.
+	 */
+	protected RandomGenerator random() {
+		return Die.generator(random);
+	}
+
 	/**
 	 * Strategies that extend this class can opt to defer the
 	 * {@link #choose(List, BoardState)} method to this method. It will automatically
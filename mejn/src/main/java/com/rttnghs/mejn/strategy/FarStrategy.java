@@ -16,7 +16,9 @@
  */
 package com.rttnghs.mejn.strategy;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 import com.rttnghs.mejn.BoardState;
 import com.rttnghs.mejn.Move;
@@ -48,4 +50,12 @@ public class FarStrategy extends BaseStrategy implements Strategy {
 		// Nothing to do here.
 	}
 
+	/**
+	 * Chooses from the choices alone.
+	 */
+	@Override
+	public Set<Capability> getCapabilities() {
+		return EnumSet.noneOf(Capability.class);
+	}
+
 }
@@ -16,10 +16,13 @@
  */
 package com.rttnghs.mejn.strategy;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 import com.rttnghs.mejn.BoardState;
-import com.rttnghs.mejn.Die;
 import com.rttnghs.mejn.Move;
 
 /**
@@ -32,9 +35,16 @@ public class RandomStrategy extends BaseStrategy implements Strategy {
 	 * @return any of the supplied choices.
 	 */
 	public static Move choose(List<Move> choices) {
-		Die die = new Die(choices.size());
-		// Note a die rolls a positive number, but lists are zero based.
-		return choices.get(die.roll() -1);
+		return choose(choices, ThreadLocalRandom.current());
+	}
+
+	/**
+	 * @param choices non-null, non-empty list.
+	 * @param random  generator to draw the choice from.
+	 * @return any of the supplied choices.
+	 */
+	public static Move choose(List<Move> choices, RandomGenerator random) {
+		return choices.get(random.nextInt(choices.size()));
 	}
 	
 	public RandomStrategy(String name) {
@@ -51,7 +61,7 @@ public class RandomStrategy extends BaseStrategy implements Strategy {
 
 	@Override
 	public Move multiChoose(List<Move> choices, BoardState boardState) {
-		return choose(choices);
+		return choose(choices, random());
 	}
 
 	@Override
@@ -59,4 +69,12 @@ public class RandomStrategy extends BaseStrategy implements Strategy {
 		// Nothing to do here.
 	}
 
+	/**
+	 * Chooses at random, looking at the choices alone.
+	 */
+	@Override
+	public Set<Capability> getCapabilities() {
+		return EnumSet.noneOf(Capability.class);
+	}
+
 }
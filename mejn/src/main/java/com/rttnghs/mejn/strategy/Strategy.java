@@ -16,8 +16,11 @@
  */
 package com.rttnghs.mejn.strategy;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
 
 import com.rttnghs.mejn.BoardState;
 import com.rttnghs.mejn.History;
@@ -29,6 +32,28 @@ import com.rttnghs.mejn.Move;
  */
 public interface Strategy {
 
+	/**
+	 * What a strategy relies on when choosing, so that the game can skip the work
+	 * for what none of its strategies use.
+	 */
+	enum Capability {
+		/**
+		 * Reads the board state passed to {@link #choose(List, BoardState)}. Without
+		 * it the strategy gets null instead of a board state.
+		 */
+		BOARD_STATE,
+		/**
+		 * Reads the history from the supplier passed to {@link #initialize(Supplier)}.
+		 * Without it the history may stay empty.
+		 */
+		HISTORY,
+		/**
+		 * Wants to be asked also when there is only one choice. Without it the only
+		 * choice is made for the strategy, as {@link BaseStrategy} would.
+		 */
+		FORCED_CHOICE
+	}
+
 	/**
 	 * @return the name of this strategy. This is expected not to change during the
 	 *         lifetime of the strategy.
@@ -52,11 +77,29 @@ public interface Strategy {
 	 */
 	Strategy initialize(Supplier<History<Move>> historySupplier);
 
+	/**
+	 * Same as {@link #initialize(Supplier)}, for strategies that make random
+	 * choices and should draw them from the given generator. Strategies that do not
+	 * draw random values can ignore it, as this default does.
+	 * 
+	 * @param historySupplier supplier that can be used to get the history of moves.
+	 * @param random          generator for random choices, or null for the
+	 *                        {@link java.util.concurrent.ThreadLocalRandom} of the
+	 *                        calling thread. Only to be used from the thread that
+	 *                        plays the game.
+	 * @return reference to self for convenient chaining of calls.
+	 */
+	default Strategy initialize(Supplier<History<Move>> historySupplier, RandomGenerator random) {
+		return initialize(historySupplier);
+	}
+
 	/**
 	 * Note that the perspective will be that this player is player 0.
 	 * 
 	 * @param choices           board positions from which to choose. Shall not be
 	 *                          null. Empty list indicates that there is not choice.
+	 *                          The list is only valid during the call, it may be
+	 *                          reused for the next turn.
 	 * @param boardState		the board state to consider. This is the state of the game from the perspective of the player.
 	 * @return one of the choices in the list, or else get a random choice assigned.
 	 * 
@@ -70,4 +113,12 @@ public interface Strategy {
 	 */
 	void finalize(int position);
 
+	/**
+	 * @return what this strategy relies on when choosing. By default everything,
+	 *         which is always safe.
+	 */
+	default Set<Capability> getCapabilities() {
+		return EnumSet.allOf(Capability.class);
+	}
+
 }
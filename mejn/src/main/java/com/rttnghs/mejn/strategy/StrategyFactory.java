@@ -27,7 +27,8 @@ public interface StrategyFactory {
 
     /**
      * @param strategyName to get.
-     * @return uninitialized strategy for the given name.
+     * @return uninitialized strategy for the given name. A new instance for each
+     *         call, as games that play at the same time each get their own.
      */
     Strategy getStrategy(String strategyName);
 
@@ -20,11 +20,13 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.function.BiFunction;
+import java.util.function.ToIntBiFunction;
 
 import com.rttnghs.mejn.BoardState;
 import com.rttnghs.mejn.Move;
 
-public abstract class BaseMoveEvaluator implements BiFunction<Move, BoardState, Integer> {
+public abstract class BaseMoveEvaluator
+		implements BiFunction<Move, BoardState, Integer>, ToIntBiFunction<Move, BoardState> {
 
 	/**
 	 * Parameters to be used for the strategy. Could be empty if so configured in
@@ -43,6 +45,14 @@ public abstract class BaseMoveEvaluator implements BiFunction<Move, BoardState,
 		return valuate(move, boardState);
 	}
 
+	/**
+	 * Evaluators that can valuate without boxing override this method.
+	 */
+	@Override
+	public int applyAsInt(Move move, BoardState boardState) {
+		return valuate(move, boardState);
+	}
+
 	/**
 	 * Provide a numeric valuation for a move. The move with the highest valuation
 	 * will be chosen.
@@ -18,9 +18,8 @@ package com.rttnghs.mejn.strategy.ranking;
 
 import java.util.Collection;
 import java.util.List;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import java.util.function.BiFunction;
+import java.util.function.ToIntBiFunction;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -41,11 +40,17 @@ public abstract class RankingStrategy extends BaseStrategy implements Strategy {
 	private static final Logger logger = LogManager.getLogger(RankingStrategy.class);
 	
 	private final BiFunction<Move, BoardState, Integer> moveEvaluator;
+	/**
+	 * Same evaluator, without boxing the valuation when it supports that.
+	 */
+	private final ToIntBiFunction<Move, BoardState> intEvaluator;
 
 	public RankingStrategy(BiFunction<Move, BoardState, Integer> moveEvaluator, String name,
 			Collection<Integer> parameters) {
 		super(name, parameters);
 		this.moveEvaluator = moveEvaluator;
+		this.intEvaluator = (moveEvaluator instanceof BaseMoveEvaluator baseMoveEvaluator) ? baseMoveEvaluator
+				: moveEvaluator::apply;
 	}
 
 	/**
@@ -60,12 +65,19 @@ public abstract class RankingStrategy extends BaseStrategy implements Strategy {
 	@Override
 	public Move multiChoose(List<Move> choices, BoardState boardState) {
 
-		SortedMap<Integer, Move> rankedMoves = new TreeMap<>();
-		for (Move move : choices) {
-			rankedMoves.put(moveEvaluator.apply(move, boardState), move);
+		// Of the moves with the highest ranking, the last one wins.
+		Move best = null;
+		int bestRanking = Integer.MIN_VALUE;
+		for (int index = 0; index < choices.size(); index++) {
+			Move move = choices.get(index);
+			int ranking = intEvaluator.applyAsInt(move, boardState);
+			if ((best == null) || (ranking >= bestRanking)) {
+				best = move;
+				bestRanking = ranking;
+			}
 		}
-        logger.trace("rankedMoves:{}", rankedMoves);
-		return rankedMoves.get(rankedMoves.lastKey());
+		logger.trace("best:{}", best);
+		return best;
 	}
 
 }
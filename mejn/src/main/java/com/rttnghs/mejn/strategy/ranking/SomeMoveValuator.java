@@ -156,6 +156,11 @@ public class SomeMoveValuator extends BaseMoveEvaluator {
 
 	@Override
 	public Integer valuate(Move move, BoardState boardState) {
+		return applyAsInt(move, boardState);
+	}
+
+	@Override
+	public int applyAsInt(Move move, BoardState boardState) {
 		// Add them all up.
         return valuateSelfStrike(move, boardState) + valuateHome(move, boardState)
                 + valueSpot(move, boardState);
@@ -16,7 +16,9 @@
  */
 package com.rttnghs.mejn.strategy.ranking;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -38,4 +40,12 @@ public class SomeRankingStrategy extends RankingStrategy {
 	public void finalize(int position) {
 		// This particular ranking strategy doesn't care about the history.		
 	}
+
+	/**
+	 * Ranks the choices on the board state, without looking at the history.
+	 */
+	@Override
+	public Set<Capability> getCapabilities() {
+		return EnumSet.of(Capability.BOARD_STATE);
+	}
 }
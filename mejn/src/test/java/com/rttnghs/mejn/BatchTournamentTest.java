@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Test;
+
+import com.rttnghs.mejn.configuration.GameSpec;
+import com.rttnghs.mejn.statistics.EventCounter;
+import com.rttnghs.mejn.strategy.BaseStrategyFactory;
+import com.rttnghs.mejn.strategy.Strategy;
+import com.rttnghs.mejn.strategy.StrategyFactory;
+
+class BatchTournamentTest {
+
+	private static final Logger logger = LogManager.getLogger(BatchTournamentTest.class);
+
+	private static final List<String> STRATEGY_NAMES = List.of("RandomStrategy", "FarStrategy", "NearStrategy",
+			"RankingStrategy");
+
+	private static double meanPlace(EventCounter<String, Integer> finishCounts, String strategyName, int games) {
+		double sum = 0;
+		for (Integer place : finishCounts.getEvents(strategyName)) {
+			sum += place * finishCounts.getCount(strategyName, place);
+		}
+		return sum / games;
+	}
+
+	@Test
+	final void testMatchesTournament() {
+		int games = 2000;
+		EventCounter<String, Integer> expected = new Tournament(new BaseStrategyFactory(), STRATEGY_NAMES, games)
+				.play();
+		EventCounter<String, Integer> actual = new BatchTournament(new BaseStrategyFactory(), STRATEGY_NAMES, games,
+				GameSpec.DEFAULT, 300).play();
+		logger.info("Tournament {} batch tournament {}", expected, actual);
+		assertEquals(expected.getActors(), actual.getActors());
+		for (String strategyName : STRATEGY_NAMES) {
+			int total = 0;
+			for (Integer place : actual.getEvents(strategyName)) {
+				total += actual.getCount(strategyName, place);
+			}
+			assertEquals(games, total);
+			// Places are between 0 and 3, the standard error of the difference in mean
+			// place is below 0.05.
+			assertEquals(meanPlace(expected, strategyName, games), meanPlace(actual, strategyName, games), 0.2,
+					strategyName);
+		}
+	}
+
+	@Test
+	final void testSupports() {
+		StrategyFactory factory = new BaseStrategyFactory();
+		assertTrue(BatchTournament.supports(factory, STRATEGY_NAMES));
+		assertTrue(BatchTournament.supports(factory, List.of("OtherRankingStrategy", "NearStrategy")));
+
+		StrategyFactory withManual = new StrategyFactory() {
+			@Override
+			public List<String> listStrategies() {
+				return List.of("ManualStrategy", "NearStrategy");
+			}
+
+			@Override
+			public Strategy getStrategy(String strategyName) {
+				if (strategyName.equals("NearStrategy")) {
+					return factory.getStrategy(strategyName);
+				}
+				return new com.rttnghs.mejn.strategy.NearStrategy(strategyName) {
+				};
+			}
+		};
+		assertFalse(BatchTournament.supports(withManual, withManual.listStrategies()));
+		assertThrows(IllegalArgumentException.class,
+				() -> new BatchTournament(withManual, withManual.listStrategies(), 1));
+		assertThrows(IllegalArgumentException.class,
+				() -> new BatchTournament(factory, STRATEGY_NAMES, 1, GameSpec.DEFAULT, 0));
+	}
+
+	@Test
+	final void testPlayAccumulates() {
+		BatchTournament tournament = new BatchTournament(new BaseStrategyFactory(), STRATEGY_NAMES.subList(0, 2), 5);
+		tournament.play();
+		EventCounter<String, Integer> finishCounts = tournament.play();
+		int total = 0;
+		for (Integer place : finishCounts.getEvents("FarStrategy")) {
+			total += finishCounts.getCount("FarStrategy", place);
+		}
+		assertEquals(10, total);
+	}
+
+}
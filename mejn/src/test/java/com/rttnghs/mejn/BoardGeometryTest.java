@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn;
+
+import static com.rttnghs.mejn.Layer.BEGIN;
+import static com.rttnghs.mejn.Layer.EVENT;
+import static com.rttnghs.mejn.Layer.HOME;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for BoardGeometry class.
+ */
+class BoardGeometryTest {
+
+	@Test
+	void testOf() {
+		assertSame(BoardGeometry.of(40), BoardGeometry.of(40));
+		assertEquals(40, BoardGeometry.of(40).getBoardSize());
+		assertEquals(120, BoardGeometry.of(40).size());
+
+		assertThrows(IllegalArgumentException.class, () -> BoardGeometry.of(0));
+		assertTrue(BoardGeometry.supports(BoardGeometry.MAX_BOARD_SIZE));
+		assertFalse(BoardGeometry.supports(0));
+		assertFalse(BoardGeometry.supports(BoardGeometry.MAX_BOARD_SIZE + 1));
+	}
+
+	@Test
+	void testLargerThanTable() {
+		int boardSize = BoardGeometry.MAX_BOARD_SIZE + 44;
+		BoardGeometry geometry = BoardGeometry.of(boardSize);
+		assertEquals(boardSize, geometry.getBoardSize());
+		assertEquals(3 * boardSize, geometry.size());
+		Position from = new Position(EVENT, boardSize - 1);
+		Position to = new Position(EVENT, 2);
+		assertEquals(from, geometry.position(geometry.ordinal(from)));
+		Move move = geometry.move(from, to);
+		assertEquals(new Move(from, to), move);
+		assertEquals(move, geometry.move(from, to));
+		assertEquals(new Move(new Position(EVENT, 0), new Position(EVENT, 3)), geometry.shift(move, 1));
+	}
+
+	@Test
+	void testOrdinals() {
+		BoardGeometry geometry = BoardGeometry.of(40);
+		for (int ordinal = 0; ordinal < geometry.size(); ordinal++) {
+			Position position = geometry.position(ordinal);
+			assertEquals(ordinal, geometry.ordinal(position));
+			assertEquals(position.layer(), geometry.layer(ordinal));
+			assertEquals(position.spot(), geometry.spot(ordinal));
+			if (ordinal > 0) {
+				// Ordinals sort the same way as positions do.
+				assertTrue(geometry.position(ordinal - 1).compareTo(position) < 0);
+			}
+		}
+		assertSame(Position.valueOf(HOME, 3), geometry.position(HOME, 43));
+		assertSame(Position.valueOf(BEGIN, 34), geometry.position(BEGIN, -6));
+		assertEquals(40 + 34, geometry.ordinal(new Position(EVENT, -6)));
+	}
+
+	@Test
+	void testMove() {
+		BoardGeometry geometry = BoardGeometry.of(40);
+		Position b34 = new Position(BEGIN, 34);
+		Position e0 = new Position(EVENT, 0);
+
+		Move move = geometry.move(b34, e0);
+		assertEquals(new Move(b34, e0), move);
+		assertSame(move, geometry.move(new Position(BEGIN, -6), new Position(EVENT, 40)));
+		assertSame(move, geometry.move(geometry.ordinal(b34), geometry.ordinal(e0)));
+
+		Move shifted = geometry.shift(move, -10);
+		assertEquals(new Move(new Position(BEGIN, 24), new Position(EVENT, 30)), shifted);
+		assertSame(move, geometry.shift(shifted, 10));
+	}
+
+}
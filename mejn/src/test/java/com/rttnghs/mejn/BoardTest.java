@@ -26,13 +26,16 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.rttnghs.mejn.configuration.Config;
+import com.rttnghs.mejn.configuration.GameSpec;
 import com.rttnghs.mejn.internal.BaseBoardState;
+import com.rttnghs.mejn.internal.PackedBoardState;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.SplittableRandom;
 
 class BoardTest {
 
@@ -89,6 +92,108 @@ class BoardTest {
 		assertEquals(1, board.getBoardState().getPlayer(playerOneBegin));
 	}
 
+	@Test
+	final void testPackedMoveReturnsStrikeOutcomeDeterministically() {
+		int dotsPerPlayer = Config.value.dotsPerPlayer();
+		int dieFaces = Config.value.dieFaces();
+		int boardSize = 2 * dotsPerPlayer;
+
+		Position playerZeroBegin = new Position(BEGIN, -dieFaces).normalize(boardSize);
+		Position playerOneBegin = new Position(BEGIN, -dieFaces + dotsPerPlayer).normalize(boardSize);
+		List<Position> beginPositions = new ArrayList<>(List.of(playerZeroBegin, playerOneBegin));
+
+		PackedBoardState state = new PackedBoardState(boardSize, dotsPerPlayer, 1, beginPositions);
+		Position contested = new Position(EVENT, 3);
+		state.move(new Move(playerOneBegin, contested));
+
+		Board board = new Board(Arrays.asList("strategy1", "strategy2"), new Die(dieFaces), state, 0, 1);
+		Board.MoveResult result = board.move(new Move(playerZeroBegin, contested));
+
+		assertTrue(result.hasStrike());
+		assertEquals(Optional.of(new Board.Strike(new Move(contested, playerOneBegin), 1)), result.strike());
+		assertEquals(0, board.getBoardState().getPlayer(contested));
+		assertEquals(1, board.getBoardState().getPlayer(playerOneBegin));
+
+		board.move(new Move(contested, new Position(HOME, 0)));
+		assertTrue(board.getBoardState().isFinished(0));
+	}
+
+	@Test
+	final void testReset() {
+		List<String> strategyNames = Arrays.asList("strategy1", "null", "strategy3");
+		Board board = new Board(strategyNames);
+		long beginKey = board.getBoardState().getZobristKey();
+		MoveBuffer moves = new MoveBuffer();
+		for (int turn = 0; turn < 200; turn++) {
+			board.nextPlayer();
+			board.getAllowedMoves(moves);
+			if (!moves.isEmpty()) {
+				board.apply(moves.get(0));
+			}
+		}
+		board.reset();
+		assertEquals(beginKey, board.getBoardState().getZobristKey());
+		for (int player = 0; player < strategyNames.size(); player++) {
+			assertEquals(Config.value.pawnsPerPlayer(), board.getBoardState().getBeginCount(player));
+		}
+		assertTrue((board.getCurrentPlayer() >= 0) && (board.getCurrentPlayer() < strategyNames.size()));
+		assertTrue(board.nextPlayer() >= 0);
+	}
+
+	@Test
+	final void testSameGeneratorSeedSameRolls() {
+		List<String> strategyNames = Arrays.asList("strategy1", "strategy2", "strategy3");
+		Board board = new Board(strategyNames, GameSpec.DEFAULT, Board.StateEncoding.DEFAULT, new SplittableRandom(5));
+		Board other = new Board(strategyNames, GameSpec.DEFAULT, Board.StateEncoding.DEFAULT, new SplittableRandom(5));
+		for (int game = 0; game < 3; game++) {
+			if (game > 0) {
+				board.reset();
+				other.reset();
+			}
+			assertEquals(board.getCurrentPlayer(), other.getCurrentPlayer());
+			assertEquals(board.getCurrentDieValue(), other.getCurrentDieValue());
+			for (int turn = 0; turn < 100; turn++) {
+				assertEquals(board.nextPlayer(), other.nextPlayer());
+				assertEquals(board.getCurrentDieValue(), other.getCurrentDieValue());
+			}
+		}
+	}
+
+	@Test
+	final void testApplyReturnsStruckPlayer() {
+		int dotsPerPlayer = Config.value.dotsPerPlayer();
+		int dieFaces = Config.value.dieFaces();
+		int boardSize = 2 * dotsPerPlayer;
+
+		Position playerZeroBegin = new Position(BEGIN, -dieFaces).normalize(boardSize);
+		Position playerOneBegin = new Position(BEGIN, -dieFaces + dotsPerPlayer).normalize(boardSize);
+		List<Position> beginPositions = new ArrayList<>(List.of(playerZeroBegin, playerOneBegin));
+
+		PackedBoardState state = new PackedBoardState(boardSize, dotsPerPlayer, 1, beginPositions);
+		Position contested = new Position(EVENT, 3);
+		state.move(new Move(playerOneBegin, contested));
+
+		Board board = new Board(Arrays.asList("strategy1", "strategy2"), new Die(dieFaces), state, 0, 1);
+		Move strike = new Move(playerZeroBegin, contested);
+		assertEquals(1, board.apply(strike));
+		assertEquals(new Move(contested, playerOneBegin), board.getStrikeMove(strike, 1));
+		assertEquals(1, board.getBoardState().getPlayer(playerOneBegin));
+
+		assertEquals(-1, board.apply(new Move(contested, new Position(HOME, 0))));
+		assertTrue(board.getBoardState().isFinished(0));
+		assertThrows(NullPointerException.class, () -> board.apply(null));
+	}
+
+	@Test
+	final void testStateEncoding() {
+		List<String> strategyNames = Arrays.asList("strategy1", "strategy2", "strategy3", "strategy4");
+		Board listBoard = new Board(strategyNames, Board.StateEncoding.LIST);
+		Board packedBoard = new Board(strategyNames, Board.StateEncoding.PACKED);
+		assertTrue(listBoard.getBoardState() instanceof BaseBoardState);
+		assertTrue(packedBoard.getBoardState() instanceof PackedBoardState);
+		assertEquals(listBoard.getBoardState().toString(), packedBoard.getBoardState().toString());
+	}
+
 	@Test
 	final void testMoveReturnsFinishedOutcomeDeterministically() {
 		int dotsPerPlayer = Config.value.dotsPerPlayer();
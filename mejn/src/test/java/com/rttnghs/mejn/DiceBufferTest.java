@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGeneratorFactory;
+
+import org.junit.jupiter.api.Test;
+
+class DiceBufferTest {
+
+	@Test
+	final void testRollsAreInRangeAndUniform() {
+		for (int faces : new int[] { 1, 2, 5, 6, 7, 8, 10, 128 }) {
+			DiceBuffer dice = new DiceBuffer(new SplittableRandom(faces), faces, 100);
+			int rolls = 20_000 * faces;
+			int[] counts = new int[faces];
+			for (int roll = 0; roll < rolls; roll++) {
+				int value = dice.roll();
+				assertTrue((value >= 1) && (value <= faces), "faces " + faces + " rolled " + value);
+				counts[value - 1]++;
+			}
+			for (int face = 0; face < faces; face++) {
+				// Expected 20000 per face, with a standard deviation below 142.
+				assertTrue(Math.abs(counts[face] - 20_000) < 1_000, "faces " + faces + ": " + counts[face]);
+			}
+		}
+	}
+
+	@Test
+	final void testSameSeedSameRolls() {
+		DiceBuffer one = new DiceBuffer(RandomGeneratorFactory.of("Xoshiro256PlusPlus").create(17), 6);
+		DiceBuffer other = new DiceBuffer(RandomGeneratorFactory.of("Xoshiro256PlusPlus").create(17), 6, 7);
+		Die die = new Die(6, one);
+		for (int roll = 0; roll < 5_000; roll++) {
+			assertEquals(other.roll(), die.roll());
+		}
+	}
+
+	@Test
+	final void testOtherBoundsComeFromSource() {
+		DiceBuffer dice = new DiceBuffer(new SplittableRandom(3), 6);
+		SplittableRandom source = new SplittableRandom(3);
+		for (int draw = 0; draw < 100; draw++) {
+			assertEquals(source.nextInt(4), dice.nextInt(4));
+			assertEquals(source.nextLong(), dice.nextLong());
+		}
+	}
+
+	@Test
+	final void testInvalidArguments() {
+		assertThrows(IllegalArgumentException.class, () -> new DiceBuffer(new SplittableRandom(), 0));
+		assertThrows(IllegalArgumentException.class, () -> new DiceBuffer(new SplittableRandom(), 129));
+		assertThrows(IllegalArgumentException.class, () -> new DiceBuffer(new SplittableRandom(), 6, 0));
+		assertThrows(NullPointerException.class, () -> new DiceBuffer(null, 6));
+	}
+
+}
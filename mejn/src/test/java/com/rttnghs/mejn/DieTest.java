@@ -16,11 +16,13 @@
  */
 package com.rttnghs.mejn;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.SplittableRandom;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -81,4 +83,18 @@ class DieTest {
 
 	}
 
+	/**
+	 * Test method for {@link com.rttnghs.mejn.Die#Die(int, java.util.random.RandomGenerator)}.
+	 */
+	@Test
+	public final void testRollWithGenerator() {
+		Die die = new Die(6, new SplittableRandom(42));
+		Die other = new Die(6, new SplittableRandom(42));
+		for (int i = 0; i < 1000; i++) {
+			int value = die.roll();
+			assertTrue((value > 0) && (value <= die.faces()));
+			assertEquals(value, other.roll());
+		}
+	}
+
 }
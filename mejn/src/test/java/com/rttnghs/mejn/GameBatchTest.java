@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import com.rttnghs.mejn.configuration.GameSpec;
+import com.rttnghs.mejn.internal.BaseBoardState;
+import com.rttnghs.mejn.strategy.BaseStrategyFactory;
+import com.rttnghs.mejn.strategy.Strategy;
+
+/**
+ * Tests for GameBatch class.
+ */
+class GameBatchTest {
+
+	private static final List<String> STRATEGY_NAMES = List.of("NearStrategy", "FarStrategy", "RankingStrategy",
+			"OtherRankingStrategy", "RandomStrategy", "RankingStrategy");
+
+	/**
+	 * @return a board with the pawns, current player and die value of the game.
+	 */
+	private static Board boardOf(GameBatch batch, int game, List<String> strategyNames) {
+		GameSpec spec = batch.getSpec();
+		BoardGeometry geometry = batch.getGeometry();
+		List<Position> beginPositions = new ArrayList<>();
+		for (int player = 0; player < batch.getPlayerCount(); player++) {
+			int dots = player * spec.dotsPerPlayer();
+			beginPositions.add(geometry.position(Layer.BEGIN, dots - spec.dieFaces()));
+		}
+		BaseBoardState state = new BaseBoardState(geometry.getBoardSize(), spec.dotsPerPlayer(),
+				spec.pawnsPerPlayer(), beginPositions);
+		for (int player = 0; player < batch.getPlayerCount(); player++) {
+			for (int pawn = 0; pawn < spec.pawnsPerPlayer(); pawn++) {
+				Position position = geometry.position(batch.getPawn(game, player, pawn));
+				if (position != beginPositions.get(player)) {
+					state.move(geometry.move(beginPositions.get(player), position));
+				}
+			}
+		}
+		return new Board(strategyNames, spec, new Die(spec.dieFaces()), state, batch.getCurrentPlayer(game),
+				batch.getCurrentDieValue(game), Board.StateEncoding.LIST);
+	}
+
+	/**
+	 * Plays games turn by turn, and checks every turn that the allowed moves are
+	 * those of a board in the same state, and that the kernels choose what the
+	 * players would.
+	 */
+	private static void assertMatchesBoard(GameSpec spec, List<String> strategyNames, long seed) {
+		BaseStrategyFactory factory = new BaseStrategyFactory();
+		List<BatchStrategy> kernels = new ArrayList<>();
+		List<Player> players = new ArrayList<>();
+		for (int player = 0; player < strategyNames.size(); player++) {
+			Strategy strategy = factory.getStrategy(strategyNames.get(player));
+			kernels.add(BatchStrategy.of(strategy));
+			players.add(new Player(strategy, player, spec.boardSize(strategyNames.size()), spec.dotsPerPlayer()));
+		}
+		GameBatch batch = new GameBatch(spec, kernels, 1);
+		SplittableRandom random = new SplittableRandom(seed);
+		MoveBuffer moves = new MoveBuffer();
+		for (int round = 0; round < 5; round++) {
+			batch.reset(1, random);
+			int turns = 0;
+			while (!batch.isOver(0)) {
+				assertTrue(++turns < 100_000, "game does not end");
+				int player = batch.nextPlayer(0, random);
+				Board board = boardOf(batch, 0, strategyNames);
+				batch.getAllowedMoves(0, moves);
+				List<Move> allowedMoves = board.getAllowedMoves();
+				assertEquals(allowedMoves, moves.toList(), board.getBoardState() + " die " + board.getCurrentDieValue());
+				if (moves.isEmpty()) {
+					continue;
+				}
+				int choice = 0;
+				if (moves.size() > 1) {
+					choice = kernels.get(player).choose(batch, 0, moves, random);
+					if (kernels.get(player) != BatchStrategy.RANDOM) {
+						assertEquals(players.get(player).choose(allowedMoves, board.getBoardState()),
+								moves.get(choice), board.getBoardState() + " choices " + allowedMoves);
+					}
+				}
+				board.move(moves.get(choice));
+				batch.move(0, moves.from(choice), moves.to(choice));
+				assertEquals(board.getBoardState(), boardOf(batch, 0, strategyNames).getBoardState());
+			}
+			List<Integer> finishers = new ArrayList<>();
+			for (int place = 0; place < strategyNames.size(); place++) {
+				finishers.add(batch.getFinisher(0, place));
+			}
+			assertEquals(strategyNames.size(), finishers.stream().distinct().count(), finishers.toString());
+		}
+	}
+
+	@Test
+	void testMatchesBoard() {
+		GameSpec spec = GameSpec.DEFAULT;
+		assertMatchesBoard(spec.withSelfStrikeAllowed(true), STRATEGY_NAMES.subList(0, 4), 1);
+		assertMatchesBoard(spec.withSelfStrikeAllowed(false), STRATEGY_NAMES.subList(0, 4), 2);
+		assertMatchesBoard(spec, STRATEGY_NAMES.subList(2, 4), 3);
+		assertMatchesBoard(new GameSpec(6, 4, 8, true), STRATEGY_NAMES, 4);
+	}
+
+	@Test
+	void testPlay() {
+		List<BatchStrategy> kernels = List.of(BatchStrategy.NEAR, BatchStrategy.FAR, BatchStrategy.RANDOM);
+		GameBatch batch = new GameBatch(GameSpec.DEFAULT, kernels, 64);
+		SplittableRandom random = new SplittableRandom(5);
+		for (int games : new int[] { 64, 10, 0 }) {
+			batch.reset(games, random);
+			batch.play(random);
+			assertEquals(games, batch.size());
+			for (int game = 0; game < games; game++) {
+				assertTrue(batch.isOver(game));
+				int places = 0;
+				for (int place = 0; place < kernels.size(); place++) {
+					places |= 1 << batch.getFinisher(game, place);
+				}
+				assertEquals(0b111, places);
+			}
+		}
+		assertThrows(IllegalArgumentException.class, () -> batch.reset(65, random));
+		assertThrows(IllegalArgumentException.class, () -> new GameBatch(GameSpec.DEFAULT, kernels, 0));
+	}
+
+}
@@ -16,16 +16,27 @@
  */
 package com.rttnghs.mejn;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
+import java.lang.management.ManagementFactory;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.Test;
 
+import com.rttnghs.mejn.configuration.GameSpec;
+import com.rttnghs.mejn.statistics.Covariate;
+import com.rttnghs.mejn.statistics.DenseEventCounter;
 import com.rttnghs.mejn.statistics.EventCounter;
 import com.rttnghs.mejn.strategy.BaseStrategyFactory;
 
@@ -63,6 +74,188 @@ class GameTest {
 		logger.info("Another test game took {} millis", interval.toMillis());
 	}
 
+	@Test
+	final void testBoardLargerThanGeometryTable() {
+		// 3 x 100 spots, more than the boards with a shared geometry.
+		GameSpec spec = new GameSpec(6, 4, 100, false);
+		assertTrue(spec.boardSize(3) > BoardGeometry.MAX_BOARD_SIZE);
+		EventCounter<String, Integer> results = new Game(new BaseStrategyFactory(),
+				Arrays.asList("FarStrategy", "RandomStrategy", "NearStrategy"), spec).play();
+		assertFalse(results.getEvents("FarStrategy").isEmpty());
+	}
+
+	@Test
+	final void testConcurrentSpecs() throws Exception {
+		List<GameSpec> specs = List.of(new GameSpec(6, 4, 8, false), new GameSpec(6, 4, 8, true),
+				GameSpec.DEFAULT.withSelfStrikeAllowed(false), GameSpec.DEFAULT.withSelfStrikeAllowed(true));
+		List<String> strategies = Arrays.asList("RandomStrategy", "FarStrategy", "NearStrategy", "RandomStrategy",
+				"NearStrategy", "RankingStrategy");
+		List<CompletableFuture<EventCounter<String, Integer>>> futures = new ArrayList<>();
+		for (GameSpec spec : specs) {
+			List<String> strategyNames = (spec.dotsPerPlayer() == 8) ? strategies : strategies.subList(0, 4);
+			futures.add(CompletableFuture
+					.supplyAsync(() -> new Game(new BaseStrategyFactory(), strategyNames, spec).play()));
+		}
+		for (CompletableFuture<EventCounter<String, Integer>> future : futures) {
+			EventCounter<String, Integer> results = future.get();
+			assertFalse(results.getEvents("FarStrategy").isEmpty());
+			assertFalse(results.getEvents("NearStrategy").isEmpty());
+		}
+	}
+
+	@Test
+	final void testTurnsDoNotAllocate() {
+		assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+		assumeTrue(isEscapeAnalysisCompiled(), "turns only allocate nothing once C2 has removed their short-lived objects");
+		List<String> strategies = Arrays.asList("RandomStrategy", "FarStrategy", "NearStrategy", "RankingStrategy");
+
+		// Warm up, so that classes are loaded and lazily filled tables are complete.
+		BoardGeometry geometry = BoardGeometry.of(GameSpec.DEFAULT.boardSize(strategies.size()));
+		for (int from = 0; from < geometry.size(); from++) {
+			for (int to = 0; to < geometry.size(); to++) {
+				geometry.move(from, to);
+			}
+		}
+		for (int round = 0; round < 200; round++) {
+			new Game(new BaseStrategyFactory(), strategies).play();
+		}
+
+		// The JVM itself now and then allocates a few bytes on the thread, for instance
+		// when it recompiles. An allocating turn would show up in every attempt.
+		long allocated = -1;
+		for (int attempt = 0; (attempt < 5) && (allocated != 0); attempt++) {
+			allocated = 0;
+			long turns = 0;
+			for (int round = 0; round < 10; round++) {
+				Game game = new Game(new BaseStrategyFactory(), strategies);
+				long before = threads.getCurrentThreadAllocatedBytes();
+				while (!game.isOver()) {
+					game.turn();
+					turns++;
+				}
+				allocated += threads.getCurrentThreadAllocatedBytes() - before;
+			}
+			logger.info("Allocated {} bytes in {} turns", allocated, turns);
+		}
+		assertEquals(0, allocated);
+	}
+
+	/**
+	 * @return whether hot code is compiled by C2 with escape analysis and without
+	 *         an agent, such as a coverage agent, instrumenting it.
+	 */
+	private static boolean isEscapeAnalysisCompiled() {
+		if (ManagementFactory.getCompilationMXBean() == null) {
+			// Interpreted only, -Xint.
+			return false;
+		}
+		com.sun.management.HotSpotDiagnosticMXBean hotSpot = ManagementFactory
+				.getPlatformMXBean(com.sun.management.HotSpotDiagnosticMXBean.class);
+		if (hotSpot == null) {
+			return false;
+		}
+		try {
+			if (!Boolean.parseBoolean(hotSpot.getVMOption("DoEscapeAnalysis").getValue())
+					|| (Integer.parseInt(hotSpot.getVMOption("TieredStopAtLevel").getValue()) < 4)) {
+				return false;
+			}
+		} catch (IllegalArgumentException e) {
+			// Not a HotSpot VM.
+			return false;
+		}
+		return ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+				.noneMatch(argument -> argument.startsWith("-javaagent") || argument.startsWith("-agentpath"));
+	}
+
+	@Test
+	final void testReset() {
+		List<String> strategies = Arrays.asList("RandomStrategy", "FarStrategy", "NearStrategy");
+		Game game = new Game(new BaseStrategyFactory(), strategies);
+		EventCounter<String, Integer> first = game.play();
+		String firstResults = first.toString();
+		assertTrue(game.isOver());
+
+		for (int round = 0; round < 10; round++) {
+			game.reset();
+			assertFalse(game.isOver());
+			EventCounter<String, Integer> results = game.play();
+			assertTrue(game.isOver());
+			for (String strategy : strategies) {
+				assertEquals(1, results.getEvents(strategy).size());
+			}
+		}
+		assertEquals(firstResults, first.toString());
+	}
+
+	@Test
+	final void testSameGeneratorSeedSameGame() {
+		List<String> strategies = Arrays.asList("RandomStrategy", "FarStrategy", "RandomStrategy", "RankingStrategy");
+		for (int seed = 0; seed < 5; seed++) {
+			Game game = new Game(new BaseStrategyFactory(), strategies, GameSpec.DEFAULT,
+					new DiceBuffer(new SplittableRandom(seed), GameSpec.DEFAULT.dieFaces()));
+			Game other = new Game(new BaseStrategyFactory(), strategies, GameSpec.DEFAULT,
+					new DiceBuffer(new SplittableRandom(seed), GameSpec.DEFAULT.dieFaces()));
+			for (int round = 0; round < 3; round++) {
+				if (round > 0) {
+					game.reset();
+					other.reset();
+				}
+				EventCounter<String, Integer> results = game.play();
+				EventCounter<String, Integer> otherResults = other.play();
+				for (String strategy : results.getActors()) {
+					for (int place = 0; place < strategies.size(); place++) {
+						assertEquals(results.getCount(strategy, place), otherResults.getCount(strategy, place));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	final void testDiceApartFromChoices() {
+		// Deterministic strategies make no random choices, so only the dice matter.
+		List<String> strategies = Arrays.asList("FarStrategy", "NearStrategy", "RankingStrategy");
+		for (int seed = 0; seed < 5; seed++) {
+			EventCounter<String, Integer> results = new Game(new BaseStrategyFactory(), strategies, GameSpec.DEFAULT,
+					new SplittableRandom(seed), new SplittableRandom(1)).play();
+			EventCounter<String, Integer> otherResults = new Game(new BaseStrategyFactory(), strategies,
+					GameSpec.DEFAULT, new SplittableRandom(seed), new SplittableRandom(2)).play();
+			for (String strategy : strategies) {
+				for (int place = 0; place < strategies.size(); place++) {
+					assertEquals(results.getCount(strategy, place), otherResults.getCount(strategy, place));
+				}
+			}
+		}
+	}
+
+	@Test
+	final void testCollectCovariates() {
+		List<String> strategies = Arrays.asList("RandomStrategy", "FarStrategy", "NearStrategy", "RankingStrategy");
+		DenseEventCounter<String> counts = new DenseEventCounter<>(Covariate.values().length);
+		Game game = new Game(new BaseStrategyFactory(), strategies).collectCovariates(counts);
+		int games = 20;
+		for (int i = 0; i < games; i++) {
+			if (i > 0) {
+				game.reset();
+			}
+			game.play();
+		}
+		Covariate[] ordinals = Covariate.values();
+		EventCounter<String, Covariate> covariates = counts.toEventCounter(ordinal -> ordinals[ordinal]);
+		int starts = 0;
+		for (String strategy : strategies) {
+			assertEquals(games, covariates.getCount(strategy, Covariate.GAMES));
+			assertTrue(covariates.getCount(strategy, Covariate.ROLLS) > 0);
+			assertTrue(covariates.getCount(strategy, Covariate.TOP_ROLLS) <= covariates.getCount(strategy, Covariate.ROLLS));
+			assertTrue(covariates.getCount(strategy, Covariate.PIPS) >= covariates.getCount(strategy, Covariate.ROLLS));
+			starts += covariates.getCount(strategy, Covariate.STARTS);
+		}
+		assertEquals(games, starts);
+	}
+
 	@Test
 	final void testMain() {
 		Game.main();
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn;
+
+import static com.rttnghs.mejn.Layer.BEGIN;
+import static com.rttnghs.mejn.Layer.EVENT;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for MoveBuffer class.
+ */
+class MoveBufferTest {
+
+	@Test
+	void testAddAndGet() {
+		BoardGeometry geometry = BoardGeometry.of(40);
+		MoveBuffer buffer = new MoveBuffer(1);
+		assertNull(buffer.getGeometry());
+		buffer.reset(geometry);
+		assertSame(geometry, buffer.getGeometry());
+		assertTrue(buffer.isEmpty());
+
+		Position b34 = new Position(BEGIN, 34);
+		Position e0 = new Position(EVENT, 0);
+		Position e5 = new Position(EVENT, 5);
+		buffer.add(geometry.ordinal(b34), geometry.ordinal(e0));
+		buffer.add(geometry.ordinal(e0), geometry.ordinal(e5));
+		buffer.add(geometry.ordinal(e5), geometry.ordinal(e5));
+
+		assertEquals(3, buffer.size());
+		assertFalse(buffer.isEmpty());
+		assertEquals(geometry.ordinal(e0), buffer.from(1));
+		assertEquals(geometry.ordinal(e5), buffer.to(1));
+		assertSame(geometry.move(b34, e0), buffer.get(0));
+		assertEquals(List.of(new Move(b34, e0), new Move(e0, e5), new Move(e5, e5)), buffer.toList());
+		assertThrows(UnsupportedOperationException.class, () -> buffer.toList().removeFirst());
+		assertThrows(IndexOutOfBoundsException.class, () -> buffer.get(3));
+
+		buffer.copy(0, 2);
+		buffer.truncate(1);
+		assertEquals(List.of(new Move(e5, e5)), buffer.toList());
+		assertEquals("[<E5->E5>]", buffer.toString());
+
+		buffer.reset(geometry);
+		assertTrue(buffer.isEmpty());
+		assertThrows(IndexOutOfBoundsException.class, () -> buffer.from(0));
+	}
+
+	@Test
+	void testAsListAndIndexOf() {
+		BoardGeometry geometry = BoardGeometry.of(40);
+		MoveBuffer buffer = new MoveBuffer();
+		assertEquals(-1, buffer.indexOf(Move.of("<E0->E5>")));
+		List<Move> view = buffer.asList();
+		assertSame(view, buffer.asList());
+
+		buffer.reset(geometry);
+		buffer.add(geometry.ordinal(new Position(BEGIN, 34)), geometry.ordinal(new Position(EVENT, 0)));
+		buffer.add(geometry.ordinal(new Position(EVENT, 0)), geometry.ordinal(new Position(EVENT, 5)));
+		assertEquals(buffer.toList(), view);
+		assertEquals(1, buffer.indexOf(new Move(new Position(EVENT, 0), new Position(EVENT, 5))));
+		assertEquals(-1, buffer.indexOf(Move.of("<E5->E0>")));
+		assertEquals(-1, buffer.indexOf(null));
+		assertTrue(view.contains(Move.of("<B34->E0>")));
+		assertThrows(UnsupportedOperationException.class, () -> view.removeFirst());
+
+		// The view follows the buffer when it is refilled.
+		buffer.reset(geometry);
+		assertTrue(view.isEmpty());
+	}
+
+	/**
+	 * Plays random games and checks each turn that the buffer variant allows the
+	 * same moves as the list variant.
+	 */
+	@Test
+	void testBoardAllowedMoves() {
+		MoveBuffer buffer = new MoveBuffer();
+		for (int game = 0; game < 20; game++) {
+			Board board = new Board(List.of("strategy1", "strategy2", "strategy3", "strategy4"));
+			while (board.nextPlayer() >= 0) {
+				List<Move> allowedMoves = board.getAllowedMoves();
+				board.getAllowedMoves(buffer);
+				assertEquals(allowedMoves, buffer.toList());
+				if (!buffer.isEmpty()) {
+					board.move(buffer.get(game % buffer.size()));
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn;
+
+import static com.rttnghs.mejn.Layer.BEGIN;
+import static com.rttnghs.mejn.Layer.EVENT;
+import static com.rttnghs.mejn.Layer.HOME;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for MoveTable class.
+ */
+class MoveTableTest {
+
+	private static final int DOTS_PER_PLAYER = 10;
+	private static final int DIE_FACES = 6;
+
+	/**
+	 * The position arithmetic Board used before move tables, kept as reference.
+	 */
+	private static Move arithmeticMove(int player, Position from, int spots, int boardSize) {
+		Position start = new Position(EVENT, player * DOTS_PER_PLAYER).normalize(boardSize);
+		Position normalizedFrom = from.normalize(boardSize);
+		Position to = normalizedFrom.move(spots).normalize(boardSize);
+		if (player == 0) {
+			if (to.spot() < normalizedFrom.spot()) {
+				to = to.nextLayer();
+			}
+		} else {
+			if (normalizedFrom.spot() < start.spot() && start.spot() <= to.spot()) {
+				to = to.nextLayer();
+			}
+		}
+		return new Move(normalizedFrom, to);
+	}
+
+	@Test
+	void testMatchesArithmetic() {
+		for (int players : new int[] { 2, 4, 6 }) {
+			int boardSize = players * DOTS_PER_PLAYER;
+			MoveTable moveTable = MoveTable.of(BoardGeometry.of(boardSize), DOTS_PER_PLAYER, DIE_FACES);
+			for (int player = 0; player < players; player++) {
+				for (Layer layer : Layer.values()) {
+					for (int spot = -boardSize; spot < 2 * boardSize; spot++) {
+						Position from = new Position(layer, spot);
+						for (int spots = 0; spots <= DIE_FACES + 1; spots++) {
+							Move expected;
+							try {
+								expected = arithmeticMove(player, from, spots, boardSize);
+							} catch (IllegalStateException e) {
+								// Would leave the HOME layer.
+								expected = null;
+							}
+							assertEquals(expected, moveTable.move(player, from, spots),
+									players + " players, player " + player + " from " + from + " by " + spots);
+						}
+					}
+				}
+			}
+			assertNull(moveTable.move(players, new Position(BEGIN, 0), 1));
+			assertNull(moveTable.move(-1, new Position(BEGIN, 0), 1));
+		}
+	}
+
+	@Test
+	void testSharedInstances() {
+		BoardGeometry geometry = BoardGeometry.of(40);
+		MoveTable moveTable = MoveTable.of(geometry, DOTS_PER_PLAYER, DIE_FACES);
+		assertSame(moveTable, MoveTable.of(geometry, DOTS_PER_PLAYER, DIE_FACES));
+
+		Move move = moveTable.move(1, new Position(BEGIN, 4), 6);
+		assertEquals(new Move(new Position(BEGIN, 4), new Position(EVENT, 10)), move);
+		assertSame(geometry.move(new Position(BEGIN, 4), new Position(EVENT, 10)), move);
+		assertSame(move, moveTable.move(1, new Position(BEGIN, -36), 6));
+		assertEquals(new Move(new Position(EVENT, 38), new Position(HOME, 2)),
+				moveTable.move(0, new Position(EVENT, 38), 4));
+	}
+
+}
@@ -22,6 +22,7 @@ import static com.rttnghs.mejn.Layer.HOME;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -169,6 +170,10 @@ class MoveTest {
 
 		expected = new Move(b24, e30);
 		assertEquals(expected, shifted);
+
+		// Shifted moves are the canonical instances of the board geometry.
+		assertSame(shifted, move.shift(-10, 40));
+		assertSame(BoardGeometry.of(40).move(b24, e30), shifted);
 	}
 
 	@Test
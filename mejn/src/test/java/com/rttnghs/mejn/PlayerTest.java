@@ -17,10 +17,17 @@
 package com.rttnghs.mejn;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -28,6 +35,8 @@ import org.junit.jupiter.api.Test;
 import com.rttnghs.mejn.configuration.Config;
 import com.rttnghs.mejn.internal.BaseHistory;
 import com.rttnghs.mejn.strategy.BaseStrategyFactory;
+import com.rttnghs.mejn.strategy.Strategy;
+import com.rttnghs.mejn.strategy.Strategy.Capability;
 
 class PlayerTest {
 
@@ -46,4 +55,89 @@ class PlayerTest {
 		List<Player> players = Player.playersOf(new BaseStrategyFactory(), bracketStrategyNames, history);
 		assertEquals(4, players.size());
 	}
+
+	@Test
+	final void testForcedChoiceSkipsStrategy() {
+		Board board = new Board(List.of("one", "two", "three", "four"));
+		List<Move> only = List.of(Move.of("<B1->E1>"));
+
+		RecordingStrategy plain = new RecordingStrategy(EnumSet.noneOf(Capability.class));
+		assertEquals(only.getFirst(), new Player(plain, 1, 40).choose(only, board.getBoardState()));
+		assertEquals(0, plain.calls);
+
+		RecordingStrategy forced = new RecordingStrategy(EnumSet.of(Capability.FORCED_CHOICE));
+		assertEquals(only.getFirst(), new Player(forced, 1, 40).choose(only, board.getBoardState()));
+		assertEquals(1, forced.calls);
+	}
+
+	@Test
+	final void testBoardStateOnlyWhenRead() {
+		Board board = new Board(List.of("one", "two", "three", "four"));
+		List<Move> choices = List.of(Move.of("<B1->E1>"), Move.of("<E1->E2>"));
+
+		RecordingStrategy blind = new RecordingStrategy(EnumSet.noneOf(Capability.class));
+		new Player(blind, 2, 40).choose(choices, board.getBoardState());
+		assertEquals(1, blind.calls);
+		assertNull(blind.state);
+
+		RecordingStrategy reading = new RecordingStrategy(EnumSet.of(Capability.BOARD_STATE));
+		new Player(reading, 2, 40).choose(choices, board.getBoardState());
+		assertNotNull(reading.state);
+		assertEquals(board.getBoardState().shift(2), reading.state);
+	}
+
+	@Test
+	final void testNeedsHistory() {
+		assertTrue(new Player(new RecordingStrategy(EnumSet.of(Capability.HISTORY)), 0, 40).needsHistory());
+		assertFalse(new Player(new RecordingStrategy(EnumSet.noneOf(Capability.class)), 0, 40).needsHistory());
+		// Strategies that say nothing are assumed to read everything.
+		assertTrue(new Player(new RecordingStrategy(null), 0, 40).needsHistory());
+
+		List<Player> players = Player.playersOf(new BaseStrategyFactory(),
+				List.of("NearStrategy", "FarStrategy", "RandomStrategy", "RankingStrategy"),
+				new BaseHistory<>(16));
+		assertTrue(players.stream().noneMatch(Player::needsHistory));
+	}
+
+	/**
+	 * Strategy that remembers how it was called, and picks the first choice.
+	 */
+	private static final class RecordingStrategy implements Strategy {
+		private final Set<Capability> capabilities;
+		private int calls;
+		private BoardState state;
+
+		/**
+		 * @param capabilities to report, or null for the default.
+		 */
+		RecordingStrategy(Set<Capability> capabilities) {
+			this.capabilities = capabilities;
+		}
+
+		@Override
+		public String getName() {
+			return "RecordingStrategy";
+		}
+
+		@Override
+		public Strategy initialize(Supplier<History<Move>> historySupplier) {
+			return this;
+		}
+
+		@Override
+		public Move choose(List<Move> choices, BoardState boardState) {
+			calls++;
+			state = boardState;
+			return choices.getFirst();
+		}
+
+		@Override
+		public void finalize(int position) {
+		}
+
+		@Override
+		public Set<Capability> getCapabilities() {
+			return (capabilities == null) ? Strategy.super.getCapabilities() : capabilities;
+		}
+	}
 }
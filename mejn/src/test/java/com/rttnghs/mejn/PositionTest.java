@@ -172,4 +172,18 @@ class PositionTest {
 		assertThrows(IllegalStateException.class, h13::nextLayer);
 	}
 
+	@Test
+	void testValueOf() {
+		assertSame(Position.valueOf(EVENT, 3), Position.valueOf(EVENT, 3));
+		assertSame(Position.valueOf(BEGIN, -6), Position.of("B-6"));
+		assertSame(Position.valueOf(EVENT, 0), forty.normalize(40));
+		assertSame(Position.valueOf(HOME, 3), three.nextLayer());
+		assertEquals(three, Position.valueOf(EVENT, 3));
+
+		// Outside the cached range a new instance is created every time.
+		Position far = Position.valueOf(EVENT, Position.MAX_CACHED_SPOT + 1);
+		assertEquals(new Position(EVENT, Position.MAX_CACHED_SPOT + 1), far);
+		assertNotSame(far, Position.valueOf(EVENT, Position.MAX_CACHED_SPOT + 1));
+	}
+
 }
@@ -17,6 +17,7 @@
 package com.rttnghs.mejn;
 
 import com.rttnghs.mejn.configuration.Config;
+import com.rttnghs.mejn.configuration.GameSpec;
 import com.rttnghs.mejn.internal.BaseBoardState;
 import org.junit.jupiter.api.Test;
 
@@ -26,6 +27,7 @@ import java.util.List;
 
 import static com.rttnghs.mejn.Layer.BEGIN;
 import static com.rttnghs.mejn.Layer.EVENT;
+import static com.rttnghs.mejn.Layer.HOME;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -99,7 +101,79 @@ class RuleEvaluatorTest {
         assertEquals(List.of(toStart), allowed);
         assertThrows(UnsupportedOperationException.class, allowed::removeFirst);
     }
-}
 
+    @Test
+    void testEvaluateBufferMatchesList() {
+        int dotsPerPlayer = Config.value.dotsPerPlayer();
+        int dieFaces = Config.value.dieFaces();
+        int boardSize = 2 * dotsPerPlayer;
+        BoardGeometry geometry = BoardGeometry.of(boardSize);
+
+        Position playerZeroBegin = new Position(BEGIN, -dieFaces).normalize(boardSize);
+        Position playerOneBegin = new Position(BEGIN, -dieFaces + dotsPerPlayer).normalize(boardSize);
+        List<Position> beginPositions = new ArrayList<>(List.of(playerZeroBegin, playerOneBegin));
+
+        BaseBoardState state = new BaseBoardState(boardSize, dotsPerPlayer, 2, beginPositions);
+        Position start = new Position(EVENT, 0);
+        RuleEvaluator evaluator = new RuleEvaluator(start);
+        Move toStart = new Move(playerZeroBegin, start);
+        Move fromStart = new Move(start, new Position(EVENT, dieFaces));
+        Move stationary = new Move(playerZeroBegin, playerZeroBegin);
+        Move otherLegalMove = new Move(new Position(EVENT, 3), new Position(EVENT, 5));
+
+        List<List<Move>> cases = List.of(List.of(), List.of(stationary), List.of(otherLegalMove),
+                List.of(stationary, otherLegalMove), List.of(toStart, otherLegalMove),
+                List.of(otherLegalMove, toStart, fromStart));
+        MoveBuffer buffer = new MoveBuffer(1);
+        for (List<Move> moves : cases) {
+            buffer.reset(geometry);
+            for (Move move : moves) {
+                buffer.add(geometry.ordinal(move.from()), geometry.ordinal(move.to()));
+            }
+            evaluator.evaluate(state, buffer);
+            assertEquals(evaluator.evaluate(state, moves), buffer.toList(), moves.toString());
+        }
+    }
+
+    @Test
+    void testSelfStrikeFollowsSpec() {
+        GameSpec spec = GameSpec.DEFAULT;
+        int dotsPerPlayer = spec.dotsPerPlayer();
+        int boardSize = 2 * dotsPerPlayer;
+
+        Position playerZeroBegin = new Position(BEGIN, -spec.dieFaces()).normalize(boardSize);
+        Position playerOneBegin = new Position(BEGIN, -spec.dieFaces() + dotsPerPlayer).normalize(boardSize);
+        List<Position> beginPositions = new ArrayList<>(List.of(playerZeroBegin, playerOneBegin));
+
+        BaseBoardState state = new BaseBoardState(boardSize, dotsPerPlayer, 2, beginPositions);
+        state.move(new Move(playerZeroBegin, new Position(EVENT, 2)));
+        state.move(new Move(playerZeroBegin, new Position(EVENT, 5)));
+        Position start = new Position(EVENT, 0);
+        List<Move> selfStrike = List.of(new Move(new Position(EVENT, 2), new Position(EVENT, 5)));
 
+        RuleEvaluator allowing = new RuleEvaluator(start, spec.withSelfStrikeAllowed(true));
+        RuleEvaluator forbidding = new RuleEvaluator(start, spec.withSelfStrikeAllowed(false));
+        assertEquals(selfStrike, allowing.evaluate(state, selfStrike));
+        assertEquals(List.of(), forbidding.evaluate(state, selfStrike));
+    }
 
+    @Test
+    void testHomeWrapIsOutOfBounds() {
+        GameSpec spec = new GameSpec(6, 4, 8, true);
+        int boardSize = spec.boardSize(2);
+        List<Position> beginPositions = new ArrayList<>(List.of(new Position(BEGIN, 10), new Position(BEGIN, 2)));
+        BaseBoardState state = new BaseBoardState(boardSize, spec.dotsPerPlayer(), spec.pawnsPerPlayer(), beginPositions);
+
+        // Player 1 starts at 8, its home is H8 to H11. Moving on from H11 wraps past the end of the board.
+        RuleEvaluator evaluator = new RuleEvaluator(new Position(EVENT, 8), spec);
+        Move intoHome = new Move(new Position(EVENT, 6), new Position(HOME, 11));
+        Move wrapped = new Move(new Position(HOME, 11), new Position(HOME, 1));
+        assertEquals(List.of(intoHome), evaluator.evaluate(state, List.of(intoHome, wrapped)));
+
+        // Player 0 starts at 0, its home is H0 to H3.
+        RuleEvaluator first = new RuleEvaluator(new Position(EVENT, 0), spec);
+        Move lastHome = new Move(new Position(EVENT, 14), new Position(HOME, 3));
+        Move pastHome = new Move(new Position(EVENT, 15), new Position(HOME, 4));
+        assertEquals(List.of(lastHome), first.evaluate(state, List.of(lastHome, pastHome)));
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class SeededRandomTest {
+
+	@Test
+	final void testSameLongsAsSplittableRandom() {
+		for (long seed : new long[] { 0, 1, -1, 42, Long.MIN_VALUE }) {
+			SeededRandom random = new SeededRandom(seed);
+			SplittableRandom expected = new SplittableRandom(seed);
+			for (int draw = 0; draw < 100; draw++) {
+				assertEquals(expected.nextLong(), random.nextLong());
+			}
+		}
+	}
+
+	@Test
+	final void testReseedRestartsStream() {
+		SeededRandom random = new SeededRandom(7);
+		long first = random.nextLong();
+		long second = random.nextLong();
+		random.nextLong();
+		assertEquals(first, random.reseed(7).nextLong());
+		assertEquals(second, random.nextLong());
+	}
+
+	@Test
+	final void testDeriveGivesDistinctSeeds() {
+		Set<Long> seeds = new HashSet<>();
+		for (int bracket = 0; bracket < 24; bracket++) {
+			for (int round = 0; round < 100; round++) {
+				assertTrue(seeds.add(SeededRandom.derive(42, bracket, round)));
+			}
+		}
+		assertEquals(SeededRandom.derive(SeededRandom.derive(42, 3), 5), SeededRandom.derive(42, 3, 5));
+		assertNotEquals(SeededRandom.derive(42, 3, 5), SeededRandom.derive(42, 5, 3));
+		assertNotEquals(SeededRandom.derive(42, 0), SeededRandom.derive(43, 0));
+	}
+
+}
@@ -17,17 +17,24 @@
 package com.rttnghs.mejn;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.Test;
 
+import com.rttnghs.mejn.configuration.GameSpec;
+import com.rttnghs.mejn.statistics.ConcurrentEventCounter;
+import com.rttnghs.mejn.statistics.Covariate;
 import com.rttnghs.mejn.statistics.EventCounter;
 import com.rttnghs.mejn.strategy.BaseStrategyFactory;
 
@@ -47,6 +54,94 @@ class TournamentTest {
         logger.info("Tournament took {} millis", interval.toMillis());
 	}
 
+	@Test
+	final void testSeededTournamentsRepeat() throws InterruptedException, ExecutionException {
+		List<String> strategies = Arrays.asList("RandomStrategy", "FarStrategy", "NearStrategy", "RankingStrategy");
+		long seed = SeededRandom.derive(42, 1, 2);
+		EventCounter<String, Integer> whole = new Tournament(new BaseStrategyFactory(), strategies, 12,
+				GameSpec.DEFAULT, seed).play();
+		assertSameCounts(whole, new Tournament(new BaseStrategyFactory(), strategies, 12, GameSpec.DEFAULT, seed).play(),
+				strategies);
+
+		// The same games split in parts on other threads.
+		List<CompletableFuture<EventCounter<String, Integer>>> parts = new ArrayList<>();
+		for (int firstGame = 0; firstGame < 12; firstGame += 5) {
+			Tournament part = new Tournament(new BaseStrategyFactory(), strategies, Math.min(5, 12 - firstGame),
+					GameSpec.DEFAULT, seed, firstGame);
+			parts.add(CompletableFuture.supplyAsync(part::play));
+		}
+		EventCounter<String, Integer> merged = new EventCounter<>();
+		for (CompletableFuture<EventCounter<String, Integer>> part : parts) {
+			merged.add(part.get());
+		}
+		assertSameCounts(whole, merged, strategies);
+	}
+
+	@Test
+	final void testForkedGamesSameAsSequential() {
+		List<String> strategies = Arrays.asList("RandomStrategy", "FarStrategy", "NearStrategy", "RankingStrategy");
+		long seed = SeededRandom.derive(7, 0, 0);
+		int games = 4 * Tournament.GAMES_PER_TASK + 3;
+		Tournament forked = new Tournament(new BaseStrategyFactory(), strategies, games, GameSpec.DEFAULT, seed)
+				.collectCovariates();
+		EventCounter<String, Integer> whole = forked.play();
+
+		// Parts too small to fork play their games one after the other.
+		EventCounter<String, Integer> merged = new EventCounter<>();
+		EventCounter<String, Covariate> covariates = new EventCounter<>();
+		for (int firstGame = 0; firstGame < games; firstGame += Tournament.GAMES_PER_TASK) {
+			Tournament part = new Tournament(new BaseStrategyFactory(), strategies,
+					Math.min(Tournament.GAMES_PER_TASK, games - firstGame), GameSpec.DEFAULT, seed, firstGame)
+					.collectCovariates();
+			merged.add(part.play());
+			covariates.add(part.getCovariateCounts());
+		}
+		assertSameCounts(whole, merged, strategies);
+		for (String strategy : strategies) {
+			assertEquals(games, forked.getCovariateCounts().getCount(strategy, Covariate.GAMES));
+			for (Covariate covariate : Covariate.values()) {
+				assertEquals(covariates.getCount(strategy, covariate), forked.getCovariateCounts().getCount(strategy, covariate));
+			}
+		}
+	}
+
+	@Test
+	final void testPublishTo() throws InterruptedException, ExecutionException {
+		List<String> strategies = Arrays.asList("RandomStrategy", "FarStrategy", "NearStrategy", "RankingStrategy");
+		ConcurrentEventCounter<String> shared = new ConcurrentEventCounter<>(strategies.size());
+		List<CompletableFuture<EventCounter<String, Integer>>> brackets = new ArrayList<>();
+		for (int bracket = 0; bracket < 3; bracket++) {
+			Tournament tournament = new Tournament(new BaseStrategyFactory(), strategies, 2 * Tournament.GAMES_PER_TASK + 5,
+					GameSpec.DEFAULT, SeededRandom.derive(3, bracket, 0)).publishTo(shared);
+			brackets.add(CompletableFuture.supplyAsync(tournament::play));
+		}
+		EventCounter<String, Integer> merged = new EventCounter<>();
+		for (CompletableFuture<EventCounter<String, Integer>> bracket : brackets) {
+			merged.add(bracket.get());
+		}
+		assertSameCounts(merged, shared.snapshot(Integer::valueOf), strategies);
+		assertThrows(IllegalArgumentException.class, () -> new Tournament(new BaseStrategyFactory(), strategies, 1)
+				.publishTo(new ConcurrentEventCounter<>(2)));
+	}
+
+	@Test
+	final void testBracketSeed() {
+		assertEquals(Tournament.bracketSeed(42, 0, 3, true), Tournament.bracketSeed(42, 5, 3, true));
+		assertEquals(SeededRandom.derive(42, 5, 3), Tournament.bracketSeed(42, 5, 3, false));
+		assertNotEquals(Tournament.bracketSeed(42, 0, 3, false), Tournament.bracketSeed(42, 5, 3, false));
+		assertNotEquals(Tournament.bracketSeed(42, 0, 3, true), Tournament.bracketSeed(42, 0, 4, true));
+	}
+
+	private static void assertSameCounts(EventCounter<String, Integer> expected, EventCounter<String, Integer> actual,
+			List<String> strategies) {
+		for (String strategy : strategies) {
+			for (int place = 0; place < strategies.size(); place++) {
+				assertEquals(expected.getCount(strategy, place), actual.getCount(strategy, place),
+						strategy + " place " + place);
+			}
+		}
+	}
+
 	@Test
 	final void testGetStrategyNames() {
 		List<String> strategyNames = Tournament.getStrategyNames();
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class GameSpecTest {
+
+	@Test
+	final void testDefault() {
+		GameSpec spec = GameSpec.DEFAULT;
+		assertEquals(Config.value.dieFaces(), spec.dieFaces());
+		assertEquals(Config.value.pawnsPerPlayer(), spec.pawnsPerPlayer());
+		assertEquals(Config.value.dotsPerPlayer(), spec.dotsPerPlayer());
+		assertEquals(Config.configuration.getBoolean("isSelfStrikeAllowed"), spec.selfStrikeAllowed());
+		assertEquals(4 * Config.value.dotsPerPlayer(), spec.boardSize(4));
+	}
+
+	@Test
+	final void testGameSpec() {
+		assertThrows(IllegalArgumentException.class, () -> new GameSpec(0, 4, 10, false));
+		assertThrows(IllegalArgumentException.class, () -> new GameSpec(6, 5, 4, true));
+		assertThrows(IllegalArgumentException.class, () -> new GameSpec(6, 6, 8, false));
+
+		GameSpec spec = GameSpec.of(new Config(6, 4, 8), false);
+		assertEquals(new GameSpec(6, 4, 8, false), spec);
+		assertEquals(48, spec.boardSize(6));
+
+		GameSpec selfStrike = spec.withSelfStrikeAllowed(true);
+		assertTrue(selfStrike.selfStrikeAllowed());
+		assertFalse(spec.selfStrikeAllowed());
+		assertEquals(spec.dotsPerPlayer(), selfStrike.dotsPerPlayer());
+	}
+
+}
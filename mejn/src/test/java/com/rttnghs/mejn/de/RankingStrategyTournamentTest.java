@@ -66,6 +66,19 @@ class RankingStrategyTournamentTest {
         assertDoesNotThrow(() -> runner.runBracket(bracket, 5));
     }
 
+    @Test
+    void runBracket_seededRangesRepeat() {
+        List<List<Integer>> bracket = List.of(competitor(5), competitor(3), competitor(7), competitor(2));
+        assertEquals(runner.runBracket(bracket, 20, 42, 100), runner.runBracket(bracket, 20, 42, 100));
+    }
+
+    @Test
+    void runBracket_forkedGamesRepeat() {
+        // Enough games to be split over tasks, each with strategies of its own.
+        List<List<Integer>> bracket = List.of(competitor(5), competitor(3), competitor(7), competitor(2));
+        assertEquals(runner.runBracket(bracket, 300, 42, 0), runner.runBracket(bracket, 300, 42, 0));
+    }
+
     @Test
     void runBracket_throwsOnEmptyBracket() {
         assertThrows(IllegalArgumentException.class,
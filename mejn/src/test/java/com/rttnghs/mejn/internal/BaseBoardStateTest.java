@@ -16,9 +16,11 @@
  */
 package com.rttnghs.mejn.internal;
 
+import com.rttnghs.mejn.Board;
 import com.rttnghs.mejn.BoardState;
 import com.rttnghs.mejn.Move;
 import com.rttnghs.mejn.Position;
+import com.rttnghs.mejn.strategy.RandomStrategy;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.Test;
@@ -415,6 +417,26 @@ class BaseBoardStateTest {
         assertEquals(1, bs.getPlayerCount());
     }
 
+    /**
+     * A player without a pawn in BEGIN is struck back to where the board of the
+     * die places it, the same as on a packed state started by that board.
+     */
+    @Test
+    final void testStrikeBackWithoutBeginPawn() {
+        BaseBoardState boardState = (BaseBoardState) TestBoardState.of("(40)[P0={E1};P1={B2}]", 10, 8);
+        boardState.move(getMove(BEGIN, 2, EVENT, 1));
+        assertEquals("(40)[P0={B32};P1={E1}]", boardState.toString());
+
+        PackedBoardState packedState = new PackedBoardState(40, 10, 1, List.of(new Position(BEGIN, 32), new Position(BEGIN, 2)));
+        packedState.move(getMove(BEGIN, 32, EVENT, 1));
+        packedState.move(getMove(BEGIN, 2, EVENT, 1));
+        assertEquals(packedState.toString(), boardState.toString());
+
+        boardState = (BaseBoardState) TestBoardState.of("(40)[P0={E1};P1={B4}]", 10);
+        boardState.move(getMove(BEGIN, 4, EVENT, 1));
+        assertEquals("(40)[P0={B34};P1={E1}]", boardState.toString());
+    }
+
     // Create a test for boardState.getPositions that tries to modify the returned list to confirm it throws  a UnsupportedOperationException exception.
     @Test
     final void testGetPositions() {
@@ -432,4 +454,240 @@ class BaseBoardStateTest {
         assertThrows(UnsupportedOperationException.class, () -> morePositions.addFirst(new Position(HOME, 0)));
     }
 
+    @Test
+    final void testLayerCounts() {
+        List<Position> beginPositionsTwo = new ArrayList<>(2);
+        beginPositionsTwo.add(new Position(BEGIN, 14));
+        beginPositionsTwo.add(new Position(BEGIN, 4));
+        BaseBoardState boardState = new BaseBoardState(40, 10, 3, beginPositionsTwo);
+
+        assertEquals(3, boardState.getBeginCount(0));
+        assertEquals(0, boardState.getOnBoardCount(0));
+        assertEquals(0, boardState.getHomeCount(0));
+        assertEquals(0, boardState.getBeginCount(2));
+        assertEquals(0, boardState.getHomeCount(-1));
+
+        boardState.move(getMove(BEGIN, 14, EVENT, 0));
+        boardState.move(getMove(BEGIN, 4, EVENT, 10));
+        boardState.move(getMove(EVENT, 10, HOME, 11));
+        assertEquals(2, boardState.getBeginCount(0));
+        assertEquals(1, boardState.getOnBoardCount(0));
+        assertEquals(2, boardState.getBeginCount(1));
+        assertEquals(0, boardState.getOnBoardCount(1));
+        assertEquals(1, boardState.getHomeCount(1));
+
+        // A strike sends the pawn back to begin.
+        boardState.move(getMove(BEGIN, 4, EVENT, 10));
+        boardState.move(getMove(EVENT, 10, EVENT, 0));
+        assertEquals(3, boardState.getBeginCount(0));
+        assertEquals(0, boardState.getOnBoardCount(0));
+        assertEquals(1, boardState.getOnBoardCount(1));
+
+        // Moves without a pawn on from do not count.
+        boardState.move(getMove(EVENT, 5, HOME, 1));
+        assertEquals(0, boardState.getHomeCount(0));
+
+        BoardState shiftedState = boardState.shift(1);
+        assertEquals(1, shiftedState.getHomeCount(0));
+        assertEquals(3, shiftedState.getBeginCount(1));
+        assertEquals(0, shiftedState.getOnBoardCount(2));
+        assertTrue(boardState.isFinished(2));
+    }
+
+    @Test
+    final void testUnmove() {
+        List<Position> beginPositionsTwo = new ArrayList<>(2);
+        beginPositionsTwo.add(new Position(BEGIN, 14));
+        beginPositionsTwo.add(new Position(BEGIN, 4));
+        BaseBoardState boardState = new BaseBoardState(40, 10, 3, beginPositionsTwo);
+        BaseBoardState boardStateCopy = new BaseBoardState(40, 10, 3, beginPositionsTwo);
+
+        assertEquals(UndoToken.NONE, boardState.move(null));
+        assertEquals(UndoToken.NONE, boardState.move(getMove(EVENT, 7, EVENT, 9)));
+        boardState.unmove(UndoToken.NONE);
+        assertEquals(boardStateCopy, boardState);
+
+        long first = boardState.move(getMove(BEGIN, 14, EVENT, 0));
+        long second = boardState.move(getMove(BEGIN, 4, EVENT, 10));
+        long third = boardState.move(getMove(EVENT, 0, EVENT, 10));
+        assertEquals("(40)[P0={B14,B14,E10};P1={B4,B4,B4}]", boardState.toString());
+        long fourth = boardState.move(getMove(BEGIN, 14, EVENT, 10));
+        assertEquals("(40)[P0={B14,B14,E10};P1={B4,B4,B4}]", boardState.toString());
+
+        // Take back the self strike, the strike and the moves.
+        boardState.unmove(fourth);
+        assertEquals("(40)[P0={B14,B14,E10};P1={B4,B4,B4}]", boardState.toString());
+        boardState.unmove(third);
+        assertEquals("(40)[P0={B14,B14,E0};P1={B4,B4,E10}]", boardState.toString());
+        assertEquals(1, boardState.getOnBoardCount(1));
+        boardState.unmove(second);
+        boardState.unmove(first);
+        assertEquals(boardStateCopy, boardState);
+        assertEquals(boardStateCopy.hashCode(), boardState.hashCode());
+        assertEquals(3, boardState.getBeginCount(0));
+    }
+
+    /**
+     * Ordinals of boards over 341 spots no longer fit in 10 bits, which must not
+     * corrupt the state when moves are taken back.
+     */
+    @Test
+    final void testUnmoveLargeBoard() {
+        List<Position> beginPositionsTwo = List.of(new Position(BEGIN, 694), new Position(BEGIN, 344));
+        BaseBoardState boardState = new BaseBoardState(700, 350, 2, beginPositionsTwo);
+        BaseBoardState boardStateCopy = new BaseBoardState(700, 350, 2, beginPositionsTwo);
+
+        long first = boardState.move(getMove(BEGIN, 694, EVENT, 600));
+        long second = boardState.move(getMove(BEGIN, 344, EVENT, 590));
+        long third = boardState.move(getMove(EVENT, 590, EVENT, 600));
+        long fourth = boardState.move(getMove(EVENT, 600, HOME, 650));
+        assertEquals("(700)[P0={B694,B694};P1={B344,H650}]", boardState.toString());
+
+        boardState.unmove(fourth);
+        assertEquals("(700)[P0={B694,B694};P1={B344,E600}]", boardState.toString());
+        boardState.unmove(third);
+        assertEquals("(700)[P0={B694,E600};P1={B344,E590}]", boardState.toString());
+        boardState.unmove(second);
+        boardState.unmove(first);
+        assertEquals(boardStateCopy, boardState);
+        assertEquals(boardStateCopy.hashCode(), boardState.hashCode());
+    }
+
+    @Test
+    final void testTooLargeToUnmove() {
+        List<Position> beginPositions = List.of(new Position(BEGIN, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BaseBoardState(30000, 30000, 1, beginPositions));
+    }
+
+    /**
+     * Every allowed move of random games is made and taken back before the game
+     * goes on, which must leave the state as it was.
+     */
+    @Test
+    final void testUnmoveRandomGames() {
+        for (int game = 0; game < 10; game++) {
+            Board board = new Board(List.of("strategy1", "strategy2", "strategy3", "strategy4"),
+                    Board.StateEncoding.LIST);
+            MutableBoardState boardState = (MutableBoardState) board.getBoardState();
+            while (board.nextPlayer() >= 0) {
+                List<Move> allowedMoves = board.getAllowedMoves();
+                if (allowedMoves.isEmpty()) {
+                    continue;
+                }
+                String before = boardState.toString();
+                int homeCount = boardState.getHomeCount(board.getCurrentPlayer());
+                for (Move move : allowedMoves) {
+                    boardState.unmove(boardState.move(move));
+                    assertEquals(before, boardState.toString());
+                    assertEquals(homeCount, boardState.getHomeCount(board.getCurrentPlayer()));
+                }
+                board.move(RandomStrategy.choose(allowedMoves));
+            }
+        }
+    }
+
+    @Test
+    final void testZobristKey() {
+        List<Position> beginPositionsFour = new ArrayList<>(4);
+        beginPositionsFour.add(new Position(BEGIN, 34));
+        beginPositionsFour.add(new Position(BEGIN, 4));
+        beginPositionsFour.add(new Position(BEGIN, 14));
+        beginPositionsFour.add(new Position(BEGIN, 24));
+        BaseBoardState boardState = new BaseBoardState(40, 10, 4, beginPositionsFour);
+        BaseBoardState otherState = new BaseBoardState(40, 10, 4, beginPositionsFour);
+        long initialKey = boardState.getZobristKey();
+        assertEquals(initialKey, otherState.getZobristKey());
+        assertEquals(boardState.hashCode(), otherState.hashCode());
+
+        // The same positions reached in a different order have the same key.
+        boardState.move(getMove(BEGIN, 34, EVENT, 0));
+        assertNotEquals(initialKey, boardState.getZobristKey());
+        boardState.move(getMove(BEGIN, 4, EVENT, 10));
+        otherState.move(getMove(BEGIN, 4, EVENT, 10));
+        otherState.move(getMove(BEGIN, 34, EVENT, 0));
+        assertEquals(otherState.getZobristKey(), boardState.getZobristKey());
+        assertEquals(otherState, boardState);
+
+        // A strike and taking it back.
+        long beforeStrike = boardState.getZobristKey();
+        long strike = boardState.move(getMove(EVENT, 0, EVENT, 10));
+        assertNotEquals(beforeStrike, boardState.getZobristKey());
+        boardState.unmove(strike);
+        assertEquals(beforeStrike, boardState.getZobristKey());
+
+        // A shifted perspective has the key of a state with its pawns on those positions.
+        boardState.move(getMove(EVENT, 10, HOME, 11));
+        for (int player = 0; player < 4; player++) {
+            BoardState shiftedState = boardState.shift(player);
+            StringBuilder shiftedString = new StringBuilder("(40)[");
+            for (int shiftedPlayer = 0; shiftedPlayer < 4; shiftedPlayer++) {
+                List<String> positions = shiftedState.getPositions(shiftedPlayer).stream().map(Position::toString).toList();
+                shiftedString.append("P").append(shiftedPlayer).append("={").append(String.join(",", positions)).append("}");
+                shiftedString.append((shiftedPlayer < 3) ? ";" : "]");
+            }
+            BoardState expectedState = TestBoardState.of(shiftedString.toString(), 10);
+            assertEquals(expectedState.getZobristKey(), shiftedState.getZobristKey(), shiftedString.toString());
+        }
+        assertEquals(boardState.getZobristKey(), boardState.getZobristKey(4));
+    }
+
+    @Test
+    final void testSnapshot() {
+        List<Position> beginPositionsTwo = new ArrayList<>(2);
+        beginPositionsTwo.add(new Position(BEGIN, 14));
+        beginPositionsTwo.add(new Position(BEGIN, 4));
+        BaseBoardState boardState = new BaseBoardState(40, 10, 3, beginPositionsTwo);
+        boardState.move(getMove(BEGIN, 14, EVENT, 0));
+
+        BoardState snapshot = boardState.snapshot();
+        assertSame(snapshot, boardState.snapshot());
+        assertSame(snapshot, ((MutableBoardState) snapshot).snapshot());
+        assertEquals(boardState, snapshot);
+        String expected = "(40)[P0={B14,B14,E0};P1={B4,B4,B4}]";
+        long key = snapshot.getZobristKey();
+
+        // Moves on the state do not show in the snapshot.
+        boardState.move(getMove(BEGIN, 4, EVENT, 10));
+        long strike = boardState.move(getMove(EVENT, 0, EVENT, 10));
+        assertEquals(expected, snapshot.toString());
+        assertEquals(key, snapshot.getZobristKey());
+        assertEquals(1, snapshot.getOnBoardCount(0));
+        assertEquals(0, snapshot.getOnBoardCount(1));
+        assertEquals(0, snapshot.getPlayer(new Position(EVENT, 0)));
+        assertEquals(new Position(EVENT, 30), snapshot.shift(1).getPosition(1, 2));
+        assertNotSame(snapshot, boardState.snapshot());
+        assertEquals("(40)[P0={B14,B14,E10};P1={B4,B4,B4}]", boardState.snapshot().toString());
+
+        boardState.unmove(strike);
+        assertEquals(expected, snapshot.toString());
+        assertThrows(UnsupportedOperationException.class,
+                () -> ((MutableBoardState) snapshot).move(getMove(EVENT, 0, EVENT, 1)));
+        assertThrows(UnsupportedOperationException.class, () -> ((MutableBoardState) snapshot).unmove(strike));
+    }
+
+    @Test
+    final void testReset() {
+        List<Position> beginPositionsTwo = new ArrayList<>(2);
+        beginPositionsTwo.add(new Position(BEGIN, 14));
+        beginPositionsTwo.add(new Position(BEGIN, 4));
+        BaseBoardState fresh = new BaseBoardState(40, 10, 3, beginPositionsTwo);
+        BaseBoardState boardState = new BaseBoardState(40, 10, 3, beginPositionsTwo);
+        boardState.move(getMove(BEGIN, 14, EVENT, 0));
+        boardState.move(getMove(BEGIN, 4, EVENT, 10));
+        boardState.move(getMove(EVENT, 0, EVENT, 10));
+        BoardState snapshot = boardState.snapshot();
+
+        boardState.reset();
+        assertEquals(fresh, boardState);
+        assertEquals(fresh.getZobristKey(), boardState.getZobristKey());
+        assertEquals(fresh.getZobristKey(1), boardState.getZobristKey(1));
+        assertEquals(3, boardState.getBeginCount(1));
+        assertEquals("(40)[P0={B14,B14,E10};P1={B4,B4,B4}]", snapshot.toString());
+
+        // Moves go on from the reset state as from a new one.
+        boardState.move(getMove(BEGIN, 14, EVENT, 0));
+        fresh.move(getMove(BEGIN, 14, EVENT, 0));
+        assertEquals(fresh, boardState);
+        assertEquals(fresh.getZobristKey(), boardState.getZobristKey());
+    }
 }
@@ -128,4 +128,16 @@ class BaseHistoryTest {
 
 	}
 
+
+	@Test
+	final void testGetAndLast() {
+		BaseHistory<Integer> history = new BaseHistory<>(Arrays.asList(1, 2, 3, 4));
+		assertEquals(3, history.get(2));
+		assertEquals(List.of(3, 4), history.last(2));
+		assertEquals(List.of(1, 2, 3, 4), history.last(10));
+
+		History<Integer> squared = history.getSupplier(x -> x * x).get();
+		assertEquals(9, squared.get(2));
+		assertEquals(List.of(16), squared.last(1));
+	}
 }
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.rttnghs.mejn.Move;
+import com.rttnghs.mejn.PlayerHistory;
+
+class MoveHistoryTest {
+
+	private static final List<Move> MOVES = List.of(Move.of("<B0->E0>"), Move.of("<B10->E10>"), Move.of("<E0->E6>"),
+			Move.of("<E10->E13>"), Move.of("<E6->E11>"));
+
+	private static MoveHistory filled(int limit) {
+		MoveHistory history = new MoveHistory(40, 4, limit);
+		for (int index = 0; index < MOVES.size(); index++) {
+			history.add(index % 2, MOVES.get(index));
+		}
+		return history;
+	}
+
+	@Test
+	final void testGetAndLast() {
+		MoveHistory history = filled(0);
+		assertFalse(history.add(0, null));
+		assertEquals(5, history.size());
+		assertEquals(MOVES, history.stream().toList());
+		assertEquals(MOVES.reversed(), history.reverseStream().toList());
+		for (int index = 0; index < MOVES.size(); index++) {
+			assertSame(MOVES.get(index).shift(0, 40), history.get(index));
+		}
+		assertEquals(MOVES.subList(3, 5), history.last(2));
+		assertEquals(MOVES, history.last(9));
+		assertEquals(List.of(), history.last(0));
+		assertThrows(IndexOutOfBoundsException.class, () -> history.get(5));
+	}
+
+	@Test
+	final void testOfPlayer() {
+		MoveHistory history = filled(0);
+		assertEquals(List.of(MOVES.get(0), MOVES.get(2), MOVES.get(4)), history.ofPlayer(0).stream().toList());
+		assertEquals(List.of(MOVES.get(1), MOVES.get(3)), history.ofPlayer(1).stream().toList());
+		assertEquals(0, history.ofPlayer(3).size());
+	}
+
+	@Test
+	final void testShiftedView() {
+		MoveHistory history = filled(0);
+		// Player 1 sees itself as player 0, with its start on spot 0.
+		// Strategies are handed a History, which knows the players of the moves.
+		PlayerHistory<Move> view = (PlayerHistory<Move>) history.getSupplier(1, Move.shifter(-10, 40)).get();
+		assertEquals(MOVES.stream().map(move -> move.shift(-10, 40)).toList(), view.stream().toList());
+		assertEquals(Move.of("<E0->E3>"), view.ofPlayer(0).get(1));
+		assertEquals(Move.of("<E30->E36>"), view.ofPlayer(3).get(1));
+		assertEquals(List.of(Move.of("<E36->E1>")), view.last(1));
+
+		// Views follow the history as it grows.
+		history.add(2, Move.of("<B20->E20>"));
+		assertEquals(6, view.size());
+		assertEquals(Move.of("<B10->E10>"), view.ofPlayer(1).get(0));
+	}
+
+	@Test
+	final void testBounded() {
+		MoveHistory history = filled(3);
+		assertEquals(3, history.getLimit());
+		assertEquals(MOVES.subList(2, 5), history.stream().toList());
+		assertEquals(MOVES.get(2), history.get(0));
+		assertEquals(List.of(MOVES.get(0), MOVES.get(2), MOVES.get(4)), history.ofPlayer(0).stream().toList());
+
+		for (int round = 0; round < 100; round++) {
+			history.add(3, MOVES.get(round % MOVES.size()));
+		}
+		assertEquals(3, history.size());
+		assertEquals(List.of(MOVES.get(2), MOVES.get(3), MOVES.get(4)), history.last(3));
+		assertEquals(3, history.ofPlayer(3).size());
+
+		history.clear();
+		assertEquals(0, history.size());
+		assertEquals(0, history.ofPlayer(0).size());
+	}
+
+	@Test
+	final void testArguments() {
+		assertThrows(IllegalArgumentException.class, () -> new MoveHistory(40, 0));
+		assertThrows(IllegalArgumentException.class, () -> new MoveHistory(40, 4, -1));
+		assertThrows(IndexOutOfBoundsException.class, () -> new MoveHistory(40, 4).add(4, MOVES.get(0)));
+	}
+}
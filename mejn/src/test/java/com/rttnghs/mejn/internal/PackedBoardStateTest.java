@@ -0,0 +1,379 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn.internal;
+
+import com.rttnghs.mejn.Board;
+import com.rttnghs.mejn.BoardState;
+import com.rttnghs.mejn.Layer;
+import com.rttnghs.mejn.Move;
+import com.rttnghs.mejn.Position;
+import com.rttnghs.mejn.strategy.RandomStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.rttnghs.mejn.Layer.*;
+import static com.rttnghs.mejn.internal.TestBoardState.getMove;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedBoardStateTest {
+
+    private static List<Position> beginPositionsFour() {
+        List<Position> beginPositionsFour = new ArrayList<>(4);
+        beginPositionsFour.add(new Position(BEGIN, 34));
+        beginPositionsFour.add(new Position(BEGIN, 4));
+        beginPositionsFour.add(new Position(BEGIN, 14));
+        beginPositionsFour.add(new Position(BEGIN, 24));
+        return beginPositionsFour;
+    }
+
+    @Test
+    final void testBoardState() {
+        assertThrows(IllegalStateException.class, () -> new PackedBoardState(40, 10, 4, null));
+        assertThrows(IllegalStateException.class, () -> new PackedBoardState(40, 10, 4, new ArrayList<>()));
+        assertThrows(IllegalStateException.class, () -> new PackedBoardState(40, 10, 0, beginPositionsFour()));
+        assertThrows(IllegalArgumentException.class, () -> new PackedBoardState(70, 10, 4, beginPositionsFour()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PackedBoardState(40, 10, 4, List.of(new Position(BEGIN, 44))));
+
+        PackedBoardState boardState = new PackedBoardState(40, 10, 4, beginPositionsFour());
+        PackedBoardState boardStateFour = new PackedBoardState(40, 10, 4, beginPositionsFour());
+        PackedBoardState boardStateTwo = new PackedBoardState(40, 10, 2, beginPositionsFour());
+
+        assertEquals(boardState, boardStateFour);
+        assertEquals(boardState.hashCode(), boardStateFour.hashCode());
+        assertNotEquals(boardState, boardStateTwo);
+        assertNotEquals(null, boardState);
+
+        BaseBoardState baseBoardState = new BaseBoardState(40, 10, 4, beginPositionsFour());
+        assertEquals(baseBoardState.toString(), boardState.toString());
+    }
+
+    @Test
+    final void testGetters() {
+        PackedBoardState boardState = new PackedBoardState(40, 10, 4, beginPositionsFour());
+        assertEquals(4, boardState.getPawnsPerPlayer());
+        assertEquals(4, boardState.getPlayerCount());
+        assertEquals(40, boardState.getBoardSize());
+        assertEquals(10, boardState.getDotsPerPlayer());
+    }
+
+    @Test
+    final void testGetPosition() {
+        PackedBoardState boardState = new PackedBoardState(40, 10, 4, beginPositionsFour());
+
+        assertEquals(new Position(BEGIN, 34), boardState.getPosition(0, 0));
+        assertEquals(new Position(BEGIN, 14), boardState.getPosition(2, 2));
+        assertEquals(boardState.getPosition(1, 1), boardState.getPosition(1, 3));
+
+        assertNull(boardState.getPosition(-1, 1));
+        assertNull(boardState.getPosition(4, 1));
+        assertNull(boardState.getPosition(0, 4));
+        assertNull(boardState.getPosition(1, -1));
+    }
+
+    @Test
+    final void testGetPositions() {
+        PackedBoardState boardState = new PackedBoardState(40, 10, 4, beginPositionsFour());
+
+        List<Position> positions = boardState.getPositions(0);
+        assertEquals(List.of(new Position(BEGIN, 34), new Position(BEGIN, 34), new Position(BEGIN, 34),
+                new Position(BEGIN, 34)), positions);
+        assertThrows(UnsupportedOperationException.class, () -> positions.add(new Position(HOME, 0)));
+        assertThrows(UnsupportedOperationException.class, () -> positions.addFirst(new Position(HOME, 0)));
+        assertNull(boardState.getPositions(4));
+    }
+
+    @Test
+    final void testAbsentPlayer() {
+        List<Position> beginPositions = new ArrayList<>(Arrays.asList(new Position(BEGIN, 14), null));
+        PackedBoardState boardState = new PackedBoardState(20, 10, 2, beginPositions);
+        BaseBoardState baseBoardState = new BaseBoardState(20, 10, 2, beginPositions);
+
+        assertTrue(boardState.getPositions(1).isEmpty());
+        assertNull(boardState.getPosition(1, 0));
+        assertTrue(boardState.isFinished(1));
+        assertFalse(boardState.isFinished(0));
+        assertEquals(baseBoardState.toString(), boardState.toString());
+    }
+
+    @Test
+    final void testGetPlayer() {
+        PackedBoardState boardState = new PackedBoardState(40, 10, 4, beginPositionsFour());
+
+        assertEquals(2, boardState.getPlayer(new Position(BEGIN, 14)));
+        assertEquals(1, boardState.getPlayer(new Position(BEGIN, 4)));
+        assertEquals(3, boardState.getPlayer(new Position(BEGIN, 24)));
+        assertEquals(0, boardState.getPlayer(new Position(BEGIN, 34)));
+
+        assertEquals(-1, boardState.getPlayer(null));
+        assertEquals(-1, boardState.getPlayer(new Position(BEGIN, 17)));
+        assertEquals(-1, boardState.getPlayer(new Position(EVENT, 13)));
+        assertEquals(-1, boardState.getPlayer(new Position(HOME, 11)));
+        assertEquals(-1, boardState.getPlayer(new Position(EVENT, 100)));
+        assertEquals(-1, boardState.getPlayer(new Position(EVENT, -6)));
+    }
+
+    @Test
+    final void testMove() {
+        List<Position> beginPositionsTwo = new ArrayList<>(2);
+        beginPositionsTwo.add(new Position(BEGIN, 14));
+        beginPositionsTwo.add(new Position(BEGIN, 4));
+        PackedBoardState boardState = new PackedBoardState(40, 10, 3, beginPositionsTwo);
+        PackedBoardState boardStateCopy = new PackedBoardState(40, 10, 3, beginPositionsTwo);
+
+        boardStateCopy.move(null);
+        boardStateCopy.move(new Move(new Position(HOME, 7), new Position(HOME, 13)));
+        boardStateCopy.move(new Move(boardState.getPosition(0, 0), boardState.getPosition(0, 0)));
+        assertEquals(boardState, boardStateCopy);
+
+        Position start = new Position(EVENT, 0);
+        boardState.move(new Move(new Position(BEGIN, 14), start));
+        assertEquals(0, boardState.getPlayer(start));
+        assertEquals(start, boardState.getPosition(0, 2));
+        BoardState shiftedState = boardState.shift(1);
+        assertEquals(new Position(BEGIN, 34), shiftedState.getPosition(0, 2));
+        assertEquals(0, shiftedState.getPlayer(new Position(BEGIN, 34)));
+
+        boardState.move(getMove(BEGIN, 4, EVENT, 10));
+        assertEquals("(40)[P0={B14,B14,E0};P1={B4,B4,E10}]", boardState.toString());
+
+        boardState.move(getMove(EVENT, 10, HOME, 11));
+        assertEquals("(40)[P0={B14,B14,E0};P1={B4,B4,H11}]", boardState.toString());
+        assertEquals(-1, boardState.getPlayer(new Position(EVENT, 10)));
+        assertEquals(1, boardState.getPlayer(new Position(HOME, 11)));
+
+        boardState.move(getMove(BEGIN, 14, EVENT, 1));
+        boardState.move(getMove(EVENT, 0, EVENT, 3));
+        assertEquals("(40)[P0={B14,E1,E3};P1={B4,B4,H11}]", boardState.toString());
+
+        // Player 1 strikes player 0, who goes back to begin.
+        boardState.move(getMove(BEGIN, 4, EVENT, 10));
+        boardState.move(getMove(EVENT, 10, EVENT, 3));
+        assertEquals("(40)[P0={B14,B14,E1};P1={B4,E3,H11}]", boardState.toString());
+        assertEquals(0, boardState.getPlayer(new Position(BEGIN, 14)));
+        assertEquals(1, boardState.getPlayer(new Position(EVENT, 3)));
+        assertEquals(-1, boardState.getPlayer(new Position(EVENT, 10)));
+
+        // Self strike sends own pawn back to begin.
+        boardState.move(getMove(BEGIN, 14, EVENT, 1));
+        assertEquals("(40)[P0={B14,B14,E1};P1={B4,E3,H11}]", boardState.toString());
+    }
+
+    @Test
+    final void testIsFinished() {
+        List<Position> beginPositionsTwo = new ArrayList<>(2);
+        beginPositionsTwo.add(new Position(BEGIN, 14));
+        beginPositionsTwo.add(new Position(BEGIN, 4));
+        PackedBoardState boardState = new PackedBoardState(20, 10, 2, beginPositionsTwo);
+
+        assertFalse(boardState.isFinished(0));
+        assertTrue(boardState.isFinished(-1));
+        assertTrue(boardState.isFinished(2));
+        boardState.move(getMove(BEGIN, 14, HOME, 0));
+        assertFalse(boardState.isFinished(0));
+        boardState.move(getMove(BEGIN, 14, HOME, 1));
+        assertTrue(boardState.isFinished(0));
+        assertFalse(boardState.isFinished(1));
+    }
+
+    /**
+     * Plays random games on a list encoded board and replays each move on a packed
+     * state, which must end up identical after every move.
+     */
+    @Test
+    final void testMatchesBaseBoardState() {
+        for (int players = 2; players <= 4; players++) {
+            for (int game = 0; game < 20; game++) {
+                List<String> strategyNames = new ArrayList<>();
+                for (int i = 0; i < players; i++) {
+                    strategyNames.add("strategy" + i);
+                }
+                Board board = new Board(strategyNames, Board.StateEncoding.LIST);
+                BoardState listState = board.getBoardState();
+                List<Position> beginPositions = new ArrayList<>();
+                for (int i = 0; i < players; i++) {
+                    beginPositions.add(listState.getPosition(i, 0));
+                }
+                PackedBoardState packedState = new PackedBoardState(listState.getBoardSize(), 10,
+                        listState.getPawnsPerPlayer(), beginPositions);
+
+                while (board.nextPlayer() >= 0) {
+                    List<Move> allowedMoves = board.getAllowedMoves();
+                    if (allowedMoves.isEmpty()) {
+                        continue;
+                    }
+                    String before = packedState.toString();
+                    long beforeKey = packedState.getZobristKey();
+                    for (Move allowedMove : allowedMoves) {
+                        packedState.unmove(packedState.move(allowedMove));
+                        assertEquals(before, packedState.toString());
+                        assertEquals(beforeKey, packedState.getZobristKey());
+                    }
+                    Move move = RandomStrategy.choose(allowedMoves);
+                    board.move(move);
+                    packedState.move(move);
+                    assertEquals(listState.toString(), packedState.toString());
+                    for (Layer layer : Layer.values()) {
+                        for (int spot = 0; spot < listState.getBoardSize(); spot++) {
+                            Position position = new Position(layer, spot);
+                            assertEquals(listState.getPlayer(position), packedState.getPlayer(position));
+                        }
+                    }
+                    for (int player = 0; player < players; player++) {
+                        assertEquals(listState.isFinished(player), packedState.isFinished(player));
+                        assertRotationsMatch(listState.shift(player), packedState.shift(player));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    final void testUnmove() {
+        PackedBoardState boardState = new PackedBoardState(40, 10, 3, beginPositionsFour());
+        PackedBoardState boardStateCopy = new PackedBoardState(40, 10, 3, beginPositionsFour());
+
+        assertEquals(UndoToken.NONE, boardState.move(getMove(EVENT, 7, EVENT, 9)));
+        long first = boardState.move(getMove(BEGIN, 34, EVENT, 0));
+        long second = boardState.move(getMove(BEGIN, 4, EVENT, 10));
+        long strike = boardState.move(getMove(EVENT, 0, EVENT, 10));
+        long selfStrike = boardState.move(getMove(BEGIN, 34, EVENT, 10));
+        assertEquals(2, boardState.getBeginCount(0));
+        assertEquals(3, boardState.getBeginCount(1));
+
+        boardState.unmove(selfStrike);
+        boardState.unmove(strike);
+        assertEquals(new Position(EVENT, 10), boardState.getPosition(1, 2));
+        assertEquals(1, boardState.getPlayer(new Position(EVENT, 10)));
+        assertEquals(0, boardState.getPlayer(new Position(EVENT, 0)));
+        boardState.unmove(second);
+        boardState.unmove(first);
+        assertEquals(boardStateCopy, boardState);
+        assertEquals(boardStateCopy.toString(), boardState.toString());
+        assertEquals(-1, boardState.getPlayer(new Position(EVENT, 10)));
+        assertEquals(3, boardState.getBeginCount(0));
+    }
+
+    @Test
+    final void testSnapshot() {
+        PackedBoardState boardState = new PackedBoardState(40, 10, 3, beginPositionsFour());
+        boardState.move(getMove(BEGIN, 34, EVENT, 0));
+
+        BoardState snapshot = boardState.snapshot();
+        assertSame(snapshot, boardState.snapshot());
+        assertEquals(boardState, snapshot);
+        BoardState rotatedSnapshot = snapshot.shift(1);
+        String expected = boardState.toString();
+        long key = snapshot.getZobristKey();
+        List<Position> positions = rotatedSnapshot.getPositions(3);
+
+        boardState.move(getMove(BEGIN, 4, EVENT, 10));
+        boardState.move(getMove(EVENT, 0, EVENT, 10));
+        assertEquals(expected, snapshot.toString());
+        assertEquals(key, snapshot.getZobristKey());
+        assertEquals(0, snapshot.getPlayer(new Position(EVENT, 0)));
+        assertEquals(-1, snapshot.getPlayer(new Position(EVENT, 10)));
+        assertEquals(new Position(EVENT, 30), positions.get(2));
+        assertEquals(3, rotatedSnapshot.getPlayer(new Position(EVENT, 30)));
+        assertEquals(0, boardState.getPlayer(new Position(EVENT, 10)));
+        assertNotSame(snapshot, boardState.snapshot());
+        assertThrows(UnsupportedOperationException.class,
+                () -> ((MutableBoardState) snapshot).move(getMove(EVENT, 0, EVENT, 1)));
+    }
+
+    private static void assertRotationsMatch(BoardState expected, BoardState actual) {
+        for (int player = 0; player < expected.getPlayerCount(); player++) {
+            assertEquals(expected.getPositions(player), actual.getPositions(player));
+            assertEquals(expected.isFinished(player), actual.isFinished(player));
+            assertEquals(expected.getBeginCount(player), actual.getBeginCount(player));
+            assertEquals(expected.getOnBoardCount(player), actual.getOnBoardCount(player));
+            assertEquals(expected.getHomeCount(player), actual.getHomeCount(player));
+            assertEquals(expected.getZobristKey(), actual.getZobristKey());
+            for (int pawn = 0; pawn < expected.getPawnsPerPlayer(); pawn++) {
+                assertEquals(expected.getPosition(player, pawn), actual.getPosition(player, pawn));
+            }
+        }
+        for (Layer layer : Layer.values()) {
+            for (int spot = 0; spot < expected.getBoardSize(); spot++) {
+                Position position = new Position(layer, spot);
+                assertEquals(expected.getPlayer(position), actual.getPlayer(position));
+            }
+        }
+    }
+
+    @Test
+    final void testShift() {
+        PackedBoardState boardState = new PackedBoardState(40, 10, 4, beginPositionsFour());
+        BaseBoardState baseBoardState = new BaseBoardState(40, 10, 4, beginPositionsFour());
+        boardState.move(getMove(BEGIN, 14, EVENT, 20));
+        baseBoardState.move(getMove(BEGIN, 14, EVENT, 20));
+
+        assertSame(boardState, boardState.shift(0));
+        assertSame(boardState.shift(2), boardState.shift(2));
+        assertSame(boardState.shift(3), boardState.shift(1).shift(2));
+        // Composed rotations past the last player wrap around to the cached views.
+        assertSame(boardState.shift(1), boardState.shift(2).shift(3));
+        assertSame(boardState, boardState.shift(3).shift(1));
+
+        for (int player = 0; player < 4; player++) {
+            BoardState rotated = boardState.shift(player);
+            assertRotationsMatch(baseBoardState.shift(player), rotated);
+            // Every player sees themselves as player 0, starting at spot 0.
+            assertEquals(new Position(BEGIN, 34), rotated.getPosition(0, 0));
+            assertEquals(0, rotated.getPlayer(new Position(BEGIN, 34)));
+            assertEquals(-1, rotated.getPlayer(new Position(EVENT, 1)));
+        }
+        BoardState rotated = boardState.shift(2);
+        assertEquals(0, rotated.getPlayer(new Position(EVENT, 0)));
+        assertEquals(2, boardState.shift(4).getPlayer(new Position(EVENT, 20)));
+        assertNull(rotated.getPosition(4, 0));
+        assertEquals(0, rotated.getBeginCount(4));
+        assertEquals(1, rotated.getOnBoardCount(0));
+        assertEquals(3, rotated.getBeginCount(0));
+        assertNull(rotated.getPositions(-1));
+
+        // Rotated views follow later moves.
+        List<Position> positions = rotated.getPositions(0);
+        boardState.move(getMove(EVENT, 20, EVENT, 23));
+        assertEquals(new Position(EVENT, 3), positions.get(3));
+        assertThrows(UnsupportedOperationException.class, () -> positions.set(0, new Position(HOME, 0)));
+    }
+
+    @Test
+    final void testReset() {
+        List<Position> beginPositions = beginPositionsFour();
+        beginPositions.set(2, null);
+        PackedBoardState fresh = new PackedBoardState(40, 10, 3, beginPositions);
+        PackedBoardState boardState = new PackedBoardState(40, 10, 3, beginPositions);
+        boardState.move(getMove(BEGIN, 34, EVENT, 0));
+        boardState.move(getMove(BEGIN, 4, EVENT, 10));
+        boardState.move(getMove(EVENT, 0, EVENT, 10));
+        BoardState snapshot = boardState.snapshot();
+        String expected = snapshot.toString();
+
+        boardState.reset();
+        assertEquals(fresh, boardState);
+        assertEquals(fresh.toString(), boardState.toString());
+        assertRotationsMatch(fresh, boardState);
+        assertEquals(-1, boardState.getPlayer(new Position(EVENT, 10)));
+        assertTrue(boardState.isFinished(2));
+        assertEquals(expected, snapshot.toString());
+    }
+}
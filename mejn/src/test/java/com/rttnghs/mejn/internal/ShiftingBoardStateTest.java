@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn.internal;
+
+import com.rttnghs.mejn.BoardState;
+import com.rttnghs.mejn.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.rttnghs.mejn.Layer.*;
+import static com.rttnghs.mejn.internal.TestBoardState.getMove;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShiftingBoardStateTest {
+
+    /**
+     * Four players with one pawn each.
+     */
+    private static BaseBoardState boardState() {
+        return new BaseBoardState(40, 10, 1, List.of(new Position(BEGIN, 34), new Position(BEGIN, 4),
+                new Position(BEGIN, 14), new Position(BEGIN, 24)));
+    }
+
+    /**
+     * Verifies the owner of a position is the player as seen from the shifted perspective.
+     */
+    @Test
+    void testGetPlayer() {
+        BaseBoardState boardState = boardState();
+        boardState.move(getMove(BEGIN, 14, EVENT, 20));
+        for (int playerIndex = 0; playerIndex < 4; playerIndex++) {
+            BoardState shifted = new ShiftingBoardState(boardState, playerIndex);
+            int shiftedPlayer = Math.floorMod(2 - playerIndex, 4);
+            Position position = new Position(EVENT, 20 - 10 * playerIndex).normalize(40);
+            assertEquals(shiftedPlayer, shifted.getPlayer(position), "perspective of player " + playerIndex);
+            assertEquals(position, shifted.getPosition(shiftedPlayer, 0));
+            // Nobody stays nobody.
+            assertEquals(-1, shifted.getPlayer(new Position(EVENT, 5)));
+        }
+    }
+
+    /**
+     * Verifies whether a player is finished is asked of the player as seen from the shifted perspective.
+     */
+    @Test
+    void testIsFinished() {
+        BaseBoardState boardState = boardState();
+        boardState.move(getMove(BEGIN, 24, HOME, 30));
+        assertTrue(boardState.isFinished(3));
+        for (int playerIndex = 0; playerIndex < 4; playerIndex++) {
+            BoardState shifted = new ShiftingBoardState(boardState, playerIndex);
+            for (int shiftedPlayer = 0; shiftedPlayer < 4; shiftedPlayer++) {
+                assertEquals((shiftedPlayer + playerIndex) % 4 == 3, shifted.isFinished(shiftedPlayer));
+            }
+            assertTrue(shifted.isFinished(-1));
+            assertTrue(shifted.isFinished(4));
+        }
+    }
+}
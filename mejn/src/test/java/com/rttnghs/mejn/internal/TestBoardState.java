@@ -20,6 +20,7 @@ import com.rttnghs.mejn.BoardState;
 import com.rttnghs.mejn.Layer;
 import com.rttnghs.mejn.Move;
 import com.rttnghs.mejn.Position;
+import com.rttnghs.mejn.configuration.GameSpec;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -36,6 +37,17 @@ public class TestBoardState extends BaseBoardState {
 	 * @return new Test Board State
 	 */
 	protected static BoardState of(String boardStateString, int dotsPerPlayer) {
+		return of(boardStateString, dotsPerPlayer, GameSpec.DEFAULT.dieFaces());
+	}
+
+	/**
+	 * Not built for robustness. Used only for test cases.
+	 *
+	 * @param boardStateString boardStateString.toString formatted board state.
+	 * @param dieFaces         of the die, which places the begin position of players without a pawn in BEGIN.
+	 * @return new Test Board State
+	 */
+	protected static BoardState of(String boardStateString, int dotsPerPlayer, int dieFaces) {
 		String regex = "^\\((\\d+)\\)\\[(.*)]";
 
 		Pattern pattern = Pattern.compile(regex); // "a{1,}" matches at least one a.
@@ -78,7 +90,7 @@ public class TestBoardState extends BaseBoardState {
 		System.out.println("Size: " + boardSize);
 		System.out.println("newState: " + newState);
 
-		return new BaseBoardState(newState, boardSize, dotsPerPlayer, pawnsPerPlayer);
+		return new BaseBoardState(newState, boardSize, dotsPerPlayer, pawnsPerPlayer, dieFaces);
 	}
 
 	public TestBoardState(int boardSize, int pawnsPerPlayer, List<Position> beginPositions) {
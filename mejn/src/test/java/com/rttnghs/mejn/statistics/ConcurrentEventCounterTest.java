@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn.statistics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+class ConcurrentEventCounterTest {
+
+	@Test
+	final void testAddAndSnapshot() {
+		ConcurrentEventCounter<String> counter = new ConcurrentEventCounter<>(3);
+		counter.add("actorA", 0, 2);
+		counter.add("actorA", 2, 1);
+		DenseEventCounter<String> dense = new DenseEventCounter<>(3);
+		dense.add(dense.actorId("actorB"), 1, 5);
+		dense.add(dense.actorId("actorA"), 2, 3);
+		counter.add(dense);
+		counter.add((DenseEventCounter<String>) null);
+		assertEquals(2, counter.getCount("actorA", 0));
+		assertEquals(4, counter.getCount("actorA", 2));
+		assertEquals(5, counter.getCount("actorB", 1));
+		assertEquals(0, counter.getCount("actorC", 1));
+
+		EventCounter<String, Integer> snapshot = counter.snapshot(Integer::valueOf);
+		assertEquals(4, snapshot.getCount("actorA", 2));
+		assertEquals(5, snapshot.getCount("actorB", 1));
+		assertEquals("{actorA={0=2, 2=4}, actorB={1=5}}", counter.toString());
+
+		assertThrows(IndexOutOfBoundsException.class, () -> counter.add("actorA", 3, 1));
+		assertThrows(IllegalArgumentException.class, () -> counter.add(new DenseEventCounter<>(2)));
+		assertThrows(IllegalArgumentException.class, () -> new ConcurrentEventCounter<String>(0));
+	}
+
+	/**
+	 * Workers publish games, each with one finisher per place, while a reader takes
+	 * snapshots. Every snapshot must have as many finishers in each place.
+	 */
+	@Test
+	final void testSnapshotsHaveWholePublishes() throws InterruptedException, ExecutionException {
+		int places = 4;
+		int workers = 4;
+		int publishes = 2000;
+		ConcurrentEventCounter<String> counter = new ConcurrentEventCounter<>(places);
+		AtomicBoolean done = new AtomicBoolean();
+		CompletableFuture<Integer> reader = CompletableFuture.supplyAsync(() -> {
+			int snapshots = 0;
+			do {
+				EventCounter<String, Integer> snapshot = counter.snapshot(Integer::valueOf);
+				for (int place = 1; place < places; place++) {
+					assertEquals(finishers(snapshot, 0), finishers(snapshot, place));
+				}
+				snapshots++;
+			} while (!done.get());
+			return snapshots;
+		});
+		List<Thread> threads = new ArrayList<>();
+		for (int worker = 0; worker < workers; worker++) {
+			int offset = worker;
+			threads.add(Thread.ofPlatform().start(() -> {
+				DenseEventCounter<String> game = new DenseEventCounter<>(places);
+				for (int publish = 0; publish < publishes; publish++) {
+					game.clear();
+					for (int place = 0; place < places; place++) {
+						game.increment(game.actorId("actor" + ((place + offset + publish) % places)), place);
+					}
+					counter.add(game);
+				}
+			}));
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		done.set(true);
+		assertTrue(reader.get() > 0);
+		EventCounter<String, Integer> total = counter.snapshot(Integer::valueOf);
+		for (int place = 0; place < places; place++) {
+			assertEquals(workers * publishes, finishers(total, place));
+		}
+	}
+
+	private static int finishers(EventCounter<String, Integer> snapshot, int place) {
+		int finishers = 0;
+		for (String actor : snapshot.getActors()) {
+			finishers += snapshot.getCount(actor, place);
+		}
+		return finishers;
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn.statistics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class DenseEventCounterTest {
+
+	@Test
+	final void testIncrementAndAdd() {
+		DenseEventCounter<String> counter = new DenseEventCounter<>(3);
+		int a = counter.actorId("actorA");
+		int b = counter.actorId("actorB");
+		assertEquals(a, counter.actorId("actorA"));
+		counter.increment(a, 0);
+		counter.increment(a, 2);
+		counter.add(a, 2, 4);
+		counter.add(b, 1, 7);
+		assertEquals(1, counter.getCount(a, 0));
+		assertEquals(5, counter.getCount("actorA", 2));
+		assertEquals(7, counter.getCount(b, 1));
+		assertEquals(0, counter.getCount("actorC", 1));
+		assertEquals(List.of("actorA", "actorB"), counter.getActors());
+		assertThrows(IndexOutOfBoundsException.class, () -> counter.increment(a, 3));
+		assertThrows(IndexOutOfBoundsException.class, () -> counter.increment(2, 0));
+
+		counter.add(counter);
+		assertEquals(10, counter.getCount(a, 2));
+		counter.add(null);
+		assertEquals(10, counter.getCount(a, 2));
+		counter.clear();
+		assertEquals(0, counter.getCount(a, 2));
+		assertEquals(List.of("actorA", "actorB"), counter.getActors());
+	}
+
+	@Test
+	final void testAddOtherActors() {
+		DenseEventCounter<String> counter = new DenseEventCounter<>(2);
+		assertArrayEquals(new int[] { 0, 1, 0 }, counter.actorIds(List.of("actorA", "actorB", "actorA")));
+		counter.add(1, 1, 3);
+
+		// Same actors in the same order, and one more.
+		DenseEventCounter<String> same = new DenseEventCounter<>(2);
+		same.actorIds(List.of("actorA", "actorB", "actorC"));
+		same.add(1, 1, 2);
+		same.add(2, 0, 5);
+		counter.add(same);
+		assertEquals(5, counter.getCount("actorB", 1));
+		assertEquals(5, counter.getCount("actorC", 0));
+
+		// Actors in another order.
+		DenseEventCounter<String> other = new DenseEventCounter<>(2);
+		other.add(other.actorId("actorD"), 0, 1);
+		other.add(other.actorId("actorB"), 1, 1);
+		counter.add(other);
+		assertEquals(6, counter.getCount("actorB", 1));
+		assertEquals(1, counter.getCount("actorD", 0));
+		assertEquals(List.of("actorA", "actorB", "actorC", "actorD"), counter.getActors());
+
+		assertThrows(IllegalArgumentException.class, () -> counter.add(new DenseEventCounter<>(3)));
+		assertThrows(IllegalArgumentException.class, () -> new DenseEventCounter<String>(0));
+	}
+
+	@Test
+	final void testToEventCounter() {
+		DenseEventCounter<String> counter = new DenseEventCounter<>(Covariate.values().length);
+		for (int actor = 0; actor < 5; actor++) {
+			counter.add(counter.actorId("actor" + actor), Covariate.ROLLS.ordinal(), actor + 1);
+		}
+		Covariate[] covariates = Covariate.values();
+		EventCounter<String, Covariate> eventCounter = counter.toEventCounter(ordinal -> covariates[ordinal]);
+		assertEquals(5, eventCounter.getActors().size());
+		assertEquals(3, eventCounter.getCount("actor2", Covariate.ROLLS));
+		assertEquals(0, eventCounter.getEvents("actor2").stream().filter(Covariate.GAMES::equals).count());
+		assertEquals("{actor0={2=1}, actor1={2=2}, actor2={2=3}, actor3={2=4}, actor4={2=5}}", counter.toString());
+	}
+}
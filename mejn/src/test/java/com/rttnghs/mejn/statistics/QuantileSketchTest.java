@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn.statistics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class QuantileSketchTest {
+
+	@Test
+	final void testRelativeAccuracy() {
+		QuantileSketch sketch = new QuantileSketch();
+		for (int value = 1; value <= 10_001; value++) {
+			sketch.add(value);
+		}
+		assertEquals(10_001, sketch.count());
+		assertEquals(5_001.0, sketch.quantile(0.5), 5_001.0 * QuantileSketch.DEFAULT_ACCURACY);
+		assertEquals(9_001.0, sketch.quantile(0.9), 9_001.0 * QuantileSketch.DEFAULT_ACCURACY);
+		assertEquals(1.0, sketch.quantile(0.0));
+		assertEquals(10_001.0, sketch.quantile(1.0));
+	}
+
+	@Test
+	final void testMedian() {
+		QuantileSketch odd = new QuantileSketch();
+		for (double value : new double[] { 3.0, 1.0, 5.0, 2.0, 4.0 }) {
+			odd.add(value);
+		}
+		assertEquals(3.0, odd.quantile(0.5), 3.0 * QuantileSketch.DEFAULT_ACCURACY);
+		// The lower of the two middle values.
+		QuantileSketch even = new QuantileSketch().add(1.0).add(4.0).add(2.0).add(3.0);
+		assertEquals(2.0, even.quantile(0.5), 2.0 * QuantileSketch.DEFAULT_ACCURACY);
+		assertEquals(99.0, new QuantileSketch().add(99.0).quantile(0.5));
+	}
+
+	@Test
+	final void testZerosAndEmpty() {
+		QuantileSketch sketch = new QuantileSketch(0.05);
+		assertEquals(0.0, sketch.quantile(0.5));
+		sketch.add(0.0).add(0.0).add(3.0);
+		assertEquals(0.0, sketch.quantile(0.5));
+		assertEquals(3.0, sketch.quantile(1.0));
+		assertThrows(IllegalArgumentException.class, () -> sketch.add(-1.0));
+		assertThrows(IllegalArgumentException.class, () -> sketch.quantile(1.5));
+		assertThrows(IllegalArgumentException.class, () -> new QuantileSketch(0.0));
+	}
+
+	@Test
+	final void testMergeEqualsWhole() {
+		QuantileSketch whole = new QuantileSketch();
+		QuantileSketch first = new QuantileSketch();
+		QuantileSketch second = new QuantileSketch();
+		for (int index = 0; index < 1000; index++) {
+			double value = (index % 2 == 0) ? index * 0.01 : 1000.0 - index;
+			whole.add(value);
+			(index < 400 ? first : second).add(value);
+		}
+		QuantileSketch merged = first.copy().merge(second);
+		assertEquals(whole.count(), merged.count());
+		for (double quantile : new double[] { 0.0, 0.1, 0.5, 0.9, 1.0 }) {
+			assertEquals(whole.quantile(quantile), merged.quantile(quantile));
+		}
+		assertThrows(IllegalArgumentException.class, () -> first.merge(new QuantileSketch(0.05).add(1.0)));
+	}
+}
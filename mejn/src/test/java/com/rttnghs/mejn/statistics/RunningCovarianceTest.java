@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn.statistics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class RunningCovarianceTest {
+
+	@Test
+	final void testKnownValues() {
+		RunningCovariance covariance = new RunningCovariance(2);
+		// y = 2x: x {1,2,3}, mean 2, Sxx 2, Sxy 4, Syy 8
+		covariance.add(1.0, 2.0).add(2.0, 4.0).add(3.0, 6.0);
+		assertEquals(3, covariance.count());
+		assertEquals(2.0, covariance.mean(0), 1e-12);
+		assertEquals(4.0, covariance.mean(1), 1e-12);
+		assertEquals(2.0, covariance.comoment(0, 0), 1e-12);
+		assertEquals(4.0, covariance.comoment(0, 1), 1e-12);
+		assertEquals(4.0, covariance.comoment(1, 0), 1e-12);
+		assertEquals(8.0, covariance.comoment(1, 1), 1e-12);
+		assertThrows(IllegalArgumentException.class, () -> covariance.add(1.0));
+	}
+
+	@Test
+	final void testMergeEqualsWhole() {
+		RunningCovariance whole = new RunningCovariance(3);
+		RunningCovariance first = new RunningCovariance(3);
+		RunningCovariance second = new RunningCovariance(3);
+		for (int index = 0; index < 50; index++) {
+			double[] values = { Math.sin(index), Math.cos(index) * 3.0, index % 7 };
+			whole.add(values);
+			(index < 20 ? first : second).add(values);
+		}
+		RunningCovariance merged = first.copy().merge(second);
+		assertEquals(whole.count(), merged.count());
+		for (int i = 0; i < 3; i++) {
+			assertEquals(whole.mean(i), merged.mean(i), 1e-12);
+			for (int j = 0; j < 3; j++) {
+				assertEquals(whole.comoment(i, j), merged.comoment(i, j), 1e-9);
+			}
+		}
+		assertThrows(IllegalArgumentException.class, () -> first.merge(new RunningCovariance(2).add(1.0, 1.0)));
+	}
+}
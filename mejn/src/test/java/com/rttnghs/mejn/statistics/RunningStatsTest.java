@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn.statistics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class RunningStatsTest {
+
+	@Test
+	final void testKnownValues() {
+		RunningStats stats = new RunningStats();
+		assertEquals(0, stats.count());
+		assertTrue(Double.isNaN(stats.min()));
+		List.of(2.0, 4.0, 4.0, 4.0, 5.0, 5.0, 7.0, 9.0).forEach(stats::add);
+		assertEquals(8, stats.count());
+		assertEquals(5.0, stats.mean(), 1e-12);
+		assertEquals(32.0 / 7.0, stats.variance(), 1e-12);
+		assertEquals(Math.sqrt(32.0 / 7.0), stats.stddev(), 1e-12);
+		assertEquals(2.0, stats.min());
+		assertEquals(9.0, stats.max());
+	}
+
+	@Test
+	final void testSingleAndNoValues() {
+		RunningStats stats = new RunningStats();
+		assertEquals(0.0, stats.mean());
+		assertEquals(0.0, stats.stddev());
+		stats.add(42.0);
+		assertEquals(42.0, stats.mean(), 1e-12);
+		assertEquals(0.0, stats.stddev());
+		stats.add(42.0).add(42.0);
+		assertEquals(0.0, stats.stddev(), 1e-12);
+	}
+
+	@Test
+	final void testMergeEqualsWhole() {
+		RunningStats whole = new RunningStats();
+		RunningStats first = new RunningStats();
+		RunningStats second = new RunningStats();
+		for (int index = 0; index < 100; index++) {
+			double value = Math.sin(index) * 1000.0 + 1e6;
+			whole.add(value);
+			(index < 37 ? first : second).add(value);
+		}
+		RunningStats merged = first.copy().merge(second);
+		assertEquals(whole.count(), merged.count());
+		assertEquals(whole.mean(), merged.mean(), 1e-6);
+		assertEquals(whole.variance(), merged.variance(), 1e-6);
+		assertEquals(whole.min(), merged.min());
+		assertEquals(whole.max(), merged.max());
+		assertEquals(37, first.count());
+		assertEquals(whole.mean(), new RunningStats().merge(whole).mean());
+	}
+}
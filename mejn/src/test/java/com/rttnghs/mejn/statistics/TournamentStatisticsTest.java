@@ -22,107 +22,13 @@ import com.rttnghs.mejn.strategy.BaseStrategyFactory;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class TournamentStatisticsTest {
-    // ── mean ──────────────────────────────────────────────────────────────────
-
-    /**
-     * Verifies the mean of a mixed list of known values is calculated correctly.
-     */
-    @Test
-    void testMeanKnownValues() {
-        // {2,4,4,4,5,5,7,9} mean = 40/8 = 5
-        List<Double> values = List.of(2.0, 4.0, 4.0, 4.0, 5.0, 5.0, 7.0, 9.0);
-        assertEquals(5.0, TournamentStatistics.mean(values), 1e-9);
-    }
-
-    /**
-     * Verifies the mean of a single-value list is that value.
-     */
-    @Test
-    void testMeanSingleValue() {
-        assertEquals(42.0, TournamentStatistics.mean(List.of(42.0)), 1e-9);
-    }
-
-    /**
-     * Verifies the mean of an empty list is defined as zero.
-     */
-    @Test
-    void testMeanEmptyIsZero() {
-        assertEquals(0.0, TournamentStatistics.mean(List.of()));
-    }
-
-    // ── sampleStdDev ─────────────────────────────────────────────────────────
-
-    /**
-     * Verifies sample standard deviation for a canonical dataset matches the formula.
-     */
-    @Test
-    void testSampleStdDevKnownValues() {
-        // {2,4,4,4,5,5,7,9}: sumSq of (xi-5) = 9+1+1+1+0+0+4+16 = 32
-        // sample stddev = sqrt(32/7)
-        List<Double> values = List.of(2.0, 4.0, 4.0, 4.0, 5.0, 5.0, 7.0, 9.0);
-        double mean = TournamentStatistics.mean(values);
-        assertEquals(Math.sqrt(32.0 / 7.0), TournamentStatistics.sampleStdDev(values, mean), 1e-9);
-    }
-
-    /**
-     * Verifies a constant list has zero sample standard deviation.
-     */
-    @Test
-    void testSampleStdDevConstantIsZero() {
-        List<Double> values = List.of(7.0, 7.0, 7.0);
-        assertEquals(0.0, TournamentStatistics.sampleStdDev(values, 7.0), 1e-9);
-    }
-
-    /**
-     * Verifies a single-value list has zero sample standard deviation.
-     */
-    @Test
-    void testSampleStdDevSingleValueIsZero() {
-        assertEquals(0.0, TournamentStatistics.sampleStdDev(List.of(5.0), 5.0));
-    }
-
-    // ── median ───────────────────────────────────────────────────────────────
-
-    /**
-     * Verifies the median of an odd-sized unsorted list is the middle value.
-     */
-    @Test
-    void testMedianOddCount() {
-        List<Double> values = List.of(3.0, 1.0, 5.0, 2.0, 4.0);
-        assertEquals(3.0, TournamentStatistics.median(values), 1e-9);
-    }
-
-    /**
-     * Verifies the median of an even-sized list is the average of the two middle values.
-     */
-    @Test
-    void testMedianEvenCount() {
-        List<Double> values = List.of(1.0, 4.0, 2.0, 3.0);
-        assertEquals(2.5, TournamentStatistics.median(values), 1e-9);
-    }
-
-    /**
-     * Verifies the median of a single-value list is that value.
-     */
-    @Test
-    void testMedianSingleValue() {
-        assertEquals(99.0, TournamentStatistics.median(List.of(99.0)), 1e-9);
-    }
-
-    /**
-     * Verifies the median of an empty list is defined as zero.
-     */
-    @Test
-    void testMedianEmptyIsZero() {
-        assertEquals(0.0, TournamentStatistics.median(List.of()));
-    }
-
-    // ── StrategyStats.compute ────────────────────────────────────────────────
+    // ── StrategyStats.of ──────────────────────────────────────────────────────
 
     /**
      * Verifies derived statistics are computed correctly from a simple score series.
@@ -131,7 +37,7 @@ class TournamentStatisticsTest {
     void testStrategyStatsComputedDerivedFields() {
         List<Double> scores = List.of(58.0, 59.0, 60.0, 61.0, 62.0);
         List<Integer> dummy = List.of(10, 10, 10, 10, 10);
-        StrategyStats ss = StrategyStats.compute("Test", scores, dummy, dummy, dummy, dummy);
+        StrategyStats ss = strategyStats("Test", scores, dummy, dummy, dummy, dummy);
         assertEquals("Test", ss.strategy());
         assertEquals(60.0, ss.mean(), 1e-9);
         // sumSq = (4+1+0+1+4)=10; sample stddev = sqrt(10/4) = sqrt(2.5)
@@ -141,7 +47,7 @@ class TournamentStatisticsTest {
         assertEquals(TournamentStatistics.Z_95 * ss.stderr(), ss.moe95(), 1e-9);
         assertEquals(58.0, ss.min(), 1e-9);
         assertEquals(62.0, ss.max(), 1e-9);
-        assertEquals(60.0, ss.median(), 1e-9);
+        assertEquals(60.0, ss.median(), 60.0 * QuantileSketch.DEFAULT_ACCURACY);
         assertEquals(expectedStddev / 60.0, ss.coefficientOfVariation(), 1e-9);
         assertEquals(10.0, ss.meanFirstPlaces(), 1e-9);
     }
@@ -152,7 +58,7 @@ class TournamentStatisticsTest {
     @Test
     void testStrategyStatsPlaceAverages() {
         List<Double> scores = List.of(60.0, 62.0, 58.0);
-        StrategyStats ss = StrategyStats.compute("P", scores, List.of(30, 32, 28),   // mean 30
+        StrategyStats ss = strategyStats("P", scores, List.of(30, 32, 28),   // mean 30
                 List.of(25, 26, 24),   // mean 25
                 List.of(25, 24, 26),   // mean 25
                 List.of(20, 18, 22));  // mean 20
@@ -170,11 +76,12 @@ class TournamentStatisticsTest {
     @Test
     void testRoundsRequiredFor10PctRelativeMoeMatchesFormula() {
         List<Double> scores = List.of(60.0, 62.0, 58.0, 61.0, 59.0);
-        double mean = TournamentStatistics.mean(scores);
-        double stddev = TournamentStatistics.sampleStdDev(scores, mean);
+        RunningStats stats = runningStats(scores);
+        double mean = stats.mean();
+        double stddev = stats.stddev();
         int expected = (int) Math.ceil(Math.pow(TournamentStatistics.Z_95 * stddev / (0.10 * mean), 2));
         List<Integer> dummy = List.of(30, 32, 28, 31, 29);
-        StrategyStats ss = StrategyStats.compute("S", scores, dummy, dummy, dummy, dummy);
+        StrategyStats ss = strategyStats("S", scores, dummy, dummy, dummy, dummy);
         assertEquals(expected, ss.roundsRequiredFor10PctRelativeMoe());
     }
 
@@ -185,7 +92,7 @@ class TournamentStatisticsTest {
     void testRoundsRequiredWhenStddevZeroReturnsSampleSize() {
         List<Double> scores = List.of(60.0, 60.0, 60.0, 60.0);
         List<Integer> dummy = List.of(15, 15, 15, 15);
-        StrategyStats ss = StrategyStats.compute("S", scores, dummy, dummy, dummy, dummy);
+        StrategyStats ss = strategyStats("S", scores, dummy, dummy, dummy, dummy);
         assertEquals(scores.size(), ss.roundsRequiredFor10PctRelativeMoe());
     }
 
@@ -198,7 +105,7 @@ class TournamentStatisticsTest {
     void testAdditionalRoundsIsZeroWhenAlreadySufficient() {
         List<Double> constant = List.of(60.0, 60.0, 60.0, 60.0, 60.0);
         List<Integer> dummy = List.of(15, 15, 15, 15, 15);
-        StrategyStats ss = StrategyStats.compute("S", constant, dummy, dummy, dummy, dummy);
+        StrategyStats ss = strategyStats("S", constant, dummy, dummy, dummy, dummy);
         assertEquals(0, ss.additionalRoundsFor10PctRelativeMoe(ss.roundsRequiredFor10PctRelativeMoe()));
     }
 
@@ -210,7 +117,7 @@ class TournamentStatisticsTest {
         // high spread relative to mean → many rounds required
         List<Double> scores = List.of(60.0, 90.0);
         List<Integer> dummy = List.of(10, 10);
-        StrategyStats ss = StrategyStats.compute("S", scores, dummy, dummy, dummy, dummy);
+        StrategyStats ss = strategyStats("S", scores, dummy, dummy, dummy, dummy);
         int additional = ss.additionalRoundsFor10PctRelativeMoe(2);
         assertEquals(Math.max(0, ss.roundsRequiredFor10PctRelativeMoe() - 2), additional);
     }
@@ -223,12 +130,11 @@ class TournamentStatisticsTest {
     @Test
     void testRoundsRequiredForAbsoluteMoeMatchesFormula() {
         List<Double> scores = List.of(60.0, 62.0, 58.0, 61.0, 59.0);
-        double mean = TournamentStatistics.mean(scores);
-        double stddev = TournamentStatistics.sampleStdDev(scores, mean);
+        double stddev = runningStats(scores).stddev();
         double moe = 1.0;
         int expected = (int) Math.ceil(Math.pow(TournamentStatistics.Z_95 * stddev / moe, 2));
         List<Integer> dummy = List.of(30, 32, 28, 31, 29);
-        StrategyStats ss = StrategyStats.compute("S", scores, dummy, dummy, dummy, dummy);
+        StrategyStats ss = strategyStats("S", scores, dummy, dummy, dummy, dummy);
         assertEquals(expected, ss.roundsRequiredForAbsoluteMoe(moe));
     }
 
@@ -239,7 +145,7 @@ class TournamentStatisticsTest {
     void testRoundsRequiredForAbsoluteMoeIsOneWhenStddevZero() {
         List<Double> scores = List.of(60.0, 60.0, 60.0);
         List<Integer> dummy = List.of(20, 20, 20);
-        StrategyStats ss = StrategyStats.compute("S", scores, dummy, dummy, dummy, dummy);
+        StrategyStats ss = strategyStats("S", scores, dummy, dummy, dummy, dummy);
         assertEquals(1, ss.roundsRequiredForAbsoluteMoe(5.0));
     }
 
@@ -250,7 +156,7 @@ class TournamentStatisticsTest {
     void testRoundsRequiredForAbsoluteMoeThrowsOnNonPositiveMoe() {
         List<Double> scores = List.of(60.0, 62.0);
         List<Integer> dummy = List.of(10, 10);
-        StrategyStats ss = StrategyStats.compute("S", scores, dummy, dummy, dummy, dummy);
+        StrategyStats ss = strategyStats("S", scores, dummy, dummy, dummy, dummy);
         assertThrows(IllegalArgumentException.class, () -> ss.roundsRequiredForAbsoluteMoe(0.0));
         assertThrows(IllegalArgumentException.class, () -> ss.roundsRequiredForAbsoluteMoe(-1.0));
     }
@@ -312,7 +218,8 @@ class TournamentStatisticsTest {
     void testRunProducesWellFormedResult() throws InterruptedException, ExecutionException {
         List<String> strategyNames = Tournament.getStrategyNames();
         List<List<String>> brackets = Tournament.getStrategyNameBrackets(strategyNames);
-        TournamentStatistics ts = new TournamentStatistics(new BaseStrategyFactory(), brackets, 10, 3);
+        TournamentStatistics ts = new TournamentStatistics(new BaseStrategyFactory(), brackets, 10, 3)
+                .retainRoundScores(true);
         TournamentStatistics.Result result = ts.run();
         assertEquals(3, result.rounds());
         assertEquals(10, result.gamesPerRound());
@@ -337,4 +244,250 @@ class TournamentStatisticsTest {
             assertTrue(summary.contains(strategy), "summary should mention " + strategy);
         }
     }
+
+    /**
+     * Verifies that runs with the same master seed have the same per-round scores.
+     */
+    @Test
+    void testSameSeedSameScores() throws InterruptedException, ExecutionException {
+        List<String> strategyNames = Tournament.getStrategyNames();
+        List<List<String>> brackets = Tournament.getStrategyNameBrackets(strategyNames);
+        TournamentStatistics.Result result = new TournamentStatistics(new BaseStrategyFactory(), brackets, 5, 2, 42, false, false)
+                .retainRoundScores(true).run();
+        TournamentStatistics.Result again = new TournamentStatistics(new BaseStrategyFactory(), brackets, 5, 2, 42, false, false)
+                .retainRoundScores(true).run();
+        assertEquals(42, result.seed());
+        assertEquals(result.scoresByStrategy(), again.scoresByStrategy());
+    }
+
+    /**
+     * Verifies paired differences against differences with independent dice.
+     */
+    @Test
+    void testPairedDifferenceKnownValues() {
+        // Differences {0,0,0} against independent differences {-2,0,2}.
+        TournamentStatistics.PairedDifference same = pairedDifference(
+                List.of(1.0, 2.0, 3.0), List.of(1.0, 2.0, 3.0), List.of(1.0, 2.0, 3.0), List.of(3.0, 2.0, 1.0));
+        assertEquals(0.0, same.mean(), 1e-9);
+        assertEquals(0.0, same.stddev(), 1e-9);
+        assertEquals(2.0, same.independentStddev(), 1e-9);
+        assertEquals(1.0, same.varianceReduction(), 1e-9);
+        // Differences {-2,0,2} against independent differences {-1,0,1}.
+        TournamentStatistics.PairedDifference worse = pairedDifference(
+                List.of(1.0, 2.0, 3.0), List.of(3.0, 2.0, 1.0), List.of(1.0, 2.0, 3.0), List.of(2.0, 2.0, 2.0));
+        assertEquals(2.0, worse.stddev(), 1e-9);
+        assertEquals(1.0, worse.independentStddev(), 1e-9);
+        assertEquals(-3.0, worse.varianceReduction(), 1e-9);
+        // Not measured without independent scores.
+        TournamentStatistics.PairedDifference unmeasured = pairedDifference(
+                List.of(2.0, 2.0), List.of(1.0, 1.0), null, null);
+        assertEquals(1.0, unmeasured.mean(), 1e-9);
+        assertTrue(Double.isNaN(unmeasured.varianceReduction()));
+    }
+
+    /**
+     * Verifies a run with common random numbers reports a paired difference for every two strategies.
+     */
+    @Test
+    void testCommonRandomNumbersRun() throws InterruptedException, ExecutionException {
+        List<String> strategyNames = Tournament.getStrategyNames();
+        List<List<String>> brackets = Tournament.getStrategyNameBrackets(strategyNames);
+        TournamentStatistics.Result result = new TournamentStatistics(new BaseStrategyFactory(), brackets, 5, brackets.size(), 7, true, false)
+                .retainRoundScores(true).run();
+        assertTrue(result.commonRandomNumbers());
+        int strategies = result.scoresByStrategy().size();
+        assertEquals(strategies * (strategies - 1) / 2, result.pairedDifferences().size());
+        for (TournamentStatistics.PairedDifference pd : result.pairedDifferences()) {
+            assertTrue(pd.first().compareTo(pd.second()) < 0);
+            assertTrue(pd.varianceReduction() <= 1.0);
+            assertTrue(pd.independentStddev() >= 0.0);
+        }
+        assertTrue(result.toSummary().contains("Paired difference"));
+    }
+
+    /**
+     * Verifies the solver on a known system and that it rejects a singular one.
+     */
+    @Test
+    void testSolve() {
+        // 2x + y = 5, x + 3y = 10 -> x = 1, y = 3
+        double[] x = TournamentStatistics.solve(new double[][] { { 2, 1 }, { 1, 3 } }, new double[] { 5, 10 });
+        assertArrayEquals(new double[] { 1, 3 }, x, 1e-9);
+        assertNull(TournamentStatistics.solve(new double[][] { { 1, 2 }, { 2, 4 } }, new double[] { 1, 2 }));
+    }
+
+    /**
+     * Verifies that luck explaining all variance is removed from the mean.
+     */
+    @Test
+    void testControlVariateKnownValues() {
+        // score = 10 + 2 * luck, with mean luck 0.5 where 0 is expected.
+        List<double[]> luck = List.of(new double[] { -1 }, new double[] { 0 }, new double[] { 1 }, new double[] { 2 });
+        List<Double> scores = List.of(8.0, 10.0, 12.0, 14.0);
+        TournamentStatistics.ControlVariateStats cv = controlVariateStats(scores, luck);
+        assertEquals(10.0, cv.mean(), 1e-9);
+        assertEquals(0.0, cv.stderr(), 1e-9);
+        assertEquals(1.0, cv.varianceReduction(), 1e-9);
+        assertEquals(List.of(2.0), cv.coefficients());
+        // Too few rounds for the number of covariates.
+        assertTrue(Double.isNaN(controlVariateStats(scores.subList(0, 2), luck.subList(0, 2)).mean()));
+    }
+
+    /**
+     * Verifies a run collecting covariates reports adjusted scores for every strategy.
+     */
+    @Test
+    void testControlVariatesRun() throws InterruptedException, ExecutionException {
+        List<String> strategyNames = Tournament.getStrategyNames();
+        List<List<String>> brackets = Tournament.getStrategyNameBrackets(strategyNames);
+        TournamentStatistics.Result result = new TournamentStatistics(new BaseStrategyFactory(), brackets, 5, 6, 11, false, true).run();
+        assertEquals(result.strategyStats().keySet(), result.controlVariateStats().keySet());
+        for (TournamentStatistics.ControlVariateStats cv : result.controlVariateStats().values()) {
+            assertTrue(Double.isFinite(cv.mean()), "adjusted mean should be finite");
+            assertTrue(cv.stderr() >= 0.0);
+            assertTrue(cv.varianceReduction() <= 1.0);
+            assertEquals(3, cv.coefficients().size());
+        }
+        assertTrue(result.toSummary().contains("Control variates"));
+        TournamentStatistics.Result plain = new TournamentStatistics(new BaseStrategyFactory(), brackets, 5, 2, 11, false, false).run();
+        assertTrue(plain.controlVariateStats().isEmpty());
+    }
+
+    // ── early stopping ────────────────────────────────────────────────────────
+
+    /**
+     * Verifies the stopping rule on the margin of error and on the ranking.
+     */
+    @Test
+    void testStoppingRuleKnownValues() {
+        // a: {9,10,11} moe = 1.96 * 1 / sqrt(3) = 1.13; b: {1,2,3} is clearly behind.
+        TournamentSummary scores = summary(List.of(9.0, 10.0, 11.0), List.of(1.0, 2.0, 3.0));
+        assertTrue(new TournamentStatistics.StoppingRule(3, 1.2, false).isMet(scores));
+        assertFalse(new TournamentStatistics.StoppingRule(3, 1.1, false).isMet(scores));
+        assertTrue(new TournamentStatistics.StoppingRule(3, 0.0, true).isMet(scores));
+        // Not before the minimum number of rounds.
+        assertFalse(new TournamentStatistics.StoppingRule(4, 1.2, true).isMet(scores));
+        // Not separated when the difference is within its margin of error.
+        TournamentSummary close = summary(List.of(1.0, 3.0, 2.0), List.of(2.0, 1.0, 3.0));
+        assertFalse(new TournamentStatistics.StoppingRule(3, 0.0, true).isMet(close));
+        assertFalse(TournamentStatistics.StoppingRule.NEVER.isMet(scores));
+        assertThrows(IllegalArgumentException.class, () -> new TournamentStatistics.StoppingRule(1, 1.0, false));
+        assertThrows(IllegalArgumentException.class, () -> new TournamentStatistics.StoppingRule(2, Double.NaN, false));
+    }
+
+    /**
+     * Verifies a run stops once the rule is met, with the scores of the rounds of a full run.
+     */
+    @Test
+    void testEarlyStoppingRun() throws InterruptedException, ExecutionException {
+        List<List<String>> brackets = List.of(List.of("RandomStrategy", "RankingStrategy", "RandomStrategy", "RankingStrategy"));
+        TournamentStatistics.StoppingRule rule = new TournamentStatistics.StoppingRule(3, 0.0, true);
+        TournamentStatistics.Result stopped = new TournamentStatistics(new BaseStrategyFactory(), brackets, 20, 50, 5, false, false, rule)
+                .retainRoundScores(true).run();
+        assertTrue(stopped.rounds() < 50, "RankingStrategy should be clearly ahead of RandomStrategy");
+        assertTrue(stopped.rounds() >= 3);
+        assertEquals(50, stopped.maxRounds());
+        assertTrue(stopped.toSummary().contains("Stopped early"));
+        TournamentStatistics.Result full = new TournamentStatistics(new BaseStrategyFactory(), brackets, 20, stopped.rounds(), 5, false, false)
+                .retainRoundScores(true).run();
+        assertEquals(full.scoresByStrategy(), stopped.scoresByStrategy());
+        assertEquals(full.rounds(), full.maxRounds());
+    }
+
+    // ── pipelined rounds ──────────────────────────────────────────────────────
+
+    /**
+     * Verifies rounds played ahead on any number of threads are recorded in round order.
+     */
+    @Test
+    void testSameScoresWithAnyParallelism() throws InterruptedException, ExecutionException {
+        List<String> strategyNames = Tournament.getStrategyNames();
+        List<List<String>> brackets = Tournament.getStrategyNameBrackets(strategyNames);
+        TournamentStatistics.Result one = new TournamentStatistics(new BaseStrategyFactory(), brackets, 5, 4, 13, false, false)
+                .parallelism(1).retainRoundScores(true).run();
+        TournamentStatistics.Result three = new TournamentStatistics(new BaseStrategyFactory(), brackets, 5, 4, 13, false, false)
+                .parallelism(3).retainRoundScores(true).run();
+        assertEquals(one.scoresByStrategy(), three.scoresByStrategy());
+        assertThrows(IllegalArgumentException.class,
+                () -> new TournamentStatistics(new BaseStrategyFactory(), brackets, 5, 4).parallelism(0));
+    }
+
+    // ── streaming summaries ───────────────────────────────────────────────────
+
+    /**
+     * Verifies a run without per-round scores has the same statistics as one with them.
+     */
+    @Test
+    void testWithoutRoundScores() throws InterruptedException, ExecutionException {
+        List<String> strategyNames = Tournament.getStrategyNames();
+        List<List<String>> brackets = Tournament.getStrategyNameBrackets(strategyNames);
+        TournamentStatistics.Result retained = new TournamentStatistics(new BaseStrategyFactory(), brackets, 5, 6, 17, true, false)
+                .retainRoundScores(true).run();
+        TournamentStatistics.Result summarized = new TournamentStatistics(new BaseStrategyFactory(), brackets, 5, 6, 17, true, false).run();
+        assertTrue(summarized.scoresByStrategy().isEmpty());
+        assertEquals(retained.strategyStats(), summarized.strategyStats());
+        assertEquals(retained.pairedDifferences(), summarized.pairedDifferences());
+        assertEquals(6, summarized.summary().rounds());
+        for (String strategy : strategyNames) {
+            assertEquals(runningStats(retained.scoresByStrategy().get(strategy)).mean(), summarized.strategyStats().get(strategy).mean(), 1e-9);
+        }
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    private static RunningStats runningStats(List<Double> values) {
+        RunningStats stats = new RunningStats();
+        values.forEach(stats::add);
+        return stats;
+    }
+
+    /**
+     * @return the statistics of a strategy that played rounds with the scores and place counts.
+     */
+    private static StrategyStats strategyStats(String strategy, List<Double> scores, List<Integer> firsts, List<Integer> seconds,
+                                               List<Integer> thirds, List<Integer> fourths) {
+        List<List<Integer>> places = List.of(firsts, seconds, thirds, fourths);
+        TournamentSummary summary = new TournamentSummary();
+        for (int round = 0; round < scores.size(); round++) {
+            EventCounter<String, Integer> finishCounts = new EventCounter<>();
+            for (int place = 0; place < places.size(); place++) {
+                finishCounts.add(strategy, place, places.get(place).get(round));
+            }
+            summary.addRound(Map.of(strategy, scores.get(round)), finishCounts, null);
+        }
+        return summary.strategyStats().get(strategy);
+    }
+
+    /**
+     * @return the summary of rounds in which strategies a and b played with the scores.
+     */
+    private static TournamentSummary summary(List<Double> a, List<Double> b) {
+        TournamentSummary summary = new TournamentSummary();
+        for (int round = 0; round < a.size(); round++) {
+            summary.addRound(Map.of("a", a.get(round), "b", b.get(round)), null, null);
+        }
+        return summary;
+    }
+
+    /**
+     * @return the paired difference of a minus b, measured against the independent scores unless null.
+     */
+    private static TournamentStatistics.PairedDifference pairedDifference(List<Double> a, List<Double> b,
+                                                                          List<Double> independentA, List<Double> independentB) {
+        TournamentSummary summary = summary(a, b);
+        if (independentA != null) {
+            for (int round = 0; round < independentA.size(); round++) {
+                summary.addIndependentRound(Map.of("a", independentA.get(round), "b", independentB.get(round)));
+            }
+        }
+        return summary.pairedDifference("a", "b");
+    }
+
+    private static TournamentStatistics.ControlVariateStats controlVariateStats(List<Double> scores, List<double[]> luck) {
+        TournamentSummary summary = new TournamentSummary();
+        for (int round = 0; round < scores.size(); round++) {
+            summary.addRound(Map.of("a", scores.get(round)), null, Map.of("a", luck.get(round)));
+        }
+        return summary.controlVariateStats().get("a");
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.rttnghs.mejn.statistics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class TournamentSummaryTest {
+
+	private static Map<String, Double> round(int index) {
+		return Map.of("A", 1.0 + (index % 3), "B", 2.0 - Math.sin(index), "C", (double) (index % 5));
+	}
+
+	@Test
+	final void testMergeEqualsWhole() {
+		TournamentSummary whole = new TournamentSummary();
+		TournamentSummary first = new TournamentSummary();
+		TournamentSummary second = new TournamentSummary();
+		for (int index = 0; index < 60; index++) {
+			whole.addRound(round(index), null, null);
+			(index < 25 ? first : second).addRound(round(index), null, null);
+		}
+		TournamentSummary merged = first.merge(second);
+		assertEquals(60, merged.rounds());
+		assertEquals(Set.of("A", "B", "C"), merged.strategies());
+		for (String strategy : whole.strategies()) {
+			assertEquals(whole.scores(strategy).mean(), merged.scores(strategy).mean(), 1e-12);
+			assertEquals(whole.scores(strategy).variance(), merged.scores(strategy).variance(), 1e-9);
+			assertEquals(whole.strategyStats().get(strategy).median(), merged.strategyStats().get(strategy).median());
+		}
+		assertEquals(whole.pairedDifference("A", "B").stddev(), merged.pairedDifference("A", "B").stddev(), 1e-9);
+	}
+
+	@Test
+	final void testKnownValues() {
+		TournamentSummary summary = new TournamentSummary();
+		List<Double> a = List.of(1.0, 3.0, 2.0, 5.0);
+		List<Double> b = List.of(2.0, 2.0, 4.0, 1.0);
+		for (int index = 0; index < a.size(); index++) {
+			summary.addRound(Map.of("A", a.get(index), "B", b.get(index)), null, null);
+		}
+		// Differences {-1,1,-2,4}: mean 0.5, sum of squares 1.5^2 + 0.5^2 + 2.5^2 + 3.5^2 = 21
+		TournamentStatistics.PairedDifference difference = summary.pairedDifference("A", "B");
+		assertEquals(0.5, difference.mean(), 1e-12);
+		assertEquals(Math.sqrt(21.0 / 3.0), difference.stddev(), 1e-12);
+		assertEquals(-0.5, summary.pairedDifference("B", "A").mean(), 1e-12);
+		assertEquals("B", summary.pairedDifference("B", "A").first());
+		assertNull(summary.pairedDifference("A", "D"));
+		assertEquals(2.75, summary.strategyStats().get("A").mean(), 1e-12);
+	}
+
+	@Test
+	final void testSerializable() throws IOException, ClassNotFoundException {
+		TournamentSummary summary = new TournamentSummary();
+		for (int index = 0; index < 10; index++) {
+			summary.addRound(round(index), null, Map.of("A", new double[] { index % 2 - 0.5 }));
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(summary);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			TournamentSummary copy = (TournamentSummary) in.readObject();
+			assertEquals(summary.rounds(), copy.rounds());
+			assertEquals(summary.strategyStats(), copy.strategyStats());
+			assertEquals(summary.controlVariateStats().keySet(), copy.controlVariateStats().keySet());
+		}
+	}
+}